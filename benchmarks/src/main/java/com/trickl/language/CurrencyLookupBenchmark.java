@@ -0,0 +1,105 @@
+package com.trickl.language;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looking up the currency of a symbol or an English display name, through the {@link
+ * CurrencyTable} indexes against the scan of every locale per lookup that they replaced.
+ *
+ * <p>In the library package, as the table is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyLookupBenchmark {
+
+  private static final String[] SYMBOLS = {"$", "£", "€", "¥", "CHF", "R$", "₹", "kr"};
+
+  private static final String[] NAMES = {
+    "US DOLLAR",
+    "BRITISH POUND",
+    "EURO",
+    "JAPANESE YEN",
+    "SWISS FRANC",
+    "BRAZILIAN REAL",
+    "INDIAN RUPEE",
+    "SWEDISH KRONA"
+  };
+
+  private CurrencyTable table;
+
+  private List<Locale> locales;
+
+  private int index;
+
+  @Setup
+  public void setUp() {
+    table = CurrencyTable.load();
+    Set<String> countries = new HashSet<>(Arrays.asList(Locale.getISOCountries()));
+    locales =
+        Arrays.stream(Locale.getAvailableLocales())
+            .filter(locale -> countries.contains(locale.getCountry()))
+            .filter(locale -> Currency.getInstance(locale) != null)
+            .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public Currency symbolTable() {
+    return table.getBySymbol().get(SYMBOLS[next()]);
+  }
+
+  @Benchmark
+  public Currency symbolScan() {
+    String symbol = SYMBOLS[next()];
+    return locales.stream()
+        .filter(locale -> Currency.getInstance(locale).getSymbol(locale).equals(symbol))
+        .map(Currency::getInstance)
+        .findFirst()
+        .orElse(null);
+  }
+
+  @Benchmark
+  public Currency nameTable() {
+    return table.getByName().get(NAMES[next()]);
+  }
+
+  @Benchmark
+  public Currency nameScan() {
+    String name = NAMES[next()];
+    return locales.stream()
+        .filter(
+            locale ->
+                Currency.getInstance(locale)
+                    .getDisplayName(Locale.ENGLISH)
+                    .toUpperCase()
+                    .equals(name))
+        .map(Currency::getInstance)
+        .findFirst()
+        .orElse(null);
+  }
+
+  private int next() {
+    index = (index + 1) & (SYMBOLS.length - 1);
+    return index;
+  }
+}
@@ -0,0 +1,45 @@
+package com.trickl.language.benchmark;
+
+import com.trickl.language.EnglishCurrencyAmountFormat;
+import com.trickl.language.EnglishDurationFormat;
+import com.trickl.language.EnglishNumberParser;
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to first result in a fresh JVM, including class initialization. Every measurement runs in
+ * its own fork, as a class is only initialized once per JVM.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ColdStartBenchmark {
+
+  @Benchmark
+  public BigDecimal numberParser() {
+    return new EnglishNumberParser().parse("ninety nine thousand three hundred and eighty seven");
+  }
+
+  @Benchmark
+  public Map.Entry<Currency, BigDecimal> currencyAmountFormat() throws ParseException {
+    return new EnglishCurrencyAmountFormat().parse("$1.4 million");
+  }
+
+  @Benchmark
+  public Duration durationFormat() throws ParseException {
+    return new EnglishDurationFormat().parse("1 day 2 hours 15 minutes 3 seconds 20 ms");
+  }
+}
@@ -0,0 +1,90 @@
+package com.trickl.language.benchmark;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Realistic inputs for the benchmarks, each corpus holds a power of two number of entries. */
+final class Corpora {
+
+  static final Map<String, String[]> NUMBERS;
+
+  static final Map<String, String[]> CURRENCY_AMOUNTS;
+
+  static final Map<String, String[]> DURATIONS;
+
+  static {
+    Map<String, String[]> numbers = new HashMap<>();
+    numbers.put(
+        "words",
+        new String[] {
+          "zero", "three", "fourteen", "seventy", "hundred", "twelve", "nine", "forty"
+        });
+    numbers.put(
+        "phrases",
+        new String[] {
+          "ninety nine thousand three hundred and eighty seven",
+          "forty five thousand, fifty five",
+          "two hundred sixty four",
+          "thirteen million and twelve",
+          "one billion two hundred million three hundred thousand and one",
+          "seven hundred and seventy seven",
+          "Five Thousand Four Hundred And Thirty Two",
+          "six hundred thousand and six"
+        });
+    numbers.put(
+        "delimited",
+        new String[] {
+          "1,350,000", "13 million", "45,055", "2 hundred",
+          "1،350،000", "999,999,999", "12", "7,000"
+        });
+    numbers.put(
+        "misspelt",
+        new String[] {
+          "ninety nine thousnd three hundred and eighty seven",
+          "fourty five thousand, fifty five",
+          "two hundrd sixty four",
+          "thirteen millon and twelve",
+          "one billion two hundred million three hundred thousand and one",
+          "sevnty seven",
+          "Five Thousand Four Hundred And Thirty Two",
+          "six hundred thousnd and six"
+        });
+    NUMBERS = Collections.unmodifiableMap(numbers);
+
+    Map<String, String[]> currencyAmounts = new HashMap<>();
+    currencyAmounts.put(
+        "symbol",
+        new String[] {
+          "$1.4 million", "£13 million", "€250", "₹420 million",
+          "$1,350,000", "£23", "$110 million", "$1.4 million and five hundred"
+        });
+    currencyAmounts.put(
+        "name",
+        new String[] {
+          "13 million euro", "200 US dollar", "one hundred british pound", "13 million us dollar",
+          "five thousand japanese yen", "40 euro", "twelve british pound", "3,000 us dollar"
+        });
+    CURRENCY_AMOUNTS = Collections.unmodifiableMap(currencyAmounts);
+
+    Map<String, String[]> durations = new HashMap<>();
+    durations.put(
+        "short",
+        new String[] {"85 mins", "1 hour", "10s", "320 ms", "2 hrs", "day", "7 seconds", "1 min"});
+    durations.put(
+        "long",
+        new String[] {
+          "1 day 2 hours 15 minutes 3 seconds 20 ms",
+          "1 day 3 hours 17 minutes 10 seconds",
+          "1 hr 17 mins 45 s 120 ms",
+          "6 days 23 hours 59 minutes 59 seconds 999 millis",
+          "2 hours 30 minutes",
+          "7 seconds 320 millis 15 micros 3 nanos",
+          "4 days 12 hrs 1 min",
+          "1 hour 1 minute 1 second 1 millisecond"
+        });
+    DURATIONS = Collections.unmodifiableMap(durations);
+  }
+
+  private Corpora() {}
+}
@@ -0,0 +1,105 @@
+package com.trickl.language.benchmark;
+
+import com.trickl.language.CurrencyAmount;
+import com.trickl.language.EnglishCurrencyAmountFormat;
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnglishCurrencyAmountFormatBenchmark {
+
+  @Param({"symbol", "name"})
+  public String corpus;
+
+  private final EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+
+  private final CurrencyAmount amount = new CurrencyAmount();
+
+  private final StringBuilder builder = new StringBuilder();
+
+  private final NumberFormat numberFormat = NumberFormat.getCurrencyInstance(Locale.UK);
+
+  private String[] inputs;
+
+  private Currency[] currencies;
+
+  private long[] minorUnits;
+
+  private EnglishCurrencyAmountFormat.Style style;
+
+  private int index;
+
+  @Setup
+  public void setUp() throws ParseException {
+    inputs = Corpora.CURRENCY_AMOUNTS.get(corpus);
+    currencies = new Currency[inputs.length];
+    minorUnits = new long[inputs.length];
+    for (int i = 0; i < inputs.length; ++i) {
+      format.parseInto(inputs[i], amount);
+      currencies[i] = amount.getCurrency();
+      minorUnits[i] = amount.getMinorUnits();
+    }
+    style =
+        "name".equals(corpus)
+            ? EnglishCurrencyAmountFormat.Style.NAME
+            : EnglishCurrencyAmountFormat.Style.SYMBOL;
+  }
+
+  @Benchmark
+  public Map.Entry<Currency, BigDecimal> parse() throws ParseException {
+    return format.parse(next());
+  }
+
+  @Benchmark
+  public CurrencyAmount parseInto() throws ParseException {
+    format.parseInto(next(), amount);
+    return amount;
+  }
+
+  @Benchmark
+  public StringBuilder formatTo() {
+    int i = nextIndex();
+    builder.setLength(0);
+    return format.formatTo(currencies[i], minorUnits[i], style, builder);
+  }
+
+  @Benchmark
+  public String numberFormat() {
+    // The java.text baseline that formatTo replaces
+    int i = nextIndex();
+    numberFormat.setCurrency(currencies[i]);
+    return numberFormat.format(
+        BigDecimal.valueOf(minorUnits[i], currencies[i].getDefaultFractionDigits()));
+  }
+
+  private int nextIndex() {
+    index = (index + 1) & (inputs.length - 1);
+    return index;
+  }
+
+  private String next() {
+    index = (index + 1) & (inputs.length - 1);
+    return inputs[index];
+  }
+}
@@ -0,0 +1,92 @@
+package com.trickl.language.benchmark;
+
+import com.trickl.language.CachingEnglishDurationFormat;
+import com.trickl.language.EnglishDurationFormat;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnglishDurationFormatBenchmark {
+
+  @Param({"short", "long"})
+  public String corpus;
+
+  private final EnglishDurationFormat format = new EnglishDurationFormat();
+
+  private final CachingEnglishDurationFormat cachingFormat =
+      new CachingEnglishDurationFormat(format, 1024);
+
+  private final StringBuilder builder = new StringBuilder();
+
+  private String[] inputs;
+
+  private Duration[] durations;
+
+  private long[] nanos;
+
+  private int index;
+
+  @Setup
+  public void setUp() throws ParseException {
+    inputs = Corpora.DURATIONS.get(corpus);
+    durations = new Duration[inputs.length];
+    nanos = new long[inputs.length];
+    for (int i = 0; i < inputs.length; ++i) {
+      durations[i] = format.parse(inputs[i]);
+      nanos[i] = durations[i].toNanos();
+    }
+  }
+
+  @Benchmark
+  public Duration parse() throws ParseException {
+    return format.parse(inputs[next()]);
+  }
+
+  @Benchmark
+  public long parseToNanos() throws ParseException {
+    return format.parseToNanos(inputs[next()]);
+  }
+
+  @Benchmark
+  public String format() {
+    return format.format(durations[next()]);
+  }
+
+  @Benchmark
+  public StringBuilder formatTo() {
+    builder.setLength(0);
+    return format.formatTo(durations[next()], builder);
+  }
+
+  @Benchmark
+  public String formatNanos() {
+    return format.formatNanos(nanos[next()]);
+  }
+
+  @Benchmark
+  public String formatNanosCached() {
+    return cachingFormat.formatNanos(nanos[next()]);
+  }
+
+  private int next() {
+    index = (index + 1) & (inputs.length - 1);
+    return index;
+  }
+}
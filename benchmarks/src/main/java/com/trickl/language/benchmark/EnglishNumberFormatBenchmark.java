@@ -0,0 +1,48 @@
+package com.trickl.language.benchmark;
+
+import com.trickl.language.EnglishNumberFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnglishNumberFormatBenchmark {
+
+  private static final long[] NUMBERS = {
+    0, 7, 264, 45055, 99387, 13000012, 1200300001, 987654321012345L
+  };
+
+  private final EnglishNumberFormat format = new EnglishNumberFormat();
+
+  private final StringBuilder builder = new StringBuilder();
+
+  private int index;
+
+  @Benchmark
+  public String format() {
+    return format.format(next());
+  }
+
+  @Benchmark
+  public StringBuilder formatTo() {
+    builder.setLength(0);
+    return format.formatTo(next(), builder);
+  }
+
+  private long next() {
+    index = (index + 1) & (NUMBERS.length - 1);
+    return NUMBERS[index];
+  }
+}
@@ -0,0 +1,61 @@
+package com.trickl.language.benchmark;
+
+import com.trickl.language.EnglishNumberParser;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnglishNumberParserBenchmark {
+
+  @Param({"words", "phrases", "delimited"})
+  public String corpus;
+
+  private final EnglishNumberParser parser = new EnglishNumberParser();
+
+  private final EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+
+  private String[] inputs;
+
+  private int index;
+
+  @Setup
+  public void setUp() {
+    inputs = Corpora.NUMBERS.get(corpus);
+  }
+
+  @Benchmark
+  public BigDecimal parse() {
+    return parser.parse(next());
+  }
+
+  @Benchmark
+  public long parseLong() {
+    return parser.parseLong(next());
+  }
+
+  @Benchmark
+  public boolean tryParse() {
+    return parser.tryParse(next(), result);
+  }
+
+  private String next() {
+    index = (index + 1) & (inputs.length - 1);
+    return inputs[index];
+  }
+}
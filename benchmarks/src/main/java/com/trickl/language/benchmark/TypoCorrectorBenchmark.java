@@ -0,0 +1,117 @@
+package com.trickl.language.benchmark;
+
+import com.trickl.language.EnglishNumberParser;
+import com.trickl.language.TypoCorrection;
+import com.trickl.language.TypoCorrector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares correcting misspelt number words with the automaton against checking every word of the
+ * text against every number word by edit distance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypoCorrectorBenchmark {
+
+  private static final String[] NUMBER_WORDS = {
+    "ZERO", "ONE", "TWO", "THREE", "FOUR", "FIVE", "SIX", "SEVEN", "EIGHT", "NINE", "TEN",
+    "ELEVEN", "TWELVE", "THIRTEEN", "FOURTEEN", "FIFTEEN", "SIXTEEN", "SEVENTEEN", "EIGHTEEN",
+    "NINETEEN", "TWENTY", "THIRTY", "FORTY", "FIFTY", "SIXTY", "SEVENTY", "EIGHTY", "NINETY",
+    "HUNDRED", "THOUSAND", "MILLION", "BILLION", "TRILLION", "AND"
+  };
+
+  @Param({"1", "2"})
+  public int maxEdits;
+
+  private TypoCorrector corrector;
+
+  private EnglishNumberParser parser;
+
+  private final EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+
+  private final List<TypoCorrection> corrections = new ArrayList<>();
+
+  private String[] inputs;
+
+  private int index;
+
+  @Setup
+  public void setUp() {
+    corrector = TypoCorrector.forMaxEdits(maxEdits);
+    parser = new EnglishNumberParser().withTypoTolerance(maxEdits);
+    inputs = Corpora.NUMBERS.get("misspelt");
+  }
+
+  @Benchmark
+  public String correct() {
+    corrections.clear();
+    return corrector.correct(next(), corrections);
+  }
+
+  @Benchmark
+  public String correctByEditDistance() {
+    String input = next();
+    StringBuilder corrected = new StringBuilder(input.length());
+    for (String word : input.split(" ")) {
+      String closest = word;
+      int closestDistance = maxEdits + 1;
+      String upper = word.toUpperCase(Locale.ENGLISH);
+      for (String candidate : NUMBER_WORDS) {
+        int distance = editDistance(upper, candidate);
+        if (distance < closestDistance) {
+          closest = candidate;
+          closestDistance = distance;
+        }
+      }
+      corrected.append(closest).append(' ');
+    }
+    return corrected.toString();
+  }
+
+  @Benchmark
+  public boolean tryParse() {
+    return parser.tryParse(next(), result);
+  }
+
+  private String next() {
+    index = (index + 1) & (inputs.length - 1);
+    return inputs[index];
+  }
+
+  private static int editDistance(String a, String b) {
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); ++j) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); ++i) {
+      current[0] = i;
+      for (int j = 1; j <= b.length(); ++j) {
+        int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+        current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+}
@@ -0,0 +1,144 @@
+package com.trickl.language.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Just enough JSON for batches of strings in and flat objects out. */
+final class Json {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private Json() {}
+
+  /**
+   * Read an array of strings, e.g. ["one", "two"].
+   *
+   * @param text The JSON text
+   * @return The strings, in order
+   * @throws IllegalArgumentException if the text is not an array of strings
+   */
+  static List<String> parseStringArray(CharSequence text) {
+    List<String> values = new ArrayList<>();
+    int position = expect(text, skipSpaces(text, 0), '[');
+    position = skipSpaces(text, position);
+    if (position < text.length() && text.charAt(position) == ']') {
+      return checkEnd(text, position + 1, values);
+    }
+    StringBuilder value = new StringBuilder();
+    while (true) {
+      position = expect(text, skipSpaces(text, position), '"');
+      value.setLength(0);
+      position = readString(text, position, value);
+      values.add(value.toString());
+      position = skipSpaces(text, position);
+      if (position < text.length() && text.charAt(position) == ']') {
+        return checkEnd(text, position + 1, values);
+      }
+      position = expect(text, position, ',');
+    }
+  }
+
+  /**
+   * Append a string as a quoted JSON string.
+   *
+   * @param builder The builder to append to
+   * @param value The string to quote
+   * @return The builder
+   */
+  static StringBuilder appendString(StringBuilder builder, CharSequence value) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        builder.append('\\').append(c);
+      } else if (c == '\n') {
+        builder.append("\\n");
+      } else if (c == '\r') {
+        builder.append("\\r");
+      } else if (c == '\t') {
+        builder.append("\\t");
+      } else if (c < 0x20) {
+        builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+      } else {
+        builder.append(c);
+      }
+    }
+    return builder.append('"');
+  }
+
+  // Reads up to and including the closing quote, the opening quote having been consumed
+  private static int readString(CharSequence text, int position, StringBuilder value) {
+    while (position < text.length()) {
+      char c = text.charAt(position++);
+      if (c == '"') {
+        return position;
+      } else if (c != '\\') {
+        value.append(c);
+      } else if (position < text.length()) {
+        char escaped = text.charAt(position++);
+        switch (escaped) {
+          case '"':
+          case '\\':
+          case '/':
+            value.append(escaped);
+            break;
+          case 'b':
+            value.append('\b');
+            break;
+          case 'f':
+            value.append('\f');
+            break;
+          case 'n':
+            value.append('\n');
+            break;
+          case 'r':
+            value.append('\r');
+            break;
+          case 't':
+            value.append('\t');
+            break;
+          case 'u':
+            if (position + 4 > text.length()) {
+              throw error("Truncated unicode escape", position);
+            }
+            try {
+              value.append(
+                  (char) Integer.parseInt(text.subSequence(position, position + 4).toString(), 16));
+            } catch (NumberFormatException ex) {
+              throw error("Invalid unicode escape", position);
+            }
+            position += 4;
+            break;
+          default:
+            throw error("Invalid escape '\\" + escaped + "'", position - 1);
+        }
+      }
+    }
+    throw error("Unterminated string", position);
+  }
+
+  private static int expect(CharSequence text, int position, char expected) {
+    if (position >= text.length() || text.charAt(position) != expected) {
+      throw error("Expected '" + expected + "'", position);
+    }
+    return position + 1;
+  }
+
+  private static List<String> checkEnd(CharSequence text, int position, List<String> values) {
+    if (skipSpaces(text, position) != text.length()) {
+      throw error("Unexpected text after array", position);
+    }
+    return values;
+  }
+
+  private static int skipSpaces(CharSequence text, int position) {
+    while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+      position++;
+    }
+    return position;
+  }
+
+  private static IllegalArgumentException error(String message, int position) {
+    return new IllegalArgumentException(message + " at offset " + position);
+  }
+}
@@ -0,0 +1,189 @@
+package com.trickl.language.server;
+
+import com.trickl.language.Histogram;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A load-test client that posts newline-delimited batches to a normalization server on localhost
+ * from several threads and reports throughput and request latency.
+ *
+ * <pre>
+ * java -cp language-server.jar com.trickl.language.server.LoadTest \
+ *   [port|embedded] [number|currency|duration] [threads] [batch size] [seconds]
+ * </pre>
+ *
+ * <p>With "embedded" a server is started in the same process on a free port.
+ */
+public final class LoadTest {
+
+  private static final String[] NUMBERS = {
+    "ninety nine thousand three hundred and eighty seven",
+    "forty five thousand, fifty five",
+    "thirteen million and twelve",
+    "1,350,000",
+    "seven hundred and seventy seven",
+    "13 million",
+    "six hundred thousand and six",
+    "twelve"
+  };
+
+  private static final String[] CURRENCY_AMOUNTS = {
+    "$1.4 million", "£13 million", "€250", "₹420 million",
+    "13 million euro", "200 US dollar", "one hundred british pound", "$1,350,000"
+  };
+
+  private static final String[] DURATIONS = {
+    "1 day 2 hours 15 minutes", "85 mins", "1 hr 17 mins 45 s", "320 ms",
+    "2 hours 30 minutes", "7 seconds 320 millis", "day", "4 days 12 hrs 1 min"
+  };
+
+  private final URL url;
+
+  private final byte[][] bodies;
+
+  private final LongAdder items = new LongAdder();
+
+  private final LongAdder errors = new LongAdder();
+
+  private final Histogram latencyNanos = new Histogram();
+
+  private LoadTest(URL url, String[] corpus, int batchSize) {
+    this.url = url;
+    // A few distinct bodies so that caches see some variety
+    bodies = new byte[corpus.length][];
+    for (int offset = 0; offset < corpus.length; ++offset) {
+      StringBuilder body = new StringBuilder();
+      for (int i = 0; i < batchSize; ++i) {
+        body.append(corpus[(offset + i) % corpus.length]).append('\n');
+      }
+      bodies[offset] = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  private void run(int threads, long seconds) throws InterruptedException, ExecutionException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    List<Future<?>> clients = new ArrayList<>();
+    for (int thread = 0; thread < threads; ++thread) {
+      int first = thread;
+      clients.add(
+          executor.submit(
+              () -> {
+                for (int i = first; System.nanoTime() < deadline; ++i) {
+                  post(bodies[i % bodies.length]);
+                }
+                return null;
+              }));
+    }
+    for (Future<?> client : clients) {
+      client.get();
+    }
+    executor.shutdown();
+  }
+
+  private void post(byte[] body) throws IOException {
+    long started = System.nanoTime();
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setRequestProperty("Content-Type", "application/x-ndjson");
+    connection.setFixedLengthStreamingMode(body.length);
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(body);
+    }
+    if (connection.getResponseCode() != 200) {
+      errors.increment();
+      return;
+    }
+    long lines = 0;
+    byte[] buffer = new byte[8192];
+    try (InputStream in = connection.getInputStream()) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        for (int i = 0; i < read; ++i) {
+          if (buffer[i] == '\n') {
+            lines++;
+          }
+        }
+      }
+    }
+    items.add(lines);
+    latencyNanos.record(System.nanoTime() - started);
+  }
+
+  private void report(long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    System.out.printf(
+        "%d requests, %d items, %d errors in %.1fs%n",
+        latencyNanos.getCount(), items.sum(), errors.sum(), seconds);
+    System.out.printf(
+        "%.0f requests/s, %.0f items/s%n",
+        latencyNanos.getCount() / seconds, items.sum() / seconds);
+    System.out.printf(
+        "latency p50 %.2fms, p99 %.2fms, max %.2fms%n",
+        latencyNanos.getValueAtPercentile(50) / 1e6,
+        latencyNanos.getValueAtPercentile(99) / 1e6,
+        latencyNanos.getMax() / 1e6);
+  }
+
+  /**
+   * Run a load test.
+   *
+   * @param args The port or "embedded", kind, threads, batch size and seconds, all optional
+   * @throws Exception if the test cannot be run
+   */
+  public static void main(String[] args) throws Exception {
+    String target = args.length > 0 ? args[0] : "embedded";
+    Normalizer.Kind kind = Normalizer.Kind.named(args.length > 1 ? args[1] : "number");
+    if (kind == null) {
+      throw new IllegalArgumentException("Unknown kind, expected number, currency or duration");
+    }
+    int threads = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+    int batchSize = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+    long seconds = args.length > 4 ? Long.parseLong(args[4]) : 10;
+    String[] corpus =
+        kind == Normalizer.Kind.NUMBER
+            ? NUMBERS
+            : kind == Normalizer.Kind.CURRENCY ? CURRENCY_AMOUNTS : DURATIONS;
+
+    NormalizationServer server = null;
+    int port;
+    if ("embedded".equals(target)) {
+      NormalizationServer.disableNagle();
+      server = new NormalizationServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      port = server.getAddress().getPort();
+    } else {
+      port = Integer.parseInt(target);
+    }
+    try {
+      URL url = new URL("http", "localhost", port, "/normalize/" + kind.pathName());
+      LoadTest test = new LoadTest(url, corpus, batchSize);
+      long started = System.nanoTime();
+      test.run(threads, seconds);
+      test.report(System.nanoTime() - started);
+      if (server != null) {
+        double itemsPerBatch = (double) server.getItems() / Math.max(server.getBatches(), 1);
+        System.out.printf("%.1f items per batch%n", itemsPerBatch);
+      }
+    } finally {
+      if (server != null) {
+        server.close();
+      }
+    }
+  }
+}
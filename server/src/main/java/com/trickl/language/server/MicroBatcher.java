@@ -0,0 +1,188 @@
+package com.trickl.language.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coalesces items from concurrent requests into micro-batches, so that a worker normalizes many
+ * short strings per hand-off rather than one.
+ *
+ * <p>A single dispatcher thread takes whatever is queued, waiting at most the batch delay for more
+ * to arrive while the batch is short, then hands the batch to the worker pool. Submitting blocks
+ * while the queue is full.
+ */
+final class MicroBatcher implements AutoCloseable {
+
+  private static final Logger log = Logger.getLogger(MicroBatcher.class.getName());
+
+  private final Normalizer normalizer;
+
+  private final WorkerPool workers;
+
+  private final ServerMetrics metrics;
+
+  private final BlockingQueue<Item> queue;
+
+  private final int maxBatchSize;
+
+  private final long maxDelayNanos;
+
+  private final Thread dispatcher;
+
+  private volatile boolean closed;
+
+  /**
+   * Create a batcher and start its dispatcher.
+   *
+   * @param normalizer The normalizer to apply to each item
+   * @param workers The pool that batches run on
+   * @param metrics The counters to update
+   * @param maxBatchSize The most items in a batch
+   * @param maxDelayNanos The longest to wait for a short batch to fill
+   */
+  MicroBatcher(
+      Normalizer normalizer,
+      WorkerPool workers,
+      ServerMetrics metrics,
+      int maxBatchSize,
+      long maxDelayNanos) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be at least one");
+    }
+    this.normalizer = normalizer;
+    this.workers = workers;
+    this.metrics = metrics;
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = maxDelayNanos;
+    // Room for 64 full batches, beyond that submitters block rather than hold more text in memory
+    this.queue = new ArrayBlockingQueue<>(maxBatchSize * 64);
+    this.dispatcher = new Thread(this::dispatch, "normalizer-dispatcher");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+  }
+
+  /**
+   * Queue some text to be normalized.
+   *
+   * @param kind The kind of text
+   * @param text The text
+   * @return The JSON result, completed by a worker
+   * @throws InterruptedException if interrupted while the queue is full
+   * @throws RejectedExecutionException if the batcher is closed
+   */
+  CompletableFuture<String> submit(Normalizer.Kind kind, String text)
+      throws InterruptedException {
+    if (closed) {
+      throw new RejectedExecutionException("Batcher is closed");
+    }
+    Item item = new Item(kind, text);
+    queue.put(item);
+    if (closed && queue.remove(item)) {
+      // Closed while queueing, after the remaining items were failed
+      item.result.completeExceptionally(new RejectedExecutionException("Batcher is closed"));
+    }
+    return item.result;
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    dispatcher.interrupt();
+    dispatcher.join();
+    Item item;
+    while ((item = queue.poll()) != null) {
+      item.result.completeExceptionally(new RejectedExecutionException("Batcher is closed"));
+    }
+  }
+
+  private void dispatch() {
+    List<Item> batch = new ArrayList<>(maxBatchSize);
+    try {
+      while (!closed) {
+        batch.add(queue.take());
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+          long remaining = deadline - System.nanoTime();
+          Item next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+        Item[] items = batch.toArray(new Item[0]);
+        batch.clear();
+        try {
+          workers.execute(() -> process(items));
+        } catch (RejectedExecutionException ex) {
+          fail(items, ex);
+        }
+      }
+    } catch (InterruptedException ex) {
+      // Closed
+      fail(batch.toArray(new Item[0]), new RejectedExecutionException("Batcher is closed"));
+    }
+  }
+
+  private void process(Item[] items) {
+    long started = System.nanoTime();
+    int failures = 0;
+    String[] results = new String[items.length];
+    RuntimeException[] errors = new RuntimeException[items.length];
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < items.length; ++i) {
+      metrics.itemDequeued(started - items[i].queuedNanos);
+      builder.setLength(0);
+      try {
+        if (!normalizer.normalize(items[i].kind, items[i].text, builder)) {
+          failures++;
+        }
+        results[i] = builder.toString();
+      } catch (RuntimeException ex) {
+        log.log(Level.WARNING, "Unable to normalize '" + items[i].text + "'", ex);
+        failures++;
+        errors[i] = ex;
+      }
+    }
+
+    // Counted before any result is released, so a client never sees its items uncounted
+    metrics.batchProcessed(items.length, failures);
+    for (int i = 0; i < items.length; ++i) {
+      if (errors[i] == null) {
+        items[i].result.complete(results[i]);
+      } else {
+        items[i].result.completeExceptionally(errors[i]);
+      }
+    }
+  }
+
+  private static void fail(Item[] items, Exception ex) {
+    for (Item item : items) {
+      item.result.completeExceptionally(ex);
+    }
+  }
+
+  private static final class Item {
+
+    private final Normalizer.Kind kind;
+
+    private final String text;
+
+    private final long queuedNanos = System.nanoTime();
+
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+
+    Item(Normalizer.Kind kind, String text) {
+      this.kind = kind;
+      this.text = text;
+    }
+  }
+}
@@ -0,0 +1,359 @@
+package com.trickl.language.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.trickl.language.ParserInstrumentation;
+import com.trickl.language.ParserMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small embedded HTTP server that normalizes batches of numbers, currency amounts and durations,
+ * for services that cannot call the parsers in-process.
+ *
+ * <p>POST a batch to {@code /normalize/number}, {@code /normalize/currency} or {@code
+ * /normalize/duration}, either as newline-delimited text or, with a JSON content type or a body
+ * starting "[", as a JSON array of strings. Results come back in the same form and order, one JSON
+ * object per input, streamed as they complete. Items from concurrent requests are coalesced into
+ * micro-batches on a bounded worker pool. GET {@code /metrics} for throughput and latency
+ * counters. A request body over 4 MiB is rejected with a 413.
+ *
+ * <p>A streamed response ends with a short chunk, which Nagle's algorithm holds back until the
+ * client's delayed acknowledgement, adding 40ms to every request. {@link #main} turns it off, but
+ * a process that embeds the server should be started with {@code -Dsun.net.httpserver.nodelay=true}.
+ *
+ * <pre>
+ * curl --data-binary $'ninety nine\n1,350,000' localhost:8080/normalize/number
+ * {"value":99}
+ * {"value":1350000}
+ * </pre>
+ */
+public final class NormalizationServer implements AutoCloseable {
+
+  private static final Logger log = Logger.getLogger(NormalizationServer.class.getName());
+
+  private static final String NORMALIZE_PATH = "/normalize/";
+
+  private static final String METRICS_PATH = "/metrics";
+
+  private static final int DEFAULT_PORT = 8080;
+
+  private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+  private static final long DEFAULT_MAX_BATCH_DELAY_MICROS = 200;
+
+  private static final int MAX_CONCURRENT_REQUESTS = 256;
+
+  private static final long ITEM_TIMEOUT_SECONDS = 30;
+
+  private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  // Larger batches should be split across requests, rather than held in memory all at once
+  static final int MAX_BODY_BYTES = 4 << 20;
+
+  private final HttpServer server;
+
+  private final WorkerPool requestPool;
+
+  private final WorkerPool batchPool;
+
+  private final MicroBatcher batcher;
+
+  private final ServerMetrics metrics = new ServerMetrics();
+
+  /**
+   * Start a server with the default batching, a worker per processor.
+   *
+   * @param address The address to listen on, port zero for any free port
+   * @throws IOException if unable to listen on the address
+   */
+  public NormalizationServer(InetSocketAddress address) throws IOException {
+    this(
+        address,
+        Runtime.getRuntime().availableProcessors(),
+        DEFAULT_MAX_BATCH_SIZE,
+        DEFAULT_MAX_BATCH_DELAY_MICROS);
+  }
+
+  /**
+   * Start a server.
+   *
+   * @param address The address to listen on, port zero for any free port
+   * @param workers The most batches to normalize at once
+   * @param maxBatchSize The most items in a batch
+   * @param maxBatchDelayMicros The longest to wait for a short batch to fill, zero to only batch
+   *     items that are already queued
+   * @throws IOException if unable to listen on the address
+   */
+  public NormalizationServer(
+      InetSocketAddress address, int workers, int maxBatchSize, long maxBatchDelayMicros)
+      throws IOException {
+    batchPool = new WorkerPool(workers, "normalizer-worker");
+    requestPool = new WorkerPool(MAX_CONCURRENT_REQUESTS, "normalizer-request");
+    batcher =
+        new MicroBatcher(
+            new Normalizer(),
+            batchPool,
+            metrics,
+            maxBatchSize,
+            TimeUnit.MICROSECONDS.toNanos(maxBatchDelayMicros));
+    server = HttpServer.create(address, 0);
+    server.setExecutor(requestPool);
+    server.createContext(NORMALIZE_PATH, this::handleNormalize);
+    server.createContext(METRICS_PATH, this::handleMetrics);
+    server.start();
+    log.info(
+        "Listening on "
+            + getAddress()
+            + (batchPool.isVirtual() ? " with virtual threads" : " with platform threads"));
+  }
+
+  /**
+   * Get the address the server is listening on.
+   *
+   * @return The address, with the port chosen if zero was requested
+   */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  /**
+   * Get the number of items normalized so far.
+   *
+   * @return The item count
+   */
+  public long getItems() {
+    return metrics.getItems();
+  }
+
+  /**
+   * Get the number of batches normalized so far.
+   *
+   * @return The batch count
+   */
+  public long getBatches() {
+    return metrics.getBatches();
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    server.stop(0);
+    batcher.close();
+    batchPool.close();
+    requestPool.close();
+  }
+
+  private void handleNormalize(HttpExchange exchange) throws IOException {
+    long started = System.nanoTime();
+    try {
+      Normalizer.Kind kind =
+          Normalizer.Kind.named(
+              exchange.getRequestURI().getPath().substring(NORMALIZE_PATH.length()));
+      if (kind == null) {
+        sendError(exchange, 404, "Unknown kind, expected number, currency or duration");
+        return;
+      } else if (!"POST".equals(exchange.getRequestMethod())) {
+        sendError(exchange, 405, "Expected POST");
+        return;
+      }
+
+      String body = readBody(exchange);
+      if (body == null) {
+        sendError(exchange, 413, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        return;
+      }
+      boolean json = isJson(exchange, body);
+      List<String> inputs;
+      try {
+        inputs = json ? Json.parseStringArray(body) : splitLines(body);
+      } catch (IllegalArgumentException ex) {
+        sendError(exchange, 400, ex.getMessage());
+        return;
+      }
+
+      List<CompletableFuture<String>> results = new ArrayList<>(inputs.size());
+      for (String input : inputs) {
+        results.add(batcher.submit(kind, input));
+      }
+      stream(exchange, results, json);
+      metrics.requestCompleted(System.nanoTime() - started);
+    } catch (InterruptedException | RejectedExecutionException ex) {
+      metrics.requestRejected();
+      sendError(exchange, 503, "Server is shutting down");
+    } catch (ExecutionException | TimeoutException ex) {
+      // The response has started, so all that can be done is to cut it short
+      metrics.requestRejected();
+      log.log(Level.WARNING, "Unable to complete request", ex);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  // Results are written in order, flushing whenever the next is not ready so the client sees
+  // each completed batch without waiting for the whole response
+  private static void stream(
+      HttpExchange exchange, List<CompletableFuture<String>> results, boolean json)
+      throws IOException, InterruptedException, ExecutionException, TimeoutException {
+    exchange
+        .getResponseHeaders()
+        .set("Content-Type", json ? "application/json" : "application/x-ndjson");
+    exchange.sendResponseHeaders(200, 0);
+    try (Writer writer =
+        new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+      if (json) {
+        writer.write('[');
+      }
+      for (int i = 0; i < results.size(); ++i) {
+        CompletableFuture<String> result = results.get(i);
+        if (!result.isDone()) {
+          writer.flush();
+        }
+        if (json && i > 0) {
+          writer.write(',');
+        }
+        writer.write(result.get(ITEM_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        if (!json) {
+          writer.write('\n');
+        }
+      }
+      if (json) {
+        writer.write(']');
+      }
+    }
+  }
+
+  private void handleMetrics(HttpExchange exchange) throws IOException {
+    try {
+      byte[] body =
+          metrics.appendTo(new StringBuilder()).toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  // Null if the body is larger than allowed, which is caught from the declared length where there
+  // is one, before reading any of it
+  private static String readBody(HttpExchange exchange) throws IOException {
+    String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+    if (contentLength != null && Long.parseLong(contentLength.trim()) > MAX_BODY_BYTES) {
+      return null;
+    }
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    try (InputStream in = exchange.getRequestBody()) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        if (body.size() + read > MAX_BODY_BYTES) {
+          return null;
+        }
+        body.write(buffer, 0, read);
+      }
+    }
+    return new String(body.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static boolean isJson(HttpExchange exchange, String body) {
+    String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+    if (contentType != null && contentType.contains("json") && !contentType.contains("ndjson")) {
+      return true;
+    }
+    for (int i = 0; i < body.length(); ++i) {
+      if (!Character.isWhitespace(body.charAt(i))) {
+        return body.charAt(i) == '[';
+      }
+    }
+    return false;
+  }
+
+  // One input per line, a final line break does not start another input
+  static List<String> splitLines(String body) {
+    List<String> lines = new ArrayList<>();
+    int start = 0;
+    while (start < body.length()) {
+      int end = body.indexOf('\n', start);
+      if (end < 0) {
+        end = body.length();
+      }
+      int trimmed = end > start && body.charAt(end - 1) == '\r' ? end - 1 : end;
+      lines.add(body.substring(start, trimmed));
+      start = end + 1;
+    }
+    return lines;
+  }
+
+  private static void sendError(HttpExchange exchange, int status, String message)
+      throws IOException {
+    byte[] body =
+        Json.appendString(new StringBuilder("{\"error\":"), message)
+            .append('}')
+            .toString()
+            .getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * Send streamed responses without waiting on the client's acknowledgements, unless the process
+   * has already chosen otherwise. The property is read once, so this only applies if no server has
+   * been created in the process yet.
+   */
+  static void disableNagle() {
+    if (System.getProperty(NODELAY_PROPERTY) == null) {
+      System.setProperty(NODELAY_PROPERTY, "true");
+    }
+  }
+
+  /**
+   * Run the server until the process is stopped.
+   *
+   * @param args Optionally the port to listen on, default 8080, and the number of workers
+   * @throws IOException if unable to listen on the port
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    int workers =
+        args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    disableNagle();
+    ParserInstrumentation.setListener(new ParserMetrics());
+    NormalizationServer server =
+        new NormalizationServer(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+            workers,
+            DEFAULT_MAX_BATCH_SIZE,
+            DEFAULT_MAX_BATCH_DELAY_MICROS);
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  try {
+                    server.close();
+                  } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                  }
+                }));
+  }
+}
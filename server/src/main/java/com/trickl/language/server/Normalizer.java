@@ -0,0 +1,105 @@
+package com.trickl.language.server;
+
+import com.trickl.language.CachingEnglishCurrencyAmountFormat;
+import com.trickl.language.CachingEnglishDurationFormat;
+import com.trickl.language.CachingEnglishNumberParser;
+import com.trickl.language.CurrencyAmount;
+import com.trickl.language.EnglishCurrencyAmountFormat;
+import com.trickl.language.EnglishDurationFormat;
+import com.trickl.language.EnglishNumberParser;
+import java.text.ParseException;
+import java.util.Locale;
+
+/**
+ * Normalizes a single string into a flat JSON object, with one shared, thread-safe parser per kind
+ * of text.
+ *
+ * <p>Results are {@code {"value":99387}} for numbers, {@code {"currency":"GBP","amount":1200.50}}
+ * for currency amounts and {@code {"value":"PT1H17M"}} for durations. Failures are {@code
+ * {"error":"...","offset":3}}.
+ */
+final class Normalizer {
+
+  /** The kinds of text that can be normalized. */
+  enum Kind {
+    NUMBER,
+    CURRENCY,
+    DURATION;
+
+    /**
+     * Find a kind by its lower case name, as used in request paths.
+     *
+     * @param name The name
+     * @return The kind, or null if there is none
+     */
+    static Kind named(String name) {
+      for (Kind kind : values()) {
+        if (kind.pathName().equals(name)) {
+          return kind;
+        }
+      }
+      return null;
+    }
+
+    String pathName() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private static final int CACHE_SIZE = 4096;
+
+  private final CachingEnglishNumberParser numberParser =
+      new CachingEnglishNumberParser(new EnglishNumberParser(), CACHE_SIZE);
+
+  private final CachingEnglishCurrencyAmountFormat currencyFormat =
+      new CachingEnglishCurrencyAmountFormat(new EnglishCurrencyAmountFormat(), CACHE_SIZE);
+
+  private final CachingEnglishDurationFormat durationFormat =
+      new CachingEnglishDurationFormat(new EnglishDurationFormat(), CACHE_SIZE);
+
+  /**
+   * Normalize some text.
+   *
+   * @param kind The kind of text
+   * @param text The text
+   * @param builder The builder to append the JSON object to
+   * @return True if the text was parsed, false if an error object was appended
+   */
+  boolean normalize(Kind kind, String text, StringBuilder builder) {
+    int start = builder.length();
+    try {
+      switch (kind) {
+        case NUMBER:
+          builder.append("{\"value\":").append(numberParser.parse(text).toPlainString());
+          break;
+        case CURRENCY:
+          CurrencyAmount amount = new CurrencyAmount();
+          currencyFormat.parseInto(text, amount);
+          builder.append("{\"currency\":\"").append(amount.getCurrency().getCurrencyCode());
+          builder.append("\",\"amount\":").append(amount.getAmount().toPlainString());
+          break;
+        case DURATION:
+          builder.append("{\"value\":\"").append(durationFormat.parse(text)).append('"');
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown kind " + kind);
+      }
+      builder.append('}');
+      return true;
+    } catch (ParseException ex) {
+      builder.setLength(start);
+      appendError(builder, ex.getMessage()).append(",\"offset\":").append(ex.getErrorOffset());
+      builder.append('}');
+    } catch (RuntimeException ex) {
+      // Such as a duration out of range
+      builder.setLength(start);
+      appendError(builder, String.valueOf(ex.getMessage())).append('}');
+    }
+    return false;
+  }
+
+  private static StringBuilder appendError(StringBuilder builder, String message) {
+    builder.append("{\"error\":");
+    return Json.appendString(builder, message);
+  }
+}
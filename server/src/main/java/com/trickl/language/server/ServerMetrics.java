@@ -0,0 +1,120 @@
+package com.trickl.language.server;
+
+import com.trickl.language.Histogram;
+import com.trickl.language.ParserInstrumentation;
+import com.trickl.language.ParserListener;
+import com.trickl.language.ParserMetrics;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Throughput and latency counters for the server, safe to update from any thread. */
+final class ServerMetrics {
+
+  private final long startedNanos = System.nanoTime();
+
+  private final LongAdder requests = new LongAdder();
+
+  private final LongAdder rejectedRequests = new LongAdder();
+
+  private final LongAdder items = new LongAdder();
+
+  private final LongAdder failedItems = new LongAdder();
+
+  private final Histogram batchSize = new Histogram();
+
+  private final Histogram requestLatencyNanos = new Histogram();
+
+  private final Histogram queueLatencyNanos = new Histogram();
+
+  void requestCompleted(long nanos) {
+    requests.increment();
+    requestLatencyNanos.record(nanos);
+  }
+
+  void requestRejected() {
+    rejectedRequests.increment();
+  }
+
+  void batchProcessed(int size, int failures) {
+    batchSize.record(size);
+    items.add(size);
+    failedItems.add(failures);
+  }
+
+  void itemDequeued(long waitedNanos) {
+    queueLatencyNanos.record(waitedNanos);
+  }
+
+  long getItems() {
+    return items.sum();
+  }
+
+  long getBatches() {
+    return batchSize.getCount();
+  }
+
+  /**
+   * Write the counters as plain text, one "name value" pair per line.
+   *
+   * @param builder The builder to append to
+   * @return The builder
+   */
+  StringBuilder appendTo(StringBuilder builder) {
+    double seconds = (System.nanoTime() - startedNanos) / 1e9;
+    appendLine(builder, "uptime_seconds", (long) seconds);
+    appendLine(builder, "requests", requests.sum());
+    appendLine(builder, "rejected_requests", rejectedRequests.sum());
+    appendLine(builder, "items", items.sum());
+    appendLine(builder, "failed_items", failedItems.sum());
+    appendLine(builder, "items_per_second", (long) (items.sum() / Math.max(seconds, 1e-9)));
+    appendLine(builder, "batches", batchSize.getCount());
+    appendHistogram(builder, "batch_size", batchSize, 1);
+    appendHistogram(builder, "request_latency_micros", requestLatencyNanos, 1000);
+    appendHistogram(builder, "queue_latency_micros", queueLatencyNanos, 1000);
+
+    // Per parser figures, when the server installed the listener
+    ParserListener listener = ParserInstrumentation.getListener();
+    if (listener instanceof ParserMetrics) {
+      ParserMetrics parserMetrics = (ParserMetrics) listener;
+      for (ParserListener.Operation operation : ParserListener.Operation.values()) {
+        String prefix = operation.name().toLowerCase(Locale.ROOT) + "_";
+        appendLine(builder, prefix + "successes", parserMetrics.getSuccesses(operation));
+        for (Map.Entry<String, Long> failure : parserMetrics.getFailures(operation).entrySet()) {
+          appendLine(
+              builder,
+              prefix + "failures{kind=\"" + escapeLabel(failure.getKey()) + "\"}",
+              failure.getValue());
+        }
+        appendHistogram(
+            builder, prefix + "latency_nanos", parserMetrics.getLatencyNanos(operation), 1);
+      }
+    }
+    return builder;
+  }
+
+  private static void appendHistogram(
+      StringBuilder builder, String name, Histogram histogram, long divisor) {
+    appendLine(builder, name + "_p50", histogram.getValueAtPercentile(50) / divisor);
+    appendLine(builder, name + "_p99", histogram.getValueAtPercentile(99) / divisor);
+    appendLine(builder, name + "_max", histogram.getMax() / divisor);
+  }
+
+  // Failure kinds can quote what the grammar expected, so quotes and backslashes are escaped to
+  // keep the label value well formed
+  private static String escapeLabel(String value) {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        escaped.append('\\');
+      }
+      escaped.append(c);
+    }
+    return escaped.toString();
+  }
+
+  private static void appendLine(StringBuilder builder, String name, long value) {
+    builder.append(name).append(' ').append(value).append('\n');
+  }
+}
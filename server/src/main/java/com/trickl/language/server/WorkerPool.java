@@ -0,0 +1,96 @@
+package com.trickl.language.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs at most a fixed number of tasks at once, on virtual threads where the runtime has them and
+ * on a fixed pool of daemon threads otherwise.
+ *
+ * <p>Submitting blocks while the pool is saturated, so callers feel back pressure rather than
+ * queueing without bound.
+ */
+final class WorkerPool implements Executor, AutoCloseable {
+
+  private final ExecutorService delegate;
+
+  private final Semaphore permits;
+
+  private final boolean virtual;
+
+  /**
+   * Create a pool.
+   *
+   * @param parallelism The maximum number of tasks to run at once
+   * @param name The prefix of the names of platform threads
+   */
+  WorkerPool(int parallelism, String name) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least one");
+    }
+    permits = new Semaphore(parallelism);
+    ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+    virtual = virtualExecutor != null;
+    delegate =
+        virtual ? virtualExecutor : Executors.newFixedThreadPool(parallelism, daemonThreads(name));
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    permits.acquireUninterruptibly();
+    try {
+      delegate.execute(
+          () -> {
+            try {
+              task.run();
+            } finally {
+              permits.release();
+            }
+          });
+    } catch (RejectedExecutionException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  /**
+   * Check whether tasks run on virtual threads.
+   *
+   * @return True if the runtime supports virtual threads
+   */
+  boolean isVirtual() {
+    return virtual;
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    delegate.shutdown();
+    delegate.awaitTermination(1, TimeUnit.MINUTES);
+  }
+
+  // Virtual threads arrived in Java 21, while the library targets Java 8
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException ex) {
+      return null;
+    }
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
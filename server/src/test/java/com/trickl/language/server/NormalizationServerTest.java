@@ -0,0 +1,202 @@
+package com.trickl.language.server;
+
+import com.trickl.language.ParserInstrumentation;
+import com.trickl.language.ParserListener;
+import com.trickl.language.ParserMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NormalizationServerTest {
+
+  private NormalizationServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    // A long batch delay, so concurrent requests reliably share batches
+    server =
+        new NormalizationServer(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 64, 20000);
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    server.close();
+  }
+
+  @Test
+  public void testNewlineDelimitedNumbers() throws IOException {
+    String[] lines =
+        post(
+                "number",
+                "text/plain",
+                "ninety nine thousand three hundred and eighty seven\n1,350,000\r\nx one hundred\n")
+            .split("\n");
+    Assert.assertEquals(3, lines.length);
+    Assert.assertEquals("{\"value\":99387}", lines[0]);
+    Assert.assertEquals("{\"value\":1350000}", lines[1]);
+    Assert.assertTrue(lines[2], lines[2].startsWith("{\"error\":"));
+    Assert.assertTrue(lines[2], lines[2].endsWith(",\"offset\":0}"));
+  }
+
+  @Test
+  public void testJsonArrayOfCurrencyAmounts() throws IOException {
+    Assert.assertEquals(
+        "[{\"currency\":\"GBP\",\"amount\":13000000},{\"currency\":\"USD\",\"amount\":200}]",
+        post("currency", "application/json", "[\"£13 million\", \"200 US dollar\"]"));
+  }
+
+  @Test
+  public void testDurationFailureHasOffset() throws IOException {
+    Assert.assertEquals(
+        "{\"value\":\"PT1H17M\"}\n{\"error\":\"Unknown unit 'fortnights'\",\"offset\":2}\n",
+        post("duration", "text/plain", "1 hour 17 minutes\n3 fortnights"));
+  }
+
+  @Test
+  public void testEmptyBatch() throws IOException {
+    Assert.assertEquals("[]", post("number", "application/json", " [ ] "));
+    Assert.assertEquals("", post("number", "text/plain", ""));
+  }
+
+  @Test
+  public void testRejectsUnknownKind() throws IOException {
+    Assert.assertEquals(404, connect("colour", "text/plain", "red").getResponseCode());
+  }
+
+  @Test
+  public void testRejectsMalformedJson() throws IOException {
+    Assert.assertEquals(400, connect("number", "application/json", "[\"one\"").getResponseCode());
+  }
+
+  @Test
+  public void testCoalescesConcurrentRequests() throws Exception {
+    int requests = 16;
+    ExecutorService clients = Executors.newFixedThreadPool(requests);
+    try {
+      List<Future<String>> responses = new ArrayList<>();
+      for (int i = 0; i < requests; ++i) {
+        String number = Integer.toString(i);
+        responses.add(clients.submit(() -> post("number", "text/plain", number)));
+      }
+      for (int i = 0; i < requests; ++i) {
+        Assert.assertEquals("{\"value\":" + i + "}\n", responses.get(i).get());
+      }
+    } finally {
+      clients.shutdown();
+    }
+    Assert.assertEquals(requests, server.getItems());
+    Assert.assertTrue(server.getBatches() < requests);
+  }
+
+  @Test
+  public void testRejectsOversizedBody() throws IOException {
+    URL url = new URL("http", "localhost", port(), "/normalize/number");
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    // Without a declared length, so the limit is only found by reading
+    connection.setChunkedStreamingMode(8192);
+    byte[] line = "one\n".getBytes(StandardCharsets.UTF_8);
+    try (OutputStream out = connection.getOutputStream()) {
+      for (int i = 0; i <= NormalizationServer.MAX_BODY_BYTES / line.length; i++) {
+        out.write(line);
+      }
+    }
+    Assert.assertEquals(413, connection.getResponseCode());
+    Assert.assertEquals(0, server.getItems());
+  }
+
+  @Test
+  public void testMetrics() throws IOException {
+    post("number", "text/plain", "one\ntwo\nthree");
+    HttpURLConnection connection =
+        (HttpURLConnection) new URL("http", "localhost", port(), "/metrics").openConnection();
+    String metrics = read(connection.getInputStream());
+    Assert.assertTrue(metrics, metrics.contains("\nitems 3\n"));
+    Assert.assertTrue(metrics, metrics.contains("\nbatches 1\n"));
+  }
+
+  @Test
+  public void testMetricsEscapeFailureKinds() {
+    ParserListener previous = ParserInstrumentation.getListener();
+    ParserMetrics parserMetrics = new ParserMetrics();
+    ParserInstrumentation.setListener(parserMetrics);
+    try {
+      parserMetrics.failed(ParserListener.Operation.NUMBER_PARSE, 3, 1, "expected \"and\", \\");
+      String metrics = new ServerMetrics().appendTo(new StringBuilder()).toString();
+      String line = "\nnumber_parse_failures{kind=\"expected \\\"and\\\", \\\\\"} 1\n";
+      Assert.assertTrue(metrics, metrics.contains(line));
+    } finally {
+      ParserInstrumentation.setListener(previous);
+    }
+  }
+
+  @Test
+  public void testSplitLines() {
+    Assert.assertEquals(Arrays.asList("a", "", "b"), NormalizationServer.splitLines("a\n\r\nb\n"));
+    Assert.assertEquals(Collections.singletonList("a"), NormalizationServer.splitLines("a"));
+  }
+
+  @Test
+  public void testJsonStrings() {
+    Assert.assertEquals(
+        Arrays.asList("a\"b", "£\n", ""),
+        Json.parseStringArray("[\"a\\\"b\", \"\\u00a3\\n\",\"\"]"));
+    Assert.assertEquals(
+        "\"a\\\"b\\\\\\n\\u0001\"",
+        Json.appendString(new StringBuilder(), "a\"b\\\n\u0001").toString());
+  }
+
+  private String post(String kind, String contentType, String body) throws IOException {
+    HttpURLConnection connection = connect(kind, contentType, body);
+    Assert.assertEquals(200, connection.getResponseCode());
+    return read(connection.getInputStream());
+  }
+
+  private HttpURLConnection connect(String kind, String contentType, String body)
+      throws IOException {
+    URL url = new URL("http", "localhost", port(), "/normalize/" + kind);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setRequestProperty("Content-Type", contentType);
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    return connection;
+  }
+
+  private int port() {
+    return server.getAddress().getPort();
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    try (InputStream input = in) {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,113 @@
+package com.trickl.language;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.AbstractMap;
+import java.util.Currency;
+import java.util.Map;
+
+/**
+ * A bounded cache of amounts parsed by an {@link EnglishCurrencyAmountFormat}, for callers that
+ * parse the same few strings over and over. Safe to share across threads.
+ *
+ * <p>Text is looked up without being copied or tokenized, and text that failed to parse is cached
+ * too, so a recurring bad input is rejected as cheaply as a recurring good one.
+ */
+public final class CachingEnglishCurrencyAmountFormat {
+
+  private final ParseResultCache<Map.Entry<Currency, BigDecimal>> cache;
+
+  /**
+   * Create a cache over a format.
+   *
+   * @param format The format to cache
+   * @param maximumSize The maximum number of results to hold, rounded up to a power of two
+   */
+  public CachingEnglishCurrencyAmountFormat(EnglishCurrencyAmountFormat format, int maximumSize) {
+    cache =
+        new ParseResultCache<>(
+            (text, start, end) ->
+                new AbstractMap.SimpleImmutableEntry<>(format.parse(text, start, end)),
+            maximumSize);
+  }
+
+  /**
+   * Convert a string into a currency and amount, as {@link
+   * EnglishCurrencyAmountFormat#parse(String)}.
+   *
+   * @param text The string to parse
+   * @return The currency and amount, shared and immutable
+   * @throws ParseException if unable to parse the string
+   */
+  public Map.Entry<Currency, BigDecimal> parse(String text) throws ParseException {
+    return cache.parse(text, 0, text.length());
+  }
+
+  /**
+   * Convert a region of text into a currency and amount, as {@link
+   * EnglishCurrencyAmountFormat#parse(CharSequence, int, int)}.
+   *
+   * @param text The text containing the amount
+   * @param start The start index of the amount, inclusive
+   * @param end The end index of the amount, exclusive
+   * @return The currency and amount, shared and immutable
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  public Map.Entry<Currency, BigDecimal> parse(CharSequence text, int start, int end)
+      throws ParseException {
+    return cache.parse(text, start, end);
+  }
+
+  /**
+   * Convert text into a currency and amount, reusing an existing amount.
+   *
+   * @param text The text to parse
+   * @param target The amount to populate, unchanged if the text cannot be parsed
+   * @throws ParseException if unable to parse the text
+   */
+  public void parseInto(CharSequence text, CurrencyAmount target) throws ParseException {
+    parseInto(text, 0, text.length(), target);
+  }
+
+  /**
+   * Convert a region of text into a currency and amount, reusing an existing amount.
+   *
+   * @param text The text containing the amount
+   * @param start The start index of the amount, inclusive
+   * @param end The end index of the amount, exclusive
+   * @param target The amount to populate, unchanged if the region cannot be parsed
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  public void parseInto(CharSequence text, int start, int end, CurrencyAmount target)
+      throws ParseException {
+    Map.Entry<Currency, BigDecimal> parsed = cache.parse(text, start, end);
+    target.set(parsed.getKey(), parsed.getValue());
+  }
+
+  /**
+   * Get the number of parses answered from the cache.
+   *
+   * @return The hit count
+   */
+  public long getHits() {
+    return cache.getHits();
+  }
+
+  /**
+   * Get the number of parses that were not answered from the cache.
+   *
+   * @return The miss count
+   */
+  public long getMisses() {
+    return cache.getMisses();
+  }
+
+  /**
+   * Get the number of results held.
+   *
+   * @return The current size of the cache
+   */
+  public int size() {
+    return cache.size();
+  }
+}
@@ -0,0 +1,242 @@
+package com.trickl.language;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of durations formatted and parsed by an {@link EnglishDurationFormat}, for
+ * callers that format or parse the same few values over and over. Safe to share across threads.
+ *
+ * <p>Durations are keyed on their value truncated to the accuracy of the format. Accuracies coarser
+ * than a second are keyed on whole seconds instead, as the larger units do not all divide one
+ * another. Formatted durations are held in a lock-free, two-way set associative table that evicts
+ * as {@link ParseResultCache} does, replacing the less frequently hit entry of a set. So a hot
+ * value outlives a stream of one-off values, which cannot grow the cache beyond its bound.
+ *
+ * <p>Parsed text is held in a separate cache of the same size, looked up without copying or
+ * tokenizing the text. Text that failed to parse is cached too.
+ */
+public final class CachingEnglishDurationFormat {
+
+  private static final long NANOS_PER_SECOND = 1000000000L;
+
+  private static final int WAYS = 2;
+
+  private static final int MAX_TABLE_SIZE = 1 << 30;
+
+  // Saturates, so a long-lived entry can still be aged out
+  private static final int MAX_FREQUENCY = 15;
+
+  private final EnglishDurationFormat format;
+
+  // Nanoseconds per key unit, and key units per second
+  private final long keyNanos;
+
+  private final long keysPerSecond;
+
+  private final AtomicReferenceArray<Entry> entries;
+
+  private final int setMask;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final ParseResultCache<Duration> parsed;
+
+  /**
+   * Create a cache over a format.
+   *
+   * @param format The format to cache
+   * @param maximumSize The maximum number of formatted durations to hold, and of parsed durations,
+   *     each rounded up to a power of two
+   */
+  public CachingEnglishDurationFormat(EnglishDurationFormat format, int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum size must be positive, was " + maximumSize);
+    }
+    int size =
+        Math.max(WAYS, Integer.highestOneBit(Math.min(maximumSize, MAX_TABLE_SIZE) - 1) << 1);
+    this.format = format;
+    this.entries = new AtomicReferenceArray<>(size);
+    this.setMask = size - WAYS;
+    ChronoUnit accuracy = format.getAccuracy();
+    keyNanos =
+        accuracy.compareTo(ChronoUnit.SECONDS) < 0 ? accuracy.getDuration().getNano() : 0;
+    keysPerSecond = keyNanos == 0 ? 1 : NANOS_PER_SECOND / keyNanos;
+    parsed = new ParseResultCache<>(format::parse, maximumSize);
+  }
+
+  /**
+   * Format a duration, as {@link EnglishDurationFormat#format(Duration)}.
+   *
+   * @param duration The duration to convert
+   * @return English representation
+   */
+  public String format(Duration duration) {
+    return formatSeconds(duration.getSeconds(), duration.getNano());
+  }
+
+  /**
+   * Format a number of nanoseconds, as {@link EnglishDurationFormat#formatNanos(long)}.
+   *
+   * @param nanos The duration in nanoseconds
+   * @return English representation
+   */
+  public String formatNanos(long nanos) {
+    return formatSeconds(
+        Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+  }
+
+  /**
+   * Format a number of milliseconds, as {@link EnglishDurationFormat#formatMillis(long)}.
+   *
+   * @param millis The duration in milliseconds
+   * @return English representation
+   */
+  public String formatMillis(long millis) {
+    return formatSeconds(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1000000L);
+  }
+
+  /**
+   * Parse a duration, as {@link EnglishDurationFormat#parse(String)}.
+   *
+   * @param text The string to parse
+   * @return The duration
+   * @throws ParseException if unable to parse the string
+   */
+  public Duration parse(String text) throws ParseException {
+    return parsed.parse(text, 0, text.length());
+  }
+
+  /**
+   * Parse a region of text, as {@link EnglishDurationFormat#parse(CharSequence, int, int)}.
+   *
+   * @param text The text containing the duration
+   * @param start The start index of the duration, inclusive
+   * @param end The end index of the duration, exclusive
+   * @return The duration
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  public Duration parse(CharSequence text, int start, int end) throws ParseException {
+    return parsed.parse(text, start, end);
+  }
+
+  /**
+   * Get the number of formats answered from the cache.
+   *
+   * @return The hit count
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Get the number of formats that were not answered from the cache.
+   *
+   * @return The miss count
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Get the number of parses answered from the cache.
+   *
+   * @return The hit count
+   */
+  public long getParseHits() {
+    return parsed.getHits();
+  }
+
+  /**
+   * Get the number of parses that were not answered from the cache.
+   *
+   * @return The miss count
+   */
+  public long getParseMisses() {
+    return parsed.getMisses();
+  }
+
+  /**
+   * Get the number of formatted durations held.
+   *
+   * @return The current size of the cache
+   */
+  public int size() {
+    int size = 0;
+    for (int i = 0; i < entries.length(); ++i) {
+      if (entries.get(i) != null) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  private String formatSeconds(long seconds, long nanos) {
+    long truncatedNanos = keyNanos == 0 ? 0 : nanos - nanos % keyNanos;
+    if (seconds >= Long.MAX_VALUE / keysPerSecond || seconds <= -Long.MAX_VALUE / keysPerSecond) {
+      // Too large to key, which only happens far beyond any practical duration
+      misses.increment();
+      return format.format(Duration.ofSeconds(seconds, truncatedNanos));
+    }
+
+    long key = seconds * keysPerSecond + (keyNanos == 0 ? 0 : nanos / keyNanos);
+    int hash = Long.hashCode(key);
+    int set = (hash ^ (hash >>> 16)) & setMask;
+    for (int way = 0; way < WAYS; ++way) {
+      Entry entry = entries.get(set + way);
+      if (entry != null && entry.key == key) {
+        hits.increment();
+        if (entry.frequency < MAX_FREQUENCY) {
+          // Racy, the count only needs to be approximate
+          entry.frequency++;
+        }
+        return entry.formatted;
+      }
+    }
+
+    misses.increment();
+    String formatted = format.format(Duration.ofSeconds(seconds, truncatedNanos));
+    insert(set, new Entry(key, formatted));
+    return formatted;
+  }
+
+  private void insert(int set, Entry entry) {
+    Entry first = entries.get(set);
+    Entry second = entries.get(set + 1);
+    if (first == null) {
+      entries.set(set, entry);
+    } else if (second == null) {
+      entries.set(set + 1, entry);
+    } else if (first.frequency <= second.frequency) {
+      entries.set(set, entry);
+      age(second);
+    } else {
+      entries.set(set + 1, entry);
+      age(first);
+    }
+  }
+
+  private static void age(Entry survivor) {
+    if (survivor.frequency > 0) {
+      survivor.frequency--;
+    }
+  }
+
+  private static final class Entry {
+    private final long key;
+
+    private final String formatted;
+
+    private int frequency;
+
+    private Entry(long key, String formatted) {
+      this.key = key;
+      this.formatted = formatted;
+    }
+  }
+}
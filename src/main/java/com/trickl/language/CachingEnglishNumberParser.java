@@ -0,0 +1,79 @@
+package com.trickl.language;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+
+/**
+ * A bounded cache of numbers parsed by an {@link EnglishNumberParser}, for callers that parse the
+ * same few strings over and over. Safe to share across threads.
+ *
+ * <p>Text is looked up without being copied or tokenized, and text that failed to parse is cached
+ * too, so a recurring bad input is rejected as cheaply as a recurring good one.
+ */
+public final class CachingEnglishNumberParser {
+
+  private final ParseResultCache<BigDecimal> cache;
+
+  /**
+   * Create a cache over a parser.
+   *
+   * @param parser The parser to cache
+   * @param maximumSize The maximum number of results to hold, rounded up to a power of two
+   */
+  public CachingEnglishNumberParser(EnglishNumberParser parser, int maximumSize) {
+    cache = new ParseResultCache<>(parser::parse, maximumSize);
+  }
+
+  /**
+   * Convert English text into a number, as {@link EnglishNumberParser#parse(CharSequence, int,
+   * int)}.
+   *
+   * @param number The text to parse
+   * @return The number
+   * @throws ParseException if unable to parse the text
+   */
+  public BigDecimal parse(CharSequence number) throws ParseException {
+    return cache.parse(number, 0, number.length());
+  }
+
+  /**
+   * Convert a region of text into a number, as {@link EnglishNumberParser#parse(CharSequence, int,
+   * int)}.
+   *
+   * @param text The text containing the number
+   * @param start The start index of the number, inclusive
+   * @param end The end index of the number, exclusive
+   * @return The number
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  public BigDecimal parse(CharSequence text, int start, int end) throws ParseException {
+    return cache.parse(text, start, end);
+  }
+
+  /**
+   * Get the number of parses answered from the cache.
+   *
+   * @return The hit count
+   */
+  public long getHits() {
+    return cache.getHits();
+  }
+
+  /**
+   * Get the number of parses that were not answered from the cache.
+   *
+   * @return The miss count
+   */
+  public long getMisses() {
+    return cache.getMisses();
+  }
+
+  /**
+   * Get the number of results held.
+   *
+   * @return The current size of the cache
+   */
+  public int size() {
+    return cache.size();
+  }
+}
@@ -0,0 +1,68 @@
+package com.trickl.language;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * An amount of a currency. Instances are mutable so that a single amount can be reused across
+ * many parses, but they are not safe to share between threads.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public final class CurrencyAmount {
+
+  private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+  private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+  private Currency currency;
+
+  private BigDecimal amount;
+
+  /**
+   * Check whether the amount is a whole number of minor units in the range of a long.
+   *
+   * @return True if {@link #getMinorUnits()} will succeed
+   */
+  public boolean hasMinorUnits() {
+    if (currency == null || amount == null || currency.getDefaultFractionDigits() < 0) {
+      return false;
+    }
+    BigDecimal minorUnits = amount.movePointRight(currency.getDefaultFractionDigits());
+    return minorUnits.signum() == 0
+        || (minorUnits.stripTrailingZeros().scale() <= 0
+            && minorUnits.compareTo(LONG_MIN) >= 0
+            && minorUnits.compareTo(LONG_MAX) <= 0);
+  }
+
+  /**
+   * Get the amount as a whole number of minor units of the currency, e.g. cents.
+   *
+   * @return The unscaled amount
+   * @throws ArithmeticException if the amount has a fraction of a minor unit or is out of range
+   * @throws IllegalStateException if there is no amount, or the currency has no minor units
+   */
+  public long getMinorUnits() {
+    if (currency == null || amount == null) {
+      throw new IllegalStateException("No currency amount");
+    }
+    int fractionDigits = currency.getDefaultFractionDigits();
+    if (fractionDigits < 0) {
+      throw new IllegalStateException(currency + " has no minor units");
+    }
+    return amount.movePointRight(fractionDigits).longValueExact();
+  }
+
+  void set(Currency currency, BigDecimal amount) {
+    this.currency = currency;
+    this.amount = amount;
+  }
+}
@@ -0,0 +1,418 @@
+package com.trickl.language;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.Value;
+import lombok.extern.java.Log;
+
+/**
+ * Normalizes a column of English currency amounts in a large delimited UTF-8 text file.
+ *
+ * <p>Every row is copied to the output with two extra columns, the ISO 4217 code and the plain
+ * decimal amount, both left empty where the column could not be parsed. Amounts without a symbol
+ * or currency name, including bare English numbers, take the default currency of the format.
+ *
+ * <p>The input is memory mapped and split on line boundaries into chunks that are parsed in
+ * parallel. Rows are never turned into strings, only the column being parsed is decoded, into a
+ * buffer reused for the whole chunk. Chunks are written out in order through a file channel, and at
+ * most two chunks per thread are held in memory, so the reader can never run ahead of the writer.
+ *
+ * <p>Fields may be enclosed in double quotes as in RFC 4180, so a quoted amount such as "£1,200"
+ * may contain the delimiter, and a doubled quote within it stands for one quote. Quoted line breaks
+ * are not supported, as the file is split on line boundaries.
+ */
+@Log
+public final class CurrencyAmountFileNormalizer {
+
+  private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  // Bytes read at a time when looking for the end of a line
+  private static final int BOUNDARY_SEARCH_SIZE = 4096;
+
+  private final EnglishCurrencyAmountFormat format;
+
+  private final int column;
+
+  private final byte delimiter;
+
+  private final int threads;
+
+  private final int chunkSize;
+
+  /** The outcome of normalizing a file. */
+  @Value
+  public static class Report {
+    long rows;
+
+    long failures;
+
+    long elapsedNanos;
+
+    /**
+     * Get the throughput of the run.
+     *
+     * @return Rows normalized per second
+     */
+    public double getRowsPerSecond() {
+      return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+  }
+
+  /**
+   * Create a normalizer using every available processor.
+   *
+   * @param format Parses the amounts
+   * @param column The zero based index of the column holding the amounts
+   * @param delimiter The ASCII column delimiter
+   */
+  public CurrencyAmountFileNormalizer(
+      EnglishCurrencyAmountFormat format, int column, char delimiter) {
+    this(format, column, delimiter, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Create a normalizer.
+   *
+   * @param format Parses the amounts
+   * @param column The zero based index of the column holding the amounts
+   * @param delimiter The ASCII column delimiter
+   * @param threads The number of chunks to parse in parallel
+   */
+  public CurrencyAmountFileNormalizer(
+      EnglishCurrencyAmountFormat format, int column, char delimiter, int threads) {
+    this(format, column, delimiter, threads, DEFAULT_CHUNK_SIZE);
+  }
+
+  CurrencyAmountFileNormalizer(
+      EnglishCurrencyAmountFormat format, int column, char delimiter, int threads, int chunkSize) {
+    if (column < 0) {
+      throw new IllegalArgumentException("Column must not be negative, was " + column);
+    }
+    if (delimiter == 0 || delimiter > 0x7f || delimiter == '\n' || delimiter == '\r') {
+      throw new IllegalArgumentException("Delimiter must be ASCII, was '" + delimiter + "'");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive, was " + threads);
+    }
+    this.format = format;
+    this.column = column;
+    this.delimiter = (byte) delimiter;
+    this.threads = threads;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Normalize a file.
+   *
+   * @param input The file to read
+   * @param output The file to write, replaced if it exists
+   * @return The number of rows and failures, and the time taken
+   * @throws IOException if unable to read or write a file
+   */
+  public Report normalize(Path input, Path output) throws IOException {
+    long started = System.nanoTime();
+    long rows = 0;
+    long failures = 0;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+        FileChannel out =
+            FileChannel.open(
+                output,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+      Deque<Future<Chunk>> pending = new ArrayDeque<>();
+      List<ByteBuffer> free = new ArrayList<>();
+      long size = in.size();
+      long start = 0;
+      while (start < size) {
+        long end = lineBoundary(in, Math.min(start + chunkSize, size), size);
+        if (pending.size() == threads * 2) {
+          Chunk chunk = write(pending.removeFirst(), out);
+          rows += chunk.rows;
+          failures += chunk.failures;
+          free.add(chunk.output);
+        }
+        MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ByteBuffer buffer = free.isEmpty() ? null : free.remove(free.size() - 1);
+        pending.addLast(executor.submit(() -> normalizeChunk(mapped, buffer)));
+        start = end;
+      }
+      while (!pending.isEmpty()) {
+        Chunk chunk = write(pending.removeFirst(), out);
+        rows += chunk.rows;
+        failures += chunk.failures;
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Report report = new Report(rows, failures, System.nanoTime() - started);
+    log.info(
+        String.format(
+            "Normalized %d rows with %d failures at %.0f rows/s",
+            report.getRows(), report.getFailures(), report.getRowsPerSecond()));
+    return report;
+  }
+
+  // The offset just after the first line break at or after position
+  private static long lineBoundary(FileChannel in, long position, long size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SEARCH_SIZE);
+    while (position < size) {
+      ((Buffer) buffer).clear();
+      int read = in.read(buffer, position);
+      for (int i = 0; i < read; ++i) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += Math.max(read, 0);
+    }
+    return size;
+  }
+
+  private static Chunk write(Future<Chunk> future, FileChannel out) throws IOException {
+    Chunk chunk;
+    try {
+      chunk = future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while normalizing", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IOException("Unable to normalize chunk", ex.getCause());
+    }
+    ((Buffer) chunk.output).flip();
+    while (chunk.output.hasRemaining()) {
+      out.write(chunk.output);
+    }
+    ((Buffer) chunk.output).clear();
+    return chunk;
+  }
+
+  private Chunk normalizeChunk(ByteBuffer in, ByteBuffer out) {
+    int capacity = in.remaining() + in.remaining() / 2 + 64;
+    Chunk chunk =
+        new Chunk(out == null || out.capacity() < capacity ? ByteBuffer.allocate(capacity) : out);
+    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    CharBuffer field = CharBuffer.allocate(64);
+    CurrencyAmount amount = new CurrencyAmount();
+    int lineStart = in.position();
+    int limit = in.limit();
+    while (lineStart < limit) {
+      int lineEnd = lineStart;
+      while (lineEnd < limit && in.get(lineEnd) != '\n') {
+        lineEnd++;
+      }
+      int rowEnd = lineEnd > lineStart && in.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+      chunk.put(in, lineStart, rowEnd);
+      chunk.put(delimiter);
+      CharBuffer decoded = decodeField(in, lineStart, rowEnd, decoder, field);
+      boolean parsed = false;
+      if (decoded != null) {
+        field = decoded;
+        try {
+          format.parseInto(field, 0, field.limit(), amount);
+          parsed = true;
+        } catch (ParseException ex) {
+          // Counted below
+        }
+      }
+      if (parsed) {
+        chunk.put(amount.getCurrency().getCurrencyCode());
+        chunk.put(delimiter);
+        chunk.put(amount.getAmount().toPlainString());
+      } else {
+        chunk.put(delimiter);
+        chunk.failures++;
+      }
+      int next = lineEnd < limit ? lineEnd + 1 : lineEnd;
+      chunk.put(in, rowEnd, next);
+      if (next == lineEnd) {
+        // The last line had no line break
+        chunk.put((byte) '\n');
+      }
+      chunk.rows++;
+      lineStart = next;
+    }
+    return chunk;
+  }
+
+  // Decodes the column of a row into the buffer, growing it if needed, or returns null if the row
+  // has no such column or it is not valid UTF-8
+  private CharBuffer decodeField(
+      ByteBuffer in, int rowStart, int rowEnd, CharsetDecoder decoder, CharBuffer field) {
+    int start = rowStart;
+    for (int i = 0; i < column; ++i) {
+      start = fieldEnd(in, start, rowEnd);
+      if (start == rowEnd) {
+        return null;
+      }
+      start++;
+    }
+    int end = fieldEnd(in, start, rowEnd);
+    boolean quoted = end - start >= 2 && in.get(start) == '"' && in.get(end - 1) == '"';
+    if (quoted) {
+      start++;
+      end--;
+    }
+
+    // UTF-8 never needs more chars than bytes
+    CharBuffer buffer = field.capacity() < end - start ? CharBuffer.allocate(end - start) : field;
+    ((Buffer) buffer).clear();
+    decoder.reset();
+    if (decoder.decode(slice(in, start, end), buffer, true).isError()
+        || decoder.flush(buffer).isError()) {
+      return null;
+    }
+    ((Buffer) buffer).flip();
+    if (quoted) {
+      unescapeQuotes(buffer);
+    }
+    return buffer;
+  }
+
+  // The offset of the delimiter that ends the field starting at start, or the end of the row. A
+  // field that opens with a double quote runs to its closing quote, past any delimiters
+  private int fieldEnd(ByteBuffer in, int start, int rowEnd) {
+    int position = start;
+    if (position < rowEnd && in.get(position) == '"') {
+      position++;
+      while (position < rowEnd) {
+        if (in.get(position++) == '"') {
+          if (position == rowEnd || in.get(position) != '"') {
+            break;
+          }
+          // A doubled quote is an escaped quote
+          position++;
+        }
+      }
+    }
+    while (position < rowEnd && in.get(position) != delimiter) {
+      position++;
+    }
+    return position;
+  }
+
+  // Collapses each doubled quote of a quoted field into one, in place
+  private static void unescapeQuotes(CharBuffer field) {
+    int length = field.limit();
+    int read = 0;
+    int written = 0;
+    while (read < length) {
+      char c = field.get(read++);
+      if (c == '"' && read < length && field.get(read) == '"') {
+        read++;
+      }
+      field.put(written++, c);
+    }
+    ((Buffer) field).limit(written);
+  }
+
+  // Buffer methods are called through the base class, as the covariant overrides added in Java 9
+  // would not link on Java 8
+  private static ByteBuffer slice(ByteBuffer in, int start, int end) {
+    ByteBuffer bytes = in.duplicate();
+    ((Buffer) bytes).limit(end);
+    ((Buffer) bytes).position(start);
+    return bytes;
+  }
+
+  // The normalized rows of a chunk
+  private static final class Chunk {
+    private ByteBuffer output;
+
+    private long rows;
+
+    private long failures;
+
+    private Chunk(ByteBuffer output) {
+      this.output = output;
+    }
+
+    private void put(ByteBuffer in, int start, int end) {
+      ensureRemaining(end - start);
+      output.put(slice(in, start, end));
+    }
+
+    private void put(byte b) {
+      ensureRemaining(1);
+      output.put(b);
+    }
+
+    // Only for ASCII, as codes and plain decimals are
+    private void put(String ascii) {
+      ensureRemaining(ascii.length());
+      for (int i = 0; i < ascii.length(); ++i) {
+        output.put((byte) ascii.charAt(i));
+      }
+    }
+
+    private void ensureRemaining(int length) {
+      if (output.remaining() < length) {
+        ByteBuffer larger =
+            ByteBuffer.allocate(Math.max(output.capacity() * 2, output.position() + length));
+        ((Buffer) output).flip();
+        larger.put(output);
+        output = larger;
+      }
+    }
+  }
+
+  /**
+   * Normalize a file from the command line, printing a report.
+   *
+   * @param args The input file, output file, zero based column, and optionally the delimiter
+   *     (default tab) and the ISO 4217 code of the default currency (default USD)
+   * @throws IOException if unable to read or write a file
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3) {
+      System.err.println(
+          "Usage: CurrencyAmountFileNormalizer <input> <output> <column> [delimiter] [currency]");
+      System.exit(2);
+    }
+    char delimiter = args.length > 3 ? unescape(args[3]) : '\t';
+    EnglishCurrencyAmountFormat format =
+        args.length > 4
+            ? EnglishCurrencyAmountFormat.forDefault(Currency.getInstance(args[4]))
+            : new EnglishCurrencyAmountFormat();
+    Report report =
+        new CurrencyAmountFileNormalizer(format, Integer.parseInt(args[2]), delimiter)
+            .normalize(Paths.get(args[0]), Paths.get(args[1]));
+    System.out.printf(
+        "%d rows, %d failures, %.0f rows/s%n",
+        report.getRows(), report.getFailures(), report.getRowsPerSecond());
+  }
+
+  private static char unescape(String delimiter) {
+    if ("\\t".equals(delimiter)) {
+      return '\t';
+    } else if (delimiter.length() != 1) {
+      throw new IllegalArgumentException("Delimiter must be a single character: " + delimiter);
+    }
+    return delimiter.charAt(0);
+  }
+}
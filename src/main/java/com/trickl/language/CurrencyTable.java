@@ -0,0 +1,229 @@
+package com.trickl.language;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+/**
+ * The currency symbols and upper-cased English display names recognised by {@link
+ * EnglishCurrencyAmountFormat}, in priority order. Names are recognised in the singular and the
+ * plural, as in "British pounds".
+ *
+ * <p>Enumerating every available locale is slow, so the table is generated into a class path
+ * resource at build time and loaded from there. If the resource is missing, or was generated
+ * against different locale data, the table is computed at runtime instead.
+ */
+@Log
+@Getter
+final class CurrencyTable {
+
+  static final String RESOURCE = "currency-table.tsv";
+
+  private static final String NAME = "N";
+
+  private static final String SYMBOL = "S";
+
+  // Nouns that do not take an "s" in the plural, as in "5,000 Japanese yen" or "Swedish kronor"
+  private static final Map<String, String> IRREGULAR_PLURALS = irregularPlurals();
+
+  private final Map<String, Currency> byName;
+
+  private final Map<String, Currency> bySymbol;
+
+  private CurrencyTable(Map<String, Currency> byName, Map<String, Currency> bySymbol) {
+    this.byName = Collections.unmodifiableMap(byName);
+    this.bySymbol = Collections.unmodifiableMap(bySymbol);
+  }
+
+  /**
+   * Load the prebuilt table, falling back to computing it from the available locales.
+   *
+   * @return The currency table
+   */
+  static CurrencyTable load() {
+    InputStream in = CurrencyTable.class.getResourceAsStream(RESOURCE);
+    if (in != null) {
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+        CurrencyTable table = read(reader);
+        if (table != null) {
+          return table;
+        }
+        log.fine("Currency table was generated for different locale data, computing at runtime");
+      } catch (IOException | IllegalArgumentException ex) {
+        // Includes currency codes that this runtime does not recognise
+        log.log(Level.WARNING, "Unable to read currency table, computing at runtime", ex);
+      }
+    }
+    return compute();
+  }
+
+  /**
+   * Compute the table from the locales available to this runtime.
+   *
+   * @return The currency table
+   */
+  static CurrencyTable compute() {
+    Set<String> iso3166 = new HashSet<>(Arrays.asList(Locale.getISOCountries()));
+
+    List<Locale.LanguageRange> localePriorityList =
+        Stream.concat(
+                Locale.LanguageRange.parse("en-US;q=1.0,en-GB").stream(),
+                Arrays.asList(Locale.getAvailableLocales())
+                    .stream()
+                    .map(locale -> new Locale.LanguageRange(locale.toLanguageTag())))
+            .collect(Collectors.toList());
+
+    List<Locale> localesIso3166 =
+        Locale.filter(localePriorityList, Arrays.asList(Locale.getAvailableLocales()))
+            .stream()
+            .filter(locale -> iso3166.contains(locale.getCountry()))
+            .collect(Collectors.toList());
+
+    // Earlier locales take priority where a name or symbol is shared
+    Map<String, Currency> byName = new LinkedHashMap<>();
+    Map<String, Currency> bySymbol = new LinkedHashMap<>();
+    for (Locale locale : localesIso3166) {
+      Currency currency = Currency.getInstance(locale);
+      byName.putIfAbsent(currency.getDisplayName(Locale.ENGLISH).toUpperCase(), currency);
+      bySymbol.putIfAbsent(currency.getSymbol(locale), currency);
+    }
+    // Plurals follow every singular, so a name that is both keeps its singular meaning
+    for (Map.Entry<String, Currency> entry : new ArrayList<>(byName.entrySet())) {
+      String name = entry.getKey();
+      if (Character.isLetter(name.charAt(name.length() - 1))) {
+        byName.putIfAbsent(pluralName(name).toUpperCase(Locale.ENGLISH), entry.getValue());
+      }
+    }
+    for (AltCurrencySymbol acs : AltCurrencySymbol.values()) {
+      bySymbol.putIfAbsent(acs.getSymbol(), Currency.getInstance(acs.getCode()));
+    }
+    return new CurrencyTable(byName, bySymbol);
+  }
+
+  /**
+   * Read a table previously written by {@link #write(Writer)}.
+   *
+   * @param reader The source of the table
+   * @return The currency table, or null if it was generated for different locale data
+   * @throws IOException if unable to read the table
+   * @throws IllegalArgumentException if the table is malformed or has an unknown currency code
+   */
+  static CurrencyTable read(BufferedReader reader) throws IOException {
+    if (!header().equals(reader.readLine())) {
+      return null;
+    }
+
+    Map<String, Currency> byName = new LinkedHashMap<>();
+    Map<String, Currency> bySymbol = new LinkedHashMap<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String[] fields = line.split("\t", -1);
+      if (fields.length != 3) {
+        throw new IllegalArgumentException("Malformed currency table entry '" + line + "'");
+      }
+      Currency currency = Currency.getInstance(fields[2]);
+      if (NAME.equals(fields[0])) {
+        byName.put(fields[1], currency);
+      } else if (SYMBOL.equals(fields[0])) {
+        bySymbol.put(fields[1], currency);
+      } else {
+        throw new IllegalArgumentException("Unknown currency table entry '" + line + "'");
+      }
+    }
+    return new CurrencyTable(byName, bySymbol);
+  }
+
+  /**
+   * Write the table as tab separated lines, preceded by a header identifying the locale data.
+   *
+   * @param writer The destination of the table
+   * @throws IOException if unable to write the table
+   */
+  void write(Writer writer) throws IOException {
+    writer.write(header());
+    writer.write('\n');
+    for (Map.Entry<String, Currency> entry : byName.entrySet()) {
+      writeEntry(writer, NAME, entry);
+    }
+    for (Map.Entry<String, Currency> entry : bySymbol.entrySet()) {
+      writeEntry(writer, SYMBOL, entry);
+    }
+  }
+
+  private static void writeEntry(Writer writer, String type, Map.Entry<String, Currency> entry)
+      throws IOException {
+    writer.write(type);
+    writer.write('\t');
+    writer.write(entry.getKey());
+    writer.write('\t');
+    writer.write(entry.getValue().getCurrencyCode());
+    writer.write('\n');
+  }
+
+  /**
+   * Get the plural of an English currency name.
+   *
+   * @param name The singular name, such as "British Pound"
+   * @return The plural name with the noun in lower case, such as "British pounds"
+   */
+  static String pluralName(String name) {
+    int nounStart = name.lastIndexOf(' ') + 1;
+    String noun = name.substring(nounStart).toLowerCase(Locale.ENGLISH);
+    String plural = IRREGULAR_PLURALS.get(noun);
+    if (plural == null) {
+      plural = noun.endsWith("s") ? noun : noun + "s";
+    }
+    return name.substring(0, nounStart) + plural;
+  }
+
+  private static Map<String, String> irregularPlurals() {
+    Map<String, String> plurals = new HashMap<>();
+    for (String noun :
+        Arrays.asList("baht", "kip", "kwacha", "kyat", "pula", "rand", "won", "yen", "yuan")) {
+      plurals.put(noun, noun);
+    }
+    plurals.put("krona", "kronor");
+    plurals.put("krone", "kroner");
+    plurals.put("leu", "lei");
+    plurals.put("lev", "leva");
+    plurals.put("lilangeni", "emalangeni");
+    plurals.put("loti", "maloti");
+    plurals.put("sol", "soles");
+    return Collections.unmodifiableMap(plurals);
+  }
+
+  /**
+   * Get the header identifying the locale data that a table is generated from.
+   *
+   * <p>The locale data can change between update releases of the same Java version, so the header
+   * names the exact runtime build rather than the specification version.
+   *
+   * @return The header line
+   */
+  static String header() {
+    return "# "
+        + System.getProperty("java.runtime.version", System.getProperty("java.version"))
+        + " "
+        + System.getProperty("java.locale.providers", "DEFAULT");
+  }
+}
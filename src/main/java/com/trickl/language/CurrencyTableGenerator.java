@@ -0,0 +1,32 @@
+package com.trickl.language;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the currency table resource loaded by {@link EnglishCurrencyAmountFormat}, run by the
+ * build after compilation.
+ */
+public final class CurrencyTableGenerator {
+
+  private CurrencyTableGenerator() {
+  }
+
+  /**
+   * Generate the table resource.
+   *
+   * @param args The path of the resource to write
+   * @throws IOException if unable to write the resource
+   */
+  public static void main(String[] args) throws IOException {
+    Path path = Paths.get(args[0]);
+    Files.createDirectories(path.toAbsolutePath().getParent());
+    try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      CurrencyTable.compute().write(writer);
+    }
+  }
+}
@@ -1,67 +1,130 @@
 package com.trickl.language;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.ParseException;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Currency;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
-import org.jparsec.OperatorTable;
 import org.jparsec.Parser;
 import org.jparsec.Parsers;
 import org.jparsec.Scanners;
 import org.jparsec.Terminals;
-import org.jparsec.Token;
+import org.jparsec.Tokens;
 import org.jparsec.error.ParserException;
 
+/**
+ * Parses currency amounts such as "$13 million" or "two hundred US dollar", and formats them as
+ * "£1,200.50" or "1,200.50 British pounds".
+ *
+ * <p>Instances are immutable, so a single instance may be shared by any number of threads without
+ * locking. Each {@link CurrencyAmount} target should only be used by one thread at a time.
+ */
 @Value
 public class EnglishCurrencyAmountFormat {
 
-  private Currency defaultCurrency = Currency.getInstance("USD");
+  private static final Currency USD = Currency.getInstance("USD");
 
-  private static final Set<String> ISO_3166 =
-      new HashSet<>(Arrays.asList(Locale.getISOCountries()));
+  private static final int PARSER_CACHE_SIZE = 64;
 
-  private static final List<Locale.LanguageRange> LOCALE_PRIORITY_LIST = 
-       Stream.concat(Locale.LanguageRange.parse("en-US;q=1.0,en-GB").stream(),
-       Arrays.asList(Locale.getAvailableLocales()).stream()
-       .map(locale -> new Locale.LanguageRange(locale.toLanguageTag())))
-       .collect(Collectors.toList());
+  private static final ParserListener.Operation OPERATION =
+      ParserListener.Operation.CURRENCY_AMOUNT_PARSE;
 
-  private static final List<Locale> LOCALES_ISO_3166 =
-      Locale.filter(LOCALE_PRIORITY_LIST, Arrays.asList(Locale.getAvailableLocales()))
-          .stream()
-          .filter(locale -> ISO_3166.contains(locale.getCountry()))
-          .collect(Collectors.toList());
+  // The tag of currency code tokens, which are read before or after an amount
+  private static final String CURRENCY_CODE_TAG = "currency code";
+
+  /** The forms in which an amount can be formatted. */
+  public enum Style {
+    /**
+     * The currency symbol then the amount, e.g. "£1,200.50", or the ISO code where the currency
+     * has no symbol that is recognised, e.g. "JPY 5,000".
+     */
+    SYMBOL,
+    /**
+     * The amount then the English name of the currency, e.g. "1,200.50 British pounds", or the ISO
+     * code where the name cannot be read back, e.g. "1,234 ISK".
+     */
+    NAME
+  }
+
+  private Currency defaultCurrency;
+
+  // The most edits corrected in a misspelt word, zero when misspelt words are not corrected
+  private int typoTolerance;
+
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  @Getter(AccessLevel.NONE)
+  private Parser<Map.Entry<Currency, BigDecimal>> parser;
+
+  private static final CurrencyTable CURRENCY_TABLE = CurrencyTable.load();
+
+  private static final Map<String, Currency> CURRENCY_BY_NAME = CURRENCY_TABLE.getByName();
+
+  private static final Map<String, Currency> CURRENCY_BY_SYMBOL = CURRENCY_TABLE.getBySymbol();
 
   private static final Set<String> CURRENCY_NAME_KEYWORDS =
-      LOCALES_ISO_3166
+      CURRENCY_BY_NAME
+          .keySet()
           .stream()
-          .map(locale -> Currency.getInstance(locale).getDisplayName(Locale.ENGLISH).toUpperCase())
           .map(displayName -> displayName.split(" "))
           .flatMap(Arrays::stream)
           .collect(Collectors.toSet());
 
-  private static final Set<String> CURRENCY_SYMBOLS =
-      Stream.concat(
-              LOCALES_ISO_3166
-                  .stream()
-                  .map(locale -> Currency.getInstance(locale).getSymbol(locale)),
-              Arrays.stream(AltCurrencySymbol.values()).map(acs -> acs.getSymbol()))
-          .collect(Collectors.toSet());
+  private static final Set<String> CURRENCY_SYMBOLS = CURRENCY_BY_SYMBOL.keySet();
+
+  private static final Set<String> CURRENCY_CODES =
+      Collections.unmodifiableSet(
+          Currency.getAvailableCurrencies()
+              .stream()
+              .map(Currency::getCurrencyCode)
+              .collect(Collectors.toSet()));
+
+  private static final Map<Currency, String> SYMBOL_BY_CURRENCY = symbolByCurrency();
+
+  // Built on first use of each currency, so there is no lookup of locale data per amount
+  private static final Map<Currency, CurrencyDisplay> DISPLAYS = new ConcurrentHashMap<>();
 
-  private static final Terminals OPERATORS = Terminals.operators(CURRENCY_SYMBOLS);
+  // Symbols are tokenized by a trie rather than as operators, which would try every symbol in turn
+  // at each position, and the token carries the currency itself. A symbol ending in a letter must
+  // end the word, so the "P" of Botswana is not read from the start of "Pound"
+  private static final Parser<Currency> SYMBOL_TOKENIZER =
+      SymbolTrie.of(CURRENCY_SYMBOLS)
+          .wholeWords()
+          .toScanner("currency symbol")
+          .source()
+          .map(CURRENCY_BY_SYMBOL::get);
+
+  // A code such as "CHF" that is also a symbol is read as a code, so that it can follow an amount
+  private static final Parser<Tokens.Fragment> CODE_TOKENIZER =
+      SymbolTrie.of(CURRENCY_CODES)
+          .wholeWords()
+          .toScanner(CURRENCY_CODE_TAG)
+          .source()
+          .map(code -> Tokens.fragment(code, CURRENCY_CODE_TAG));
 
   private static final Terminals KEYWORDS =
-      OPERATORS
+      Terminals.operators(Collections.emptyList())
           .words(Scanners.IDENTIFIER)
           .caseInsensitiveKeywords(
               Stream.concat(
@@ -70,81 +133,254 @@ public class EnglishCurrencyAmountFormat {
           .build();
 
   private static final Parser<?> TOKENIZER =
-      Parsers.or(OPERATORS.tokenizer(), KEYWORDS.tokenizer(), Terminals.DecimalLiteral.TOKENIZER);
+      Parsers.or(
+          Parsers.longer(CODE_TOKENIZER, SYMBOL_TOKENIZER),
+          KEYWORDS.tokenizer(),
+          Terminals.DecimalLiteral.TOKENIZER);
 
   private static final Parser<Currency> CURRENCY_NAMES =
       Parsers.or(
-          LOCALES_ISO_3166
+          CURRENCY_BY_NAME
+              .entrySet()
               .stream()
-              .map(
-                  locale ->
-                      Currency.getInstance(locale).getDisplayName(Locale.ENGLISH).toUpperCase())
-              .map(
-                  displayName ->
-                      KEYWORDS
-                          .phrase(displayName.split(" "))
-                          .map(EnglishCurrencyAmountFormat::parseCurrencyDisplayName))
+              .map(entry -> KEYWORDS.phrase(entry.getKey().split(" ")).retn(entry.getValue()))
               .collect(Collectors.toList()));
 
-  private static final Parser<
-          Function<Map.Entry<Currency, BigDecimal>, Map.Entry<Currency, BigDecimal>>>
-      CURRENCY_SYMBOL =
-          OPERATORS
-              .token(CURRENCY_SYMBOLS.toArray(new String[0]))
-              .map(
-                  symbol ->
-                      cn ->
-                          new AbstractMap.SimpleEntry<>(
-                              parseCurrencySymbol(symbol), cn.getValue()));
+  private static final Parser<Currency> CURRENCY_SYMBOL =
+      Parsers.tokenType(Currency.class, "currency symbol");
+
+  private static final Parser<Currency> CURRENCY_CODE =
+      Terminals.fragment(CURRENCY_CODE_TAG).map(Currency::getInstance);
+
+  private static final Parser<Map.Entry<Currency, BigDecimal>> CURRENCY_SYMBOL_NUMBER =
+      Parsers.sequence(
+          Parsers.or(CURRENCY_SYMBOL, CURRENCY_CODE),
+          EnglishNumberParser.grammar(KEYWORDS),
+          AbstractMap.SimpleImmutableEntry::new);
 
   private static final Function<Currency, Parser<Map.Entry<Currency, BigDecimal>>>
-      CURRENCY_SYMBOL_NUMBER =
+      NUMBER_CURRENCY_NAME =
           defaultCurrency ->
-              new OperatorTable<Map.Entry<Currency, BigDecimal>>()
-                  .prefix(CURRENCY_SYMBOL, 10) 
-                  .build(
-                      EnglishNumberParser.ALL_NUMBERS
-                          .apply(KEYWORDS)
-                          .map(amount -> new AbstractMap.SimpleEntry<>(defaultCurrency, amount)));
-
-  private static final Parser<Map.Entry<Currency, BigDecimal>> NUMBER_CURRENCY_NAME =
-      Parsers.sequence(
-          EnglishNumberParser.ALL_NUMBERS
-              .apply(KEYWORDS),              
-          CURRENCY_NAMES,
-          (n, c) -> new AbstractMap.SimpleEntry<>(c, n));
-
-  private static final Function<Currency, Parser<Map.Entry<Currency, BigDecimal>>> CURRENCY_AMOUNT =
-      defaultCurrency ->
-          Parsers.longest(CURRENCY_SYMBOL_NUMBER.apply(defaultCurrency), NUMBER_CURRENCY_NAME);
-
-  private static Currency parseCurrencySymbol(Token token) {
-    String symbol = token.toString();
-    return Stream.concat(
-            LOCALES_ISO_3166
-                .stream()
-                .filter(locale -> Currency.getInstance(locale).getSymbol(locale).equals(symbol))
-                .map(locale -> Currency.getInstance(locale)),
-            Arrays.stream(AltCurrencySymbol.values())
-                .filter(acs -> acs.getSymbol().equals(symbol))
-                .map(acs -> Currency.getInstance(acs.getCode())))
-        .findFirst()
-        .get();
-  }
-
-  private static Currency parseCurrencyDisplayName(Object token) {
-    String displayName = token.toString().toUpperCase();
-    return LOCALES_ISO_3166
-        .stream()
-        .filter(
-            locale ->
-                Currency.getInstance(locale)
-                    .getDisplayName(locale)
-                    .toUpperCase()
-                    .equals(displayName))
-        .map(locale -> Currency.getInstance(locale))
-        .findFirst()
-        .get();
+              Parsers.sequence(
+                  EnglishNumberParser.grammar(KEYWORDS),
+                  Parsers.or(CURRENCY_NAMES, CURRENCY_CODE).optional(defaultCurrency),
+                  (n, c) -> new AbstractMap.SimpleImmutableEntry<>(c, n));
+
+  private static final Function<Currency, Parser<Map.Entry<Currency, BigDecimal>>>
+      CURRENCY_AMOUNT =
+          defaultCurrency ->
+              Parsers.longer(CURRENCY_SYMBOL_NUMBER, NUMBER_CURRENCY_NAME.apply(defaultCurrency))
+                  .from(TOKENIZER, EnglishNumberParser.IGNORED);
+
+  // Least recently used parsers are evicted once the cache is full
+  private static final Map<Currency, Parser<Map.Entry<Currency, BigDecimal>>> PARSERS =
+      Collections.synchronizedMap(
+          new LinkedHashMap<Currency, Parser<Map.Entry<Currency, BigDecimal>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Currency, Parser<Map.Entry<Currency, BigDecimal>>> eldest) {
+              return size() > PARSER_CACHE_SIZE;
+            }
+          });
+
+  /** Create a format that assumes US dollars where no currency is given. */
+  public EnglishCurrencyAmountFormat() {
+    this(USD, 0);
+  }
+
+  private EnglishCurrencyAmountFormat(Currency defaultCurrency, int typoTolerance) {
+    this.defaultCurrency = defaultCurrency;
+    this.typoTolerance = typoTolerance;
+    this.parser = parser(defaultCurrency);
+  }
+
+  /**
+   * Get a format that assumes a currency where the text does not name one.
+   *
+   * <p>The grammar for each default currency is built once and shared by all formats, so this is
+   * cheap enough to call per request.
+   *
+   * @param defaultCurrency The currency of amounts without a symbol or name
+   * @return The format
+   */
+  public static EnglishCurrencyAmountFormat forDefault(Currency defaultCurrency) {
+    return new EnglishCurrencyAmountFormat(Objects.requireNonNull(defaultCurrency), 0);
+  }
+
+  /**
+   * Get a format like this one that corrects misspelt number words and currency names, such as
+   * "fourty" or "Brittish Pound", before parsing.
+   *
+   * <p>Corrections are made by a {@link TypoCorrector}, which may be used directly to list them.
+   * Error offsets still refer to the original text.
+   *
+   * @param maxEdits The most edits to correct in a word, zero to accept only correct spelling
+   * @return The format
+   * @throws IllegalArgumentException if the tolerance is more than {@link TypoCorrector#MAX_EDITS}
+   */
+  public EnglishCurrencyAmountFormat withTypoTolerance(int maxEdits) {
+    if (maxEdits != 0) {
+      // Fails fast on a bad tolerance, and builds the automaton before the first parse
+      TypoCorrector.forMaxEdits(maxEdits);
+    }
+    return new EnglishCurrencyAmountFormat(defaultCurrency, maxEdits);
+  }
+
+  /**
+   * Get the complete parser for a default currency, building it if not already cached.
+   *
+   * @param defaultCurrency The currency of amounts without a symbol or name
+   * @return An immutable, thread-safe parser of currency amounts
+   */
+  static Parser<Map.Entry<Currency, BigDecimal>> parser(Currency defaultCurrency) {
+    return PARSERS.computeIfAbsent(defaultCurrency, CURRENCY_AMOUNT);
+  }
+
+  /**
+   * Get every symbol recognised as a currency.
+   *
+   * @return The symbols, matched case sensitively
+   */
+  static Set<String> currencySymbols() {
+    return CURRENCY_SYMBOLS;
+  }
+
+  /**
+   * Get every recognised ISO currency code.
+   *
+   * @return The codes, matched case sensitively
+   */
+  static Set<String> currencyCodes() {
+    return CURRENCY_CODES;
+  }
+
+  /**
+   * Get every word that appears in a recognised currency name.
+   *
+   * @return The words, upper case
+   */
+  static Set<String> currencyNameWords() {
+    return CURRENCY_NAME_KEYWORDS;
+  }
+
+  /**
+   * Format an amount in the {@link Style#SYMBOL} style, e.g. "£1,200.50".
+   *
+   * @param currency The currency
+   * @param minorUnits The amount as a whole number of minor units of the currency, e.g. pence
+   * @return The formatted amount
+   * @throws IllegalArgumentException if the currency has no minor units
+   */
+  public String format(Currency currency, long minorUnits) {
+    return format(currency, minorUnits, Style.SYMBOL);
+  }
+
+  /**
+   * Format an amount.
+   *
+   * @param currency The currency
+   * @param minorUnits The amount as a whole number of minor units of the currency, e.g. pence
+   * @param style The form of the result
+   * @return The formatted amount
+   * @throws IllegalArgumentException if the currency has no minor units
+   */
+  public String format(Currency currency, long minorUnits, Style style) {
+    return formatTo(currency, minorUnits, style, new StringBuilder()).toString();
+  }
+
+  /**
+   * Format an amount, rounding half even to the minor units of the currency.
+   *
+   * @param currency The currency
+   * @param amount The amount in major units, e.g. pounds
+   * @param style The form of the result
+   * @return The formatted amount
+   * @throws IllegalArgumentException if the currency has no minor units
+   * @throws ArithmeticException if the amount in minor units is out of the range of a long
+   */
+  public String format(Currency currency, BigDecimal amount, Style style) {
+    return format(currency, toMinorUnits(currency, amount), style);
+  }
+
+  /**
+   * Format an amount, rounding half even to the minor units of the currency.
+   *
+   * @param amount The currency and amount
+   * @param style The form of the result
+   * @return The formatted amount
+   * @throws IllegalArgumentException if the currency has no minor units
+   * @throws ArithmeticException if the amount in minor units is out of the range of a long
+   */
+  public String format(CurrencyAmount amount, Style style) {
+    return format(amount.getCurrency(), amount.getAmount(), style);
+  }
+
+  /**
+   * Append an amount, in the same form as {@link #format(Currency, long, Style)}.
+   *
+   * @param currency The currency
+   * @param minorUnits The amount as a whole number of minor units of the currency, e.g. pence
+   * @param style The form of the result
+   * @param builder The builder to append to
+   * @return The builder
+   * @throws IllegalArgumentException if the currency has no minor units
+   */
+  public StringBuilder formatTo(
+      Currency currency, long minorUnits, Style style, StringBuilder builder) {
+    try {
+      formatTo(currency, minorUnits, style, (Appendable) builder);
+    } catch (IOException ex) {
+      // A StringBuilder does not throw
+      throw new UncheckedIOException(ex);
+    }
+    return builder;
+  }
+
+  /**
+   * Append an amount, in the same form as {@link #format(Currency, long, Style)}.
+   *
+   * <p>Nothing is allocated beyond what the appendable itself allocates, once the currency has
+   * been formatted before.
+   *
+   * @param currency The currency
+   * @param minorUnits The amount as a whole number of minor units of the currency, e.g. pence
+   * @param style The form of the result
+   * @param appendable The destination to append to
+   * @return The appendable
+   * @throws IOException if the appendable cannot be written
+   * @throws IllegalArgumentException if the currency has no minor units
+   */
+  public Appendable formatTo(
+      Currency currency, long minorUnits, Style style, Appendable appendable) throws IOException {
+    CurrencyDisplay display = display(currency);
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    int length = 0;
+    if (minorUnits < 0) {
+      appendable.append('-');
+      length++;
+    }
+    if (style == Style.SYMBOL) {
+      appendable.append(display.symbol);
+      length += display.symbol.length();
+      if (Character.isLetter(display.symbol.charAt(display.symbol.length() - 1))) {
+        appendable.append(' ');
+        length++;
+      }
+      length += appendMinorUnits(appendable, minorUnits, display);
+    } else {
+      length += appendMinorUnits(appendable, minorUnits, display);
+      String name =
+          minorUnits == display.scale || minorUnits == -display.scale
+              ? display.singularName
+              : display.pluralName;
+      appendable.append(' ');
+      appendable.append(name);
+      length += name.length() + 1;
+    }
+    ParserInstrumentation.succeeded(
+        listener, ParserListener.Operation.CURRENCY_AMOUNT_FORMAT, length, started);
+    return appendable;
   }
 
   /**
@@ -156,13 +392,182 @@ public class EnglishCurrencyAmountFormat {
    */
   public Map.Entry<Currency, BigDecimal> parse(String text) 
       throws ParseException {
+    return parse(text, 0, text.length());
+  }
+
+  /**
+   * Convert a region of text into a currency and amount, without copying the region.
+   *
+   * @param text The text containing the amount
+   * @param start The start index of the amount, inclusive
+   * @param end The end index of the amount, exclusive
+   * @return The currency and amount
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  public Map.Entry<Currency, BigDecimal> parse(CharSequence text, int start, int end)
+      throws ParseException {
+    EnglishNumberParser.checkRegion(text, start, end);
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    List<TypoCorrection> corrections =
+        typoTolerance == 0 ? Collections.emptyList() : new ArrayList<>();
+    String corrected =
+        typoTolerance == 0
+            ? null
+            : TypoCorrector.forMaxEdits(typoTolerance)
+                .correctRegion(text, start, end, corrections);
+    Map.Entry<Currency, BigDecimal> parsed;
     try {
-      return CURRENCY_AMOUNT
-          .apply(defaultCurrency)
-          .from(TOKENIZER, EnglishNumberParser.IGNORED)
-          .parse(text);
+      parsed =
+          parser.parse(
+              corrected == null ? EnglishNumberParser.region(text, start, end) : corrected);
     } catch (ParserException ex) {
-      throw new ParseException(ex.getMessage(), ex.getLocation().column);
+      ParserInstrumentation.failed(
+          listener, OPERATION, end - start, started, ParserInstrumentation.errorKind(ex));
+      int errorIndex = EnglishNumberParser.errorIndex(ex);
+      throw new ParseException(
+          ex.getMessage(),
+          corrected == null
+              ? start + errorIndex
+              : TypoCorrector.originalIndex(corrections, start, errorIndex));
+    }
+    ParserInstrumentation.succeeded(listener, OPERATION, end - start, started);
+    return parsed;
+  }
+
+  /**
+   * Convert text into a currency and amount, reusing an existing amount.
+   *
+   * @param text The text to parse
+   * @param target The amount to populate, unchanged if the text cannot be parsed
+   * @throws ParseException if unable to parse the text
+   */
+  public void parseInto(CharSequence text, CurrencyAmount target) throws ParseException {
+    parseInto(text, 0, text.length(), target);
+  }
+
+  /**
+   * Convert a region of text into a currency and amount, reusing an existing amount.
+   *
+   * @param text The text containing the amount
+   * @param start The start index of the amount, inclusive
+   * @param end The end index of the amount, exclusive
+   * @param target The amount to populate, unchanged if the region cannot be parsed
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  public void parseInto(CharSequence text, int start, int end, CurrencyAmount target)
+      throws ParseException {
+    Map.Entry<Currency, BigDecimal> parsed = parse(text, start, end);
+    target.set(parsed.getKey(), parsed.getValue());
+  }
+
+  // Returns the number of characters appended, excluding any sign
+  private static int appendMinorUnits(
+      Appendable appendable, long minorUnits, CurrencyDisplay display) throws IOException {
+    // Digits are taken from the negated value, which also holds Long.MIN_VALUE
+    long negated = minorUnits < 0 ? minorUnits : -minorUnits;
+    long major = negated / display.scale;
+    long minor = -(negated % display.scale);
+
+    int digits = 1;
+    long divisor = 1;
+    while (major / divisor <= -10) {
+      divisor *= 10;
+      digits++;
+    }
+    int length = digits + (digits - 1) / 3;
+    for (; divisor > 0; divisor /= 10) {
+      appendable.append((char) ('0' - major / divisor % 10));
+      if (--digits > 0 && digits % 3 == 0) {
+        appendable.append(',');
+      }
+    }
+
+    if (display.fractionDigits > 0) {
+      appendable.append('.');
+      for (divisor = display.scale / 10; divisor > 0; divisor /= 10) {
+        appendable.append((char) ('0' + minor / divisor % 10));
+      }
+      length += display.fractionDigits + 1;
+    }
+    return length;
+  }
+
+  private static long toMinorUnits(Currency currency, BigDecimal amount) {
+    return amount
+        .setScale(display(currency).fractionDigits, RoundingMode.HALF_EVEN)
+        .unscaledValue()
+        .longValueExact();
+  }
+
+  private static CurrencyDisplay display(Currency currency) {
+    CurrencyDisplay display = DISPLAYS.get(currency);
+    return display != null ? display : DISPLAYS.computeIfAbsent(currency, CurrencyDisplay::new);
+  }
+
+  // Prefer the common sign of each currency, then the first recognised symbol in priority order,
+  // so that every symbol written is parsed back to the same currency
+  private static Map<Currency, String> symbolByCurrency() {
+    Map<Currency, String> symbols = new HashMap<>();
+    for (Map.Entry<String, Currency> entry : CURRENCY_BY_SYMBOL.entrySet()) {
+      symbols.putIfAbsent(entry.getValue(), entry.getKey());
+    }
+    for (int i = AltCurrencySymbol.values().length - 1; i >= 0; --i) {
+      AltCurrencySymbol acs = AltCurrencySymbol.values()[i];
+      Currency currency = CURRENCY_BY_SYMBOL.get(acs.getSymbol());
+      if (currency != null && currency.getCurrencyCode().equals(acs.getCode())) {
+        symbols.put(currency, acs.getSymbol());
+      }
+    }
+    return Collections.unmodifiableMap(symbols);
+  }
+
+  /** The symbol, names and minor units of a currency, as written by the format methods. */
+  private static final class CurrencyDisplay {
+
+    private final String symbol;
+
+    private final String singularName;
+
+    private final String pluralName;
+
+    private final int fractionDigits;
+
+    // Minor units per major unit
+    private final long scale;
+
+    CurrencyDisplay(Currency currency) {
+      fractionDigits = currency.getDefaultFractionDigits();
+      if (fractionDigits < 0) {
+        throw new IllegalArgumentException(currency + " has no minor units");
+      }
+      long units = 1;
+      for (int i = 0; i < fractionDigits; ++i) {
+        units *= 10;
+      }
+      scale = units;
+      symbol = SYMBOL_BY_CURRENCY.getOrDefault(currency, currency.getCurrencyCode());
+
+      // The noun is lower case, as in "British pound"
+      String displayName = currency.getDisplayName(Locale.ENGLISH);
+      int nounStart = displayName.lastIndexOf(' ') + 1;
+      String singular =
+          displayName.substring(0, nounStart)
+              + displayName.substring(nounStart).toLowerCase(Locale.ENGLISH);
+      String plural = CurrencyTable.pluralName(singular);
+      if (isReadable(singular, currency) && isReadable(plural, currency)) {
+        singularName = singular;
+        pluralName = plural;
+      } else {
+        singularName = currency.getCurrencyCode();
+        pluralName = singularName;
+      }
+    }
+
+    // Whether a name is tokenized as words and recognised as the currency
+    private static boolean isReadable(String name, Currency currency) {
+      return name.matches("[A-Za-z]+( [A-Za-z]+)*")
+          && currency.equals(CURRENCY_BY_NAME.get(name.toUpperCase(Locale.ENGLISH)));
     }
   }
 }
@@ -1,25 +1,38 @@
 package com.trickl.language;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.ParseException;
+import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
 
+/**
+ * Formats and parses durations such as "1 day 3 hours 17 minutes".
+ *
+ * <p>Instances are immutable, so a single instance may be shared by any number of threads without
+ * locking.
+ */
 @Log
 @RequiredArgsConstructor
 public final class EnglishDurationFormat {
 
+  @Getter(AccessLevel.PACKAGE)
   private final ChronoUnit accuracy;
 
   private final boolean showZeroes;
@@ -27,9 +40,31 @@ public final class EnglishDurationFormat {
   private static final Map<String, ChronoUnit> UNIT_ALIASES;
   
   private static final List<ChronoUnit> SORTED_UNITS;
-  
-  private static final String FORMAT_PATTERN = 
-      "^((\\p{Space}*(\\p{Digit}+))?\\p{Space}*(\\p{Alpha}+)\\p{Space}*).*";
+
+  // Every accepted unit name in lower case, bucketed by length so a name can be resolved in place
+  private static final String[][] UNIT_NAMES_BY_LENGTH;
+
+  private static final ChronoUnit[][] UNITS_BY_NAME_LENGTH;
+
+  // Sizes and names of SORTED_UNITS, sizes are in seconds or, below a second, in nanoseconds
+  private static final long[] UNIT_SIZES;
+
+  private static final String[] SINGULAR_NAMES;
+
+  private static final String[] PLURAL_NAMES;
+
+  // Whole seconds and remaining nanoseconds of each unit, indexed by ordinal
+  private static final long[] UNIT_SECONDS;
+
+  private static final long[] UNIT_NANOS;
+
+  private static final long NANOS_PER_SECOND = 1000000000L;
+
+  private static final long NANOS_PER_MILLI = 1000000L;
+
+  private static final String UNKNOWN_UNIT = "Unknown unit";
+
+  private static final String OUT_OF_RANGE = "Amount";
   
   public EnglishDurationFormat() {
     this(ChronoUnit.MILLIS);
@@ -55,6 +90,61 @@ public final class EnglishDurationFormat {
     SORTED_UNITS.remove(ChronoUnit.FOREVER);
     SORTED_UNITS.remove(ChronoUnit.ERAS);    
     Collections.sort(SORTED_UNITS, Comparator.reverseOrder());
+
+    UNIT_SECONDS = new long[ChronoUnit.values().length];
+    UNIT_NANOS = new long[ChronoUnit.values().length];
+    for (ChronoUnit unit : ChronoUnit.values()) {
+      UNIT_SECONDS[unit.ordinal()] = unit.getDuration().getSeconds();
+      UNIT_NANOS[unit.ordinal()] = unit.getDuration().getNano();
+    }
+
+    UNIT_SIZES = new long[SORTED_UNITS.size()];
+    SINGULAR_NAMES = new String[SORTED_UNITS.size()];
+    PLURAL_NAMES = new String[SORTED_UNITS.size()];
+    for (int i = 0; i < SORTED_UNITS.size(); ++i) {
+      ChronoUnit unit = SORTED_UNITS.get(i);
+      UNIT_SIZES[i] =
+          unit.compareTo(ChronoUnit.SECONDS) < 0
+              ? unit.getDuration().getNano()
+              : unit.getDuration().getSeconds();
+      PLURAL_NAMES[i] = unit.toString().toLowerCase();
+      SINGULAR_NAMES[i] = singularize(PLURAL_NAMES[i]);
+    }
+
+    // Accept any name that pluralizes to an alias or a unit, aliases taking priority
+    Map<String, ChronoUnit> pluralNames = new LinkedHashMap<>(UNIT_ALIASES);
+    for (ChronoUnit unit : ChronoUnit.values()) {
+      pluralNames.putIfAbsent(unit.name().toLowerCase(), unit);
+    }
+    Map<String, ChronoUnit> unitNames = new HashMap<>();
+    for (Map.Entry<String, ChronoUnit> entry : pluralNames.entrySet()) {
+      String plural = entry.getKey();
+      for (String name :
+          Arrays.asList(
+              plural,
+              plural.replaceAll("s$", ""),
+              plural.replaceAll("ries$", "ry"),
+              plural.replaceAll("ia$", "ium"))) {
+        if (name.matches("\\p{Alpha}+") && plural.equals(pluralize(name))) {
+          unitNames.putIfAbsent(name, entry.getValue());
+        }
+      }
+    }
+    int maxLength = unitNames.keySet().stream().mapToInt(String::length).max().orElse(0);
+    UNIT_NAMES_BY_LENGTH = new String[maxLength + 1][];
+    UNITS_BY_NAME_LENGTH = new ChronoUnit[maxLength + 1][];
+    for (int length = 0; length <= maxLength; ++length) {
+      final int nameLength = length;
+      List<Map.Entry<String, ChronoUnit>> names =
+          unitNames
+              .entrySet()
+              .stream()
+              .filter(entry -> entry.getKey().length() == nameLength)
+              .collect(Collectors.toList());
+      UNIT_NAMES_BY_LENGTH[length] = names.stream().map(Map.Entry::getKey).toArray(String[]::new);
+      UNITS_BY_NAME_LENGTH[length] =
+          names.stream().map(Map.Entry::getValue).toArray(ChronoUnit[]::new);
+    }
   }
 
   /**
@@ -64,34 +154,133 @@ public final class EnglishDurationFormat {
    * @param duration The duration to convert
    * @return English representation
    */
-  public String format(Duration duration) {    
-    List<String> formattedParts = new LinkedList<>();
-    for (ChronoUnit unit : SORTED_UNITS) {
-      if (unit.compareTo(accuracy) == -1) {
-        break;
-      }
+  public String format(Duration duration) {
+    return formatTo(duration, new StringBuilder()).toString();
+  }
+
+  /**
+   * Format a number of nanoseconds, as from {@link System#nanoTime()}, in the same form as {@link
+   * #format(Duration)}.
+   *
+   * @param nanos The duration in nanoseconds
+   * @return English representation
+   */
+  public String formatNanos(long nanos) {
+    StringBuilder builder = new StringBuilder();
+    appendTo(
+        Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND), builder);
+    return builder.toString();
+  }
+
+  /**
+   * Format a number of milliseconds in the same form as {@link #format(Duration)}.
+   *
+   * @param millis The duration in milliseconds
+   * @return English representation
+   */
+  public String formatMillis(long millis) {
+    StringBuilder builder = new StringBuilder();
+    appendTo(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * NANOS_PER_MILLI, builder);
+    return builder.toString();
+  }
+
+  /**
+   * Append a duration as an English string, in the same form as {@link #format(Duration)}.
+   *
+   * @param duration The duration to convert
+   * @param builder The builder to append to
+   * @return The builder
+   */
+  public StringBuilder formatTo(Duration duration, StringBuilder builder) {
+    appendTo(duration.getSeconds(), duration.getNano(), builder);
+    return builder;
+  }
+
+  /**
+   * Append a duration as an English string, in the same form as {@link #format(Duration)}.
+   *
+   * <p>Nothing is allocated beyond what the appendable itself allocates.
+   *
+   * @param duration The duration to convert
+   * @param appendable The destination to append to
+   * @return The appendable
+   * @throws IOException if the appendable cannot be written
+   */
+  public Appendable formatTo(Duration duration, Appendable appendable) throws IOException {
+    formatTo(duration.getSeconds(), duration.getNano(), appendable);
+    return appendable;
+  }
 
-      ChronoUnit resolveUnit = ChronoUnit.SECONDS;
-      if (unit.compareTo(ChronoUnit.SECONDS) < 0) {
-        resolveUnit = ChronoUnit.NANOS;
+  private void formatTo(long seconds, long nanos, Appendable appendable) throws IOException {
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    int length = appendUnits(seconds, nanos, appendable);
+    ParserInstrumentation.succeeded(
+        listener, ParserListener.Operation.DURATION_FORMAT, length, started);
+  }
+
+  private void appendTo(long seconds, long nanos, StringBuilder builder) {
+    try {
+      formatTo(seconds, nanos, builder);
+    } catch (IOException ex) {
+      // A StringBuilder does not throw
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // Returns the number of characters appended
+  private int appendUnits(long seconds, long nanos, Appendable appendable) throws IOException {
+    int length = 0;
+    boolean first = true;
+    for (int i = 0; i < UNIT_SIZES.length; ++i) {
+      ChronoUnit unit = SORTED_UNITS.get(i);
+      if (unit.compareTo(accuracy) < 0) {
+        break;
       }
 
-      long resolvedUnit = unit.getDuration().get(resolveUnit);
-      long resolvedAmount = duration.get(resolveUnit);
-      long unitSize = resolvedAmount / resolvedUnit;
+      boolean subSecond = unit.compareTo(ChronoUnit.SECONDS) < 0;
+      long unitSize = (subSecond ? nanos : seconds) / UNIT_SIZES[i];
       if (unitSize > 0 || showZeroes) {
-        String unitName = unit.toString().toLowerCase();
-        if (unitSize == 1) {
-          // Singularize unit
-          unitName = singularize(unitName);
+        if (!first) {
+          appendable.append(' ');
+          length++;
+        }
+        length += appendLong(appendable, unitSize);
+        String name = unitSize == 1 ? SINGULAR_NAMES[i] : PLURAL_NAMES[i];
+        appendable.append(' ');
+        appendable.append(name);
+        length += name.length() + 1;
+        first = false;
+        if (subSecond) {
+          nanos -= unitSize * UNIT_SIZES[i];
+        } else {
+          seconds -= unitSize * UNIT_SIZES[i];
         }
-        String formattedPart = unitSize + " " + unitName;
-        formattedParts.add(formattedPart);
-        duration = duration.minus(unitSize, unit);
       }
     }
+    return length;
+  }
 
-    return String.join(" ", formattedParts);
+  // Returns the number of characters appended
+  private static int appendLong(Appendable appendable, long value) throws IOException {
+    int length = 0;
+    // Digits are taken from the negated value, which also holds Long.MIN_VALUE
+    long negated = value;
+    if (value < 0) {
+      appendable.append('-');
+      length++;
+    } else {
+      negated = -value;
+    }
+    long divisor = 1;
+    while (negated / divisor <= -10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      appendable.append((char) ('0' - negated / divisor % 10));
+      length++;
+    }
+    return length;
   }
 
   /**
@@ -102,42 +291,156 @@ public final class EnglishDurationFormat {
    * @throws ParseException If text cannot be parsed
    */
   public Duration parse(String text) throws ParseException {
-    Duration duration = null;
-    String value = text;
-
-    while (!value.isEmpty()) {
-      Pattern amountAndUnitPattern =
-          Pattern.compile(FORMAT_PATTERN);
-      Matcher matcher = amountAndUnitPattern.matcher(value);
-      if (matcher.matches()) {
-        value = value.substring(matcher.group(1).length());
-        String unitName = matcher.group(4);
-        unitName = unitName.toLowerCase();
-
-        // Pluralize if necessary
-        unitName = pluralize(unitName);
-
-        ChronoUnit unit = parseChronoUnit(unitName);
-        
-        if (duration == null) {
-          duration = Duration.ZERO;
-        }
-        
-        long amount = matcher.group(3) == null ? 1 : Long.parseLong(matcher.group(3));
-        duration = duration.plus(amount, unit);
+    return parse(text, 0, text.length());
+  }
+
+  /**
+   * Convert a region of text into a duration, without copying the region.
+   *
+   * @param text The text containing the duration, same format as .format
+   * @param start The start index of the duration, inclusive
+   * @param end The end index of the duration, exclusive
+   * @return A duration object
+   * @throws ParseException If the region cannot be parsed, the offset is relative to the text
+   */
+  public Duration parse(CharSequence text, int start, int end) throws ParseException {
+    ParsedDuration parsed = new ParsedDuration();
+    parseInto(text, start, end, parsed);
+    return Duration.ofSeconds(parsed.seconds, parsed.nanos);
+  }
+
+  /**
+   * Convert an English text string into a number of nanoseconds.
+   *
+   * @param text The text to parse, same format as .format
+   * @return The duration in nanoseconds
+   * @throws ParseException If text cannot be parsed
+   * @throws ArithmeticException If the duration does not fit in a long of nanoseconds
+   */
+  public long parseToNanos(CharSequence text) throws ParseException {
+    return parseToNanos(text, 0, text.length());
+  }
+
+  /**
+   * Convert a region of text into a number of nanoseconds, without copying the region.
+   *
+   * @param text The text containing the duration, same format as .format
+   * @param start The start index of the duration, inclusive
+   * @param end The end index of the duration, exclusive
+   * @return The duration in nanoseconds
+   * @throws ParseException If the region cannot be parsed, the offset is relative to the text
+   * @throws ArithmeticException If the duration does not fit in a long of nanoseconds
+   */
+  public long parseToNanos(CharSequence text, int start, int end) throws ParseException {
+    ParsedDuration parsed = new ParsedDuration();
+    parseInto(text, start, end, parsed);
+    return Math.addExact(Math.multiplyExact(parsed.seconds, NANOS_PER_SECOND), parsed.nanos);
+  }
+
+  /**
+   * Seconds and nanoseconds accumulated with the same rules as {@link Duration#plus}.
+   */
+  private static final class ParsedDuration {
+
+    private long seconds;
+
+    private long nanos;
+
+    private boolean empty = true;
+
+    void plus(long amount, ChronoUnit unit) {
+      if (unit.isDurationEstimated() && unit != ChronoUnit.DAYS) {
+        throw new UnsupportedTemporalTypeException("Unit must not have an estimated duration");
+      }
+      empty = false;
+      long unitNanos = UNIT_NANOS[unit.ordinal()];
+      if (unitNanos == 0) {
+        seconds = Math.addExact(seconds, Math.multiplyExact(amount, UNIT_SECONDS[unit.ordinal()]));
       } else {
-        value = "";
+        long perSecond = NANOS_PER_SECOND / unitNanos;
+        seconds = Math.addExact(seconds, amount / perSecond);
+        nanos += (amount % perSecond) * unitNanos;
+        if (nanos >= NANOS_PER_SECOND) {
+          seconds = Math.addExact(seconds, 1);
+          nanos -= NANOS_PER_SECOND;
+        }
       }
     }
+  }
 
-    if (duration == null) {
-      throw new ParseException("Unable to parse Duration '" + text + "'", 0);
+  private void parseInto(CharSequence text, int start, int end, ParsedDuration parsed)
+      throws ParseException {
+    EnglishNumberParser.checkRegion(text, start, end);
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    try {
+      parseUnits(text, start, end, parsed);
+    } catch (ParseException ex) {
+      String message = ex.getMessage();
+      String errorKind =
+          message.startsWith(UNKNOWN_UNIT)
+              ? "unknown unit"
+              : message.startsWith(OUT_OF_RANGE) ? "amount out of range" : "no units";
+      parseFailed(listener, end - start, started, errorKind);
+      throw ex;
+    } catch (DateTimeException ex) {
+      parseFailed(listener, end - start, started, "unsupported unit");
+      throw ex;
+    } catch (ArithmeticException ex) {
+      parseFailed(listener, end - start, started, "overflow");
+      throw ex;
     }
+    ParserInstrumentation.succeeded(
+        listener, ParserListener.Operation.DURATION_PARSE, end - start, started);
+  }
 
-    return duration;
+  private static void parseFailed(
+      ParserListener listener, int length, long started, String errorKind) {
+    ParserInstrumentation.failed(
+        listener, ParserListener.Operation.DURATION_PARSE, length, started, errorKind);
   }
-  
-  private String pluralize(String noun) {
+
+  private void parseUnits(CharSequence text, int start, int end, ParsedDuration parsed)
+      throws ParseException {
+    int position = skipSpaces(text, start, end);
+
+    // Each step reads [amount] unit, stopping at the first text that is neither
+    while (position < end) {
+      int amountStart = position;
+      long amount = 0;
+      boolean overflow = false;
+      while (position < end && isDigit(text.charAt(position))) {
+        int digit = text.charAt(position++) - '0';
+        overflow |= amount > (Long.MAX_VALUE - digit) / 10;
+        amount = amount * 10 + digit;
+      }
+      position = skipSpaces(text, position, end);
+
+      int nameStart = position;
+      while (position < end && isAlpha(text.charAt(position))) {
+        position++;
+      }
+      if (position == nameStart) {
+        break;
+      }
+      ChronoUnit unit = parseChronoUnit(text, nameStart, position);
+      if (overflow) {
+        throw new ParseException(
+            OUT_OF_RANGE + " '" + text.subSequence(amountStart, nameStart) + "' is out of range",
+            amountStart);
+      }
+      // Each step starts on a non-space, so the name only starts there when there is no amount
+      parsed.plus(nameStart > amountStart ? amount : 1, unit);
+      position = skipSpaces(text, position, end);
+    }
+
+    if (parsed.empty) {
+      throw new ParseException(
+          "Unable to parse Duration '" + text.subSequence(start, end) + "'", start);
+    }
+  }
+
+  private static String pluralize(String noun) {
     if (noun.endsWith("ium")) {
       return noun.replaceAll("ium$", "ia");
     } else if (noun.endsWith("ry")) {
@@ -148,7 +451,7 @@ public final class EnglishDurationFormat {
     return noun;
   }
   
-  private String singularize(String noun) {
+  private static String singularize(String noun) {
     if (noun.endsWith("ia")) {
       return noun.replaceAll("ia$", "ium");
     } else if (noun.endsWith("ries")) {
@@ -159,18 +462,62 @@ public final class EnglishDurationFormat {
     return noun;
   }
   
-  private ChronoUnit parseChronoUnit(String text) throws ParseException {
-    ChronoUnit unit;
-    if (UNIT_ALIASES.containsKey(text)) {
-      unit = UNIT_ALIASES.get(text);
-    } else {
-      try {
-        unit = Enum.valueOf(ChronoUnit.class, text.toUpperCase());
-      } catch (IllegalArgumentException ex) {
-        throw new ParseException(ex.getMessage(), 0);
-      }
+  private ChronoUnit parseChronoUnit(CharSequence text, int start, int end)
+      throws ParseException {
+    ChronoUnit unit = unitNamed(text, start, end);
+    if (unit == null) {
+      throw new ParseException(UNKNOWN_UNIT + " '" + text.subSequence(start, end) + "'", start);
     }
-    
     return unit;
   }
+
+  /**
+   * Look up a unit by any of its names, ignoring case.
+   *
+   * @param text The text holding the name
+   * @param start The start of the name
+   * @param end The end of the name
+   * @return The unit, or null if the region is not a unit name
+   */
+  static ChronoUnit unitNamed(CharSequence text, int start, int end) {
+    int length = end - start;
+    if (length < UNIT_NAMES_BY_LENGTH.length) {
+      String[] names = UNIT_NAMES_BY_LENGTH[length];
+      for (int i = 0; i < names.length; ++i) {
+        if (regionEqualsIgnoreCase(text, start, names[i])) {
+          return UNITS_BY_NAME_LENGTH[length][i];
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean regionEqualsIgnoreCase(CharSequence text, int start, String name) {
+    for (int i = 0; i < name.length(); ++i) {
+      if (Character.toLowerCase(text.charAt(start + i)) != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int skipSpaces(CharSequence text, int position, int end) {
+    while (position < end && isSpace(text.charAt(position))) {
+      position++;
+    }
+    return position;
+  }
+
+  // ASCII only, as with the POSIX character classes
+  private static boolean isSpace(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isAlpha(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
 }
@@ -0,0 +1,216 @@
+package com.trickl.language;
+
+import com.trickl.language.EnglishNumberParser.NumberLiteral;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Formats whole numbers as English words, e.g. "ninety nine thousand three hundred and eighty
+ * seven", the inverse of {@link EnglishNumberParser}.
+ *
+ * <p>Each group of three digits is written from a table built once per class, so formatting
+ * allocates nothing beyond what the destination itself allocates. Instances are immutable, so a
+ * single instance may be shared by any number of threads without locking.
+ */
+public final class EnglishNumberFormat {
+
+  /** The largest number that can be formatted, one less than a thousand trillion. */
+  public static final long MAX_VALUE = NumberLiteral.TRILLION.getValue() * 1000 - 1;
+
+  private static final NumberLiteral[] SCALES = {
+    NumberLiteral.TRILLION, NumberLiteral.BILLION, NumberLiteral.MILLION, NumberLiteral.THOUSAND
+  };
+
+  private static final String[] SCALE_NAMES = new String[SCALES.length];
+
+  // Words for every group from 0 to 999, with and without "and" after the hundreds
+  private static final String[] GROUPS_WITH_AND = new String[1000];
+
+  private static final String[] GROUPS = new String[1000];
+
+  private static final String ZERO = name(NumberLiteral.ZERO);
+
+  private static final String AND = "and";
+
+  private final boolean conjunction;
+
+  static {
+    for (int i = 0; i < SCALES.length; ++i) {
+      SCALE_NAMES[i] = name(SCALES[i]);
+    }
+
+    String[] belowHundred = new String[100];
+    for (NumberLiteral literal : NumberLiteral.values()) {
+      if (literal.getValue() > 0 && literal.getValue() < 100) {
+        belowHundred[(int) literal.getValue()] = name(literal);
+      }
+    }
+    for (int i = 21; i < 100; ++i) {
+      if (belowHundred[i] == null) {
+        belowHundred[i] = belowHundred[i - i % 10] + ' ' + belowHundred[i % 10];
+      }
+    }
+
+    String hundred = name(NumberLiteral.HUNDRED);
+    for (int i = 1; i < 1000; ++i) {
+      int hundreds = i / 100;
+      int rest = i % 100;
+      if (hundreds == 0) {
+        GROUPS[i] = belowHundred[rest];
+        GROUPS_WITH_AND[i] = belowHundred[rest];
+      } else if (rest == 0) {
+        GROUPS[i] = belowHundred[hundreds] + ' ' + hundred;
+        GROUPS_WITH_AND[i] = GROUPS[i];
+      } else {
+        String prefix = belowHundred[hundreds] + ' ' + hundred + ' ';
+        GROUPS[i] = prefix + belowHundred[rest];
+        GROUPS_WITH_AND[i] = prefix + AND + ' ' + belowHundred[rest];
+      }
+    }
+  }
+
+  /** Create a format that writes "and" before the tens, e.g. "one hundred and five". */
+  public EnglishNumberFormat() {
+    this(true);
+  }
+
+  /**
+   * Create a format.
+   *
+   * @param conjunction Whether to write "and" before the tens, e.g. "one hundred and five" rather
+   *     than "one hundred five"
+   */
+  public EnglishNumberFormat(boolean conjunction) {
+    this.conjunction = conjunction;
+  }
+
+  /**
+   * Format a number as English words.
+   *
+   * @param number The number, from zero to {@link #MAX_VALUE}
+   * @return English representation
+   * @throws IllegalArgumentException If the number is out of range
+   */
+  public String format(long number) {
+    return formatTo(number, new StringBuilder()).toString();
+  }
+
+  /**
+   * Format a whole number as English words.
+   *
+   * @param number The number, from zero to {@link #MAX_VALUE} with no fractional part
+   * @return English representation
+   * @throws IllegalArgumentException If the number is out of range or not whole
+   */
+  public String format(BigDecimal number) {
+    return format(toLong(number));
+  }
+
+  /**
+   * Append a number as English words, in the same form as {@link #format(long)}.
+   *
+   * @param number The number, from zero to {@link #MAX_VALUE}
+   * @param builder The builder to append to
+   * @return The builder
+   * @throws IllegalArgumentException If the number is out of range
+   */
+  public StringBuilder formatTo(long number, StringBuilder builder) {
+    try {
+      formatTo(number, (Appendable) builder);
+    } catch (IOException ex) {
+      // A StringBuilder does not throw
+      throw new UncheckedIOException(ex);
+    }
+    return builder;
+  }
+
+  /**
+   * Append a whole number as English words, in the same form as {@link #format(long)}.
+   *
+   * @param number The number, from zero to {@link #MAX_VALUE} with no fractional part
+   * @param builder The builder to append to
+   * @return The builder
+   * @throws IllegalArgumentException If the number is out of range or not whole
+   */
+  public StringBuilder formatTo(BigDecimal number, StringBuilder builder) {
+    return formatTo(toLong(number), builder);
+  }
+
+  /**
+   * Append a number as English words, in the same form as {@link #format(long)}.
+   *
+   * <p>Nothing is allocated beyond what the appendable itself allocates.
+   *
+   * @param number The number, from zero to {@link #MAX_VALUE}
+   * @param appendable The destination to append to
+   * @return The appendable
+   * @throws IOException if the appendable cannot be written
+   * @throws IllegalArgumentException If the number is out of range
+   */
+  public Appendable formatTo(long number, Appendable appendable) throws IOException {
+    if (number < 0 || number > MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Number " + number + " is outside the range 0 to " + MAX_VALUE);
+    }
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    int length = appendWords(number, appendable);
+    ParserInstrumentation.succeeded(
+        listener, ParserListener.Operation.NUMBER_FORMAT, length, started);
+    return appendable;
+  }
+
+  // Returns the number of characters appended
+  private int appendWords(long number, Appendable appendable) throws IOException {
+    if (number == 0) {
+      appendable.append(ZERO);
+      return ZERO.length();
+    }
+    String[] groups = conjunction ? GROUPS_WITH_AND : GROUPS;
+    int length = 0;
+    long remainder = number;
+    for (int i = 0; i < SCALES.length; ++i) {
+      int group = (int) (remainder / SCALES[i].getValue());
+      if (group > 0) {
+        length += appendSeparator(appendable, length);
+        appendable.append(groups[group]).append(' ').append(SCALE_NAMES[i]);
+        length += groups[group].length() + 1 + SCALE_NAMES[i].length();
+        remainder -= group * SCALES[i].getValue();
+      }
+    }
+    if (remainder > 0) {
+      length += appendSeparator(appendable, length);
+      // As in "one thousand and five"
+      if (conjunction && remainder < 100 && length > 0) {
+        appendable.append(AND).append(' ');
+        length += AND.length() + 1;
+      }
+      appendable.append(groups[(int) remainder]);
+      length += groups[(int) remainder].length();
+    }
+    return length;
+  }
+
+  private static int appendSeparator(Appendable appendable, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    appendable.append(' ');
+    return 1;
+  }
+
+  private static long toLong(BigDecimal number) {
+    try {
+      return number.longValueExact();
+    } catch (ArithmeticException ex) {
+      throw new IllegalArgumentException(
+          "Number " + number.toPlainString() + " is not a whole number in range", ex);
+    }
+  }
+
+  private static String name(NumberLiteral literal) {
+    return literal.name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -1,12 +1,24 @@
 package com.trickl.language;
 
 import java.math.BigDecimal;
+import java.nio.CharBuffer;
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.jparsec.Parser;
@@ -14,16 +26,20 @@ import org.jparsec.Parsers;
 import org.jparsec.Scanners;
 import org.jparsec.Terminals;
 import org.jparsec.Token;
+import org.jparsec.error.ParserException;
 
 /**
  * A simple number parser with a similar set of rules to
  * https://blog.cordiner.net/2010/01/02/parsing-english-numbers-with-perl/
+ *
+ * <p>Instances are immutable, so a single instance may be shared by any number of threads without
+ * locking. Each {@link MutableResult} should only be used by one thread at a time.
  */
 public class EnglishNumberParser {
 
   @AllArgsConstructor
   @Getter
-  private enum NumberLiteral {
+  enum NumberLiteral {
     ZERO(0),
     ONE(1),
     TWO(2),
@@ -63,6 +79,20 @@ public class EnglishNumberParser {
 
   private static final BigDecimal BIG_DECIMAL_THOUSAND = new BigDecimal(1000);
 
+  private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+  private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+  private static final int PARALLEL_BATCH_THRESHOLD = 4096;
+
+  private static final ParserListener.Operation OPERATION = ParserListener.Operation.NUMBER_PARSE;
+
+  // Reported for text the scanner rejects outright, without consulting the grammar
+  private static final String REJECTED_BY_SCANNER = "rejected by scanner";
+
+  // Reported for text the grammar accepts that does not hold an integer in the range of a long
+  private static final String OUT_OF_RANGE = "out of range";
+
   private static final Terminals OPERATORS = Terminals.operators(Collections.EMPTY_LIST);
 
   static final Set<String> NUMBER_LITERALS =
@@ -174,9 +204,76 @@ public class EnglishNumberParser {
                       .map(val -> val.get())
                       .reduce(a, (total, val) -> total.multiply(BIG_DECIMAL_THOUSAND).add(val)));
 
-  static final Function<Terminals, Parser<BigDecimal>> ALL_NUMBERS =
+  private static final Function<Terminals, Parser<BigDecimal>> ALL_NUMBERS =
       keywords -> Parsers.longest(ALL_POS_NUMBERS.apply(keywords), ZERO.apply(keywords));
 
+  private static final Map<Terminals, Parser<BigDecimal>> GRAMMARS = new ConcurrentHashMap<>();
+
+  static final Parser<BigDecimal> NUMBER = grammar(KEYWORDS).from(TOKENIZER, IGNORED);
+
+  // The most edits corrected in a misspelt word, zero when misspelt words are not corrected
+  private final int typoTolerance;
+
+  /** Create a parser that only accepts correctly spelt number words. */
+  public EnglishNumberParser() {
+    this(0);
+  }
+
+  private EnglishNumberParser(int typoTolerance) {
+    this.typoTolerance = typoTolerance;
+  }
+
+  /**
+   * Get a parser that corrects misspelt number words, such as "fourty" or "thousnd", before
+   * parsing.
+   *
+   * <p>Corrections are made by a {@link TypoCorrector}, and are listed by {@link
+   * MutableResult#getCorrections()} after each non-throwing parse. Error offsets still refer to
+   * the original text.
+   *
+   * @param maxEdits The most edits to correct in a word, zero to accept only correct spelling
+   * @return The parser
+   * @throws IllegalArgumentException if the tolerance is more than {@link TypoCorrector#MAX_EDITS}
+   */
+  public EnglishNumberParser withTypoTolerance(int maxEdits) {
+    if (maxEdits != 0) {
+      // Fails fast on a bad tolerance, and builds the automaton before the first parse
+      TypoCorrector.forMaxEdits(maxEdits);
+    }
+    return new EnglishNumberParser(maxEdits);
+  }
+
+  /**
+   * Get the most edits corrected in a misspelt word.
+   *
+   * @return The tolerance, zero if misspelt words are not corrected
+   */
+  public int getTypoTolerance() {
+    return typoTolerance;
+  }
+
+  /**
+   * Get the compiled number grammar for a keyword set.
+   *
+   * <p>The grammar is built once per {@link Terminals} instance and shared thereafter, so callers
+   * should pass the static keyword sets rather than building new ones per call.
+   *
+   * @param keywords The terminals that include the number literals
+   * @return An immutable, thread-safe parser of numbers
+   */
+  static Parser<BigDecimal> grammar(Terminals keywords) {
+    return GRAMMARS.computeIfAbsent(keywords, ALL_NUMBERS);
+  }
+
+  /**
+   * Get the number of grammars built so far, one per keyword set.
+   *
+   * @return The grammar count
+   */
+  static int getGrammarCount() {
+    return GRAMMARS.size();
+  }
+
   private static Long parseNumberLiteral(Token token) {
     String value = token.toString().toUpperCase();
     return Enum.valueOf(NumberLiteral.class, value).getValue();
@@ -203,7 +300,513 @@ public class EnglishNumberParser {
         DELIMITED_NUMERIC.apply(keywords));
   }
 
+  /**
+   * The outcome of a non-throwing parse. Instances are mutable so that a single result can be
+   * reused across many calls, but they are not safe to share between threads.
+   */
+  public static final class MutableResult {
+
+    /** The state of a parse result. */
+    public enum Status {
+      UNPARSED,
+      LONG,
+      DECIMAL,
+      INVALID
+    }
+
+    @Getter private Status status = Status.UNPARSED;
+
+    @Getter private int errorIndex = -1;
+
+    private final List<TypoCorrection> corrections = new ArrayList<>();
+
+    private long longValue;
+
+    private BigDecimal decimalValue;
+
+    public boolean isValid() {
+      return status == Status.LONG || status == Status.DECIMAL;
+    }
+
+    /**
+     * Get the misspelt words corrected before parsing, by a parser that tolerates typos.
+     *
+     * @return The corrections in order, empty if none were made
+     */
+    public List<TypoCorrection> getCorrections() {
+      return Collections.unmodifiableList(corrections);
+    }
+
+    /**
+     * Get the parsed value as a long.
+     *
+     * @return The parsed value
+     * @throws IllegalStateException if the value was not parsed as a long
+     */
+    public long getLongValue() {
+      if (status != Status.LONG) {
+        throw new IllegalStateException("No long value, status is " + status);
+      }
+      return longValue;
+    }
+
+    /**
+     * Get the parsed value as a decimal.
+     *
+     * @return The parsed value
+     * @throws IllegalStateException if no value was parsed
+     */
+    public BigDecimal getValue() {
+      if (status == Status.LONG) {
+        return BigDecimal.valueOf(longValue);
+      } else if (status != Status.DECIMAL) {
+        throw new IllegalStateException("No value, status is " + status);
+      }
+      return decimalValue;
+    }
+
+    void setLongValue(long value) {
+      status = Status.LONG;
+      longValue = value;
+      decimalValue = null;
+      errorIndex = -1;
+    }
+
+    void setValue(BigDecimal value) {
+      // Classified up front, as longValueExact would throw for every decimal on the hot path
+      if (isLong(value)) {
+        setLongValue(value.longValueExact());
+      } else {
+        status = Status.DECIMAL;
+        decimalValue = value;
+        errorIndex = -1;
+      }
+    }
+
+    private static boolean isLong(BigDecimal value) {
+      if (value.signum() == 0) {
+        return true;
+      }
+      if (value.scale() > 0 && value.stripTrailingZeros().scale() > 0) {
+        return false;
+      }
+      return value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0;
+    }
+
+    void setInvalid(int index) {
+      status = Status.INVALID;
+      decimalValue = null;
+      errorIndex = index;
+    }
+  }
+
+  /**
+   * Convert an English string into a number.
+   *
+   * <p>Simple integers are handled by a single pass scanner, anything else falls back to the full
+   * grammar.
+   *
+   * @param number The string to parse
+   * @return The number
+   * @throws ParserException if unable to parse the string
+   */
   public BigDecimal parse(String number) {
-    return ALL_NUMBERS.apply(KEYWORDS).from(TOKENIZER, IGNORED).parse(number);
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    CharSequence text = corrected(number);
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    BigDecimal value =
+        scanner.scan(text, 0, text.length()) == NumberScanner.ACCEPTED
+            ? BigDecimal.valueOf(scanner.getValue())
+            : parseGrammar(text, number.length(), listener, started);
+    ParserInstrumentation.succeeded(listener, OPERATION, number.length(), started);
+    return value;
+  }
+
+  /**
+   * Convert a region of text into a number, without copying the region.
+   *
+   * @param text The text containing the number
+   * @param start The start index of the number, inclusive
+   * @param end The end index of the number, exclusive
+   * @return The number
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  public BigDecimal parse(CharSequence text, int start, int end) throws ParseException {
+    MutableResult result = new MutableResult();
+    if (!tryParse(text, start, end, result)) {
+      throw new ParseException(
+          "Unable to parse number '" + text.subSequence(start, end) + "'",
+          result.getErrorIndex());
+    }
+    return result.getValue();
+  }
+
+  /**
+   * Convert an English string into a long.
+   *
+   * @param number The text to parse
+   * @return The number
+   * @throws ParserException if unable to parse the text
+   * @throws ArithmeticException if the number is not an integer in the range of a long
+   */
+  public long parseLong(CharSequence number) {
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    CharSequence text = corrected(number);
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    long value;
+    if (scanner.scan(text, 0, text.length()) == NumberScanner.ACCEPTED) {
+      value = scanner.getValue();
+    } else {
+      try {
+        value = parseGrammar(text, number.length(), listener, started).longValueExact();
+      } catch (ArithmeticException ex) {
+        ParserInstrumentation.failed(listener, OPERATION, number.length(), started, OUT_OF_RANGE);
+        throw ex;
+      }
+    }
+    ParserInstrumentation.succeeded(listener, OPERATION, number.length(), started);
+    return value;
+  }
+
+  /**
+   * Convert a region of text into a long, without copying the region.
+   *
+   * @param text The text containing the number
+   * @param start The start index of the number, inclusive
+   * @param end The end index of the number, exclusive
+   * @return The number
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   * @throws ArithmeticException if the number is not an integer in the range of a long
+   */
+  public long parseLong(CharSequence text, int start, int end) throws ParseException {
+    return parse(text, start, end).longValueExact();
+  }
+
+  /**
+   * Convert an English string into a number without throwing on invalid input.
+   *
+   * <p>Most invalid input is rejected by the scanner before reaching the grammar, so no exception
+   * is created along the way.
+   *
+   * @param number The text to parse
+   * @param result The result to populate, the status and error index describe any failure
+   * @return True if the text was parsed
+   */
+  public boolean tryParse(CharSequence number, MutableResult result) {
+    return parseInto(number, 0, number.length(), result, new NumberScanner(NumberLexicon.ENGLISH));
+  }
+
+  /**
+   * Convert a region of text into a number without throwing on invalid input.
+   *
+   * @param text The text containing the number
+   * @param start The start index of the number, inclusive
+   * @param end The end index of the number, exclusive
+   * @param result The result to populate, the error index is relative to the text
+   * @return True if the region was parsed
+   */
+  public boolean tryParse(CharSequence text, int start, int end, MutableResult result) {
+    checkRegion(text, start, end);
+    return parseInto(text, start, end, result, new NumberScanner(NumberLexicon.ENGLISH));
+  }
+
+  /**
+   * Convert a batch of English strings into longs.
+   *
+   * <p>Scratch state is shared across the whole batch. Text that cannot be parsed, or that does not
+   * hold an integer in the range of a long, is marked in the failure bitmap. The bits of text that
+   * is parsed are cleared, so a bitmap can be reused between batches.
+   *
+   * @param numbers The text to parse
+   * @param values The output values, at least as long as the input
+   * @param failures The output failure bitmap, indexed as the input
+   */
+  public void parseAll(List<? extends CharSequence> numbers, long[] values, BitSet failures) {
+    checkCapacity(numbers.size(), values.length);
+    parseRange(numbers, 0, numbers.size(), values, null, failures, 0);
+  }
+
+  /**
+   * Convert a batch of English strings into numbers.
+   *
+   * <p>Scratch state is shared across the whole batch. Text that cannot be parsed is marked in the
+   * failure bitmap and has a null value. The bits of text that is parsed are cleared, so a bitmap
+   * can be reused between batches.
+   *
+   * @param numbers The text to parse
+   * @param values The output values, at least as long as the input
+   * @param failures The output failure bitmap, indexed as the input
+   */
+  public void parseAll(List<? extends CharSequence> numbers, BigDecimal[] values, BitSet failures) {
+    checkCapacity(numbers.size(), values.length);
+    parseRange(numbers, 0, numbers.size(), null, values, failures, 0);
+  }
+
+  public void parseAll(CharSequence[] numbers, long[] values, BitSet failures) {
+    parseAll(Arrays.asList(numbers), values, failures);
+  }
+
+  public void parseAll(CharSequence[] numbers, BigDecimal[] values, BitSet failures) {
+    parseAll(Arrays.asList(numbers), values, failures);
+  }
+
+  /**
+   * Convert a stream of English strings into longs, in encounter order.
+   *
+   * @param numbers The text to parse
+   * @param values The output values, at least as long as the stream
+   * @param failures The output failure bitmap, indexed in encounter order
+   * @return The number of strings read from the stream
+   */
+  public int parseAll(Stream<? extends CharSequence> numbers, long[] values, BitSet failures) {
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    MutableResult result = new MutableResult();
+    int[] index = new int[1];
+    numbers.sequential().forEachOrdered(number -> {
+      checkCapacity(index[0] + 1, values.length);
+      failures.set(index[0], !writeResult(number, index[0], scanner, result, values, null));
+      ++index[0];
+    });
+    return index[0];
+  }
+
+  /**
+   * Convert a stream of English strings into numbers, in encounter order.
+   *
+   * @param numbers The text to parse
+   * @param values The output values, at least as long as the stream
+   * @param failures The output failure bitmap, indexed in encounter order
+   * @return The number of strings read from the stream
+   */
+  public int parseAll(
+      Stream<? extends CharSequence> numbers, BigDecimal[] values, BitSet failures) {
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    MutableResult result = new MutableResult();
+    int[] index = new int[1];
+    numbers.sequential().forEachOrdered(number -> {
+      checkCapacity(index[0] + 1, values.length);
+      failures.set(index[0], !writeResult(number, index[0], scanner, result, null, values));
+      ++index[0];
+    });
+    return index[0];
+  }
+
+  /**
+   * Convert a batch of English strings into longs, splitting the batch across a pool.
+   *
+   * @param numbers The text to parse, copied first if it does not support fast random access
+   * @param values The output values, at least as long as the input
+   * @param failures The output failure bitmap, indexed as the input
+   * @param pool The pool to parse on
+   */
+  public void parseAll(
+      List<? extends CharSequence> numbers, long[] values, BitSet failures, ForkJoinPool pool) {
+    checkCapacity(numbers.size(), values.length);
+    pool.invoke(new BatchTask(randomAccess(numbers), 0, numbers.size(), values, null, failures));
+  }
+
+  /**
+   * Convert a batch of English strings into numbers, splitting the batch across a pool.
+   *
+   * @param numbers The text to parse, copied first if it does not support fast random access
+   * @param values The output values, at least as long as the input
+   * @param failures The output failure bitmap, indexed as the input
+   * @param pool The pool to parse on
+   */
+  public void parseAll(
+      List<? extends CharSequence> numbers,
+      BigDecimal[] values,
+      BitSet failures,
+      ForkJoinPool pool) {
+    checkCapacity(numbers.size(), values.length);
+    pool.invoke(new BatchTask(randomAccess(numbers), 0, numbers.size(), null, values, failures));
+  }
+
+  // Subtasks index into the list, so a linked list would make each lookup linear
+  private static List<? extends CharSequence> randomAccess(List<? extends CharSequence> numbers) {
+    return numbers instanceof RandomAccess ? numbers : new ArrayList<>(numbers);
+  }
+
+  private final class BatchTask extends RecursiveAction {
+
+    // Tasks are only ever run in process, never serialized
+    private static final long serialVersionUID = 1L;
+
+    private final List<? extends CharSequence> numbers;
+    private final int from;
+    private final int to;
+    private final long[] longValues;
+    private final BigDecimal[] decimalValues;
+    private final BitSet failures;
+
+    BatchTask(
+        List<? extends CharSequence> numbers,
+        int from,
+        int to,
+        long[] longValues,
+        BigDecimal[] decimalValues,
+        BitSet failures) {
+      this.numbers = numbers;
+      this.from = from;
+      this.to = to;
+      this.longValues = longValues;
+      this.decimalValues = decimalValues;
+      this.failures = failures;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= PARALLEL_BATCH_THRESHOLD) {
+        // BitSet is not thread-safe, so collect failures locally, offset to the range, then merge
+        BitSet localFailures = new BitSet(to - from);
+        parseRange(numbers, from, to, longValues, decimalValues, localFailures, from);
+        synchronized (failures) {
+          failures.clear(from, to);
+          for (int i = localFailures.nextSetBit(0); i >= 0; i = localFailures.nextSetBit(i + 1)) {
+            failures.set(from + i);
+          }
+        }
+      } else {
+        int mid = (from + to) >>> 1;
+        invokeAll(
+            new BatchTask(numbers, from, mid, longValues, decimalValues, failures),
+            new BatchTask(numbers, mid, to, longValues, decimalValues, failures));
+      }
+    }
+  }
+
+  private void parseRange(
+      List<? extends CharSequence> numbers,
+      int from,
+      int to,
+      long[] longValues,
+      BigDecimal[] decimalValues,
+      BitSet failures,
+      int failureOffset) {
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    MutableResult result = new MutableResult();
+    Iterator<? extends CharSequence> iterator = numbers.listIterator(from);
+    for (int i = from; i < to; ++i) {
+      boolean parsed =
+          writeResult(iterator.next(), i, scanner, result, longValues, decimalValues);
+      failures.set(i - failureOffset, !parsed);
+    }
+  }
+
+  // Returns false if the text could not be parsed, its value is then zero or null
+  private boolean writeResult(
+      CharSequence number,
+      int index,
+      NumberScanner scanner,
+      MutableResult result,
+      long[] longValues,
+      BigDecimal[] decimalValues) {
+    boolean valid = parseInto(number, 0, number.length(), result, scanner);
+    if (longValues != null) {
+      if (valid && result.getStatus() == MutableResult.Status.LONG) {
+        longValues[index] = result.getLongValue();
+        return true;
+      }
+      longValues[index] = 0;
+      return false;
+    }
+    decimalValues[index] = valid ? result.getValue() : null;
+    return valid;
+  }
+
+  // The length is that of the text as given, before any correction
+  private static BigDecimal parseGrammar(
+      CharSequence number, int length, ParserListener listener, long started) {
+    try {
+      return NUMBER.parse(number);
+    } catch (ParserException ex) {
+      ParserInstrumentation.failed(
+          listener, OPERATION, length, started, ParserInstrumentation.errorKind(ex));
+      throw ex;
+    }
+  }
+
+  private CharSequence corrected(CharSequence number) {
+    if (typoTolerance == 0) {
+      return number;
+    }
+    String corrected =
+        TypoCorrector.forMaxEdits(typoTolerance)
+            .correctRegion(number, 0, number.length(), new ArrayList<>());
+    return corrected != null ? corrected : number;
+  }
+
+  private boolean parseInto(
+      CharSequence text,
+      int start,
+      int end,
+      MutableResult result,
+      NumberScanner scanner) {
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    result.corrections.clear();
+    String corrected =
+        typoTolerance == 0
+            ? null
+            : TypoCorrector.forMaxEdits(typoTolerance)
+                .correctRegion(text, start, end, result.corrections);
+    String errorKind = null;
+    int status =
+        corrected == null
+            ? scanner.scan(text, start, end)
+            : scanner.scan(corrected, 0, corrected.length());
+    if (status == NumberScanner.ACCEPTED) {
+      result.setLongValue(scanner.getValue());
+    } else if (status == NumberScanner.REJECTED) {
+      result.setInvalid(
+          corrected == null
+              ? scanner.getErrorIndex()
+              : TypoCorrector.originalIndex(result.corrections, start, scanner.getErrorIndex()));
+      errorKind = REJECTED_BY_SCANNER;
+    } else {
+      try {
+        result.setValue(NUMBER.parse(corrected == null ? region(text, start, end) : corrected));
+      } catch (ParserException ex) {
+        result.setInvalid(
+            corrected == null
+                ? start + errorIndex(ex)
+                : TypoCorrector.originalIndex(result.corrections, start, errorIndex(ex)));
+        errorKind = ParserInstrumentation.errorKind(ex);
+      }
+    }
+    if (errorKind == null) {
+      ParserInstrumentation.succeeded(listener, OPERATION, end - start, started);
+    } else {
+      ParserInstrumentation.failed(listener, OPERATION, end - start, started, errorKind);
+    }
+    return result.isValid();
+  }
+
+  private static void checkCapacity(int required, int capacity) {
+    if (capacity < required) {
+      throw new IllegalArgumentException(
+          "Output holds " + capacity + " values, but " + required + " are required");
+    }
+  }
+
+  static CharSequence region(CharSequence text, int start, int end) {
+    if (start == 0 && end == text.length()) {
+      return text;
+    }
+    // A read-only view over the region, the characters are not copied
+    return CharBuffer.wrap(text, start, end);
+  }
+
+  static void checkRegion(CharSequence text, int start, int end) {
+    if (start < 0 || end > text.length() || start > end) {
+      throw new IndexOutOfBoundsException(
+          "Region [" + start + ", " + end + ") is outside text of length " + text.length());
+    }
+  }
+
+  static int errorIndex(ParserException ex) {
+    return ex.getErrorDetails() != null ? ex.getErrorDetails().getIndex() : 0;
   }
 }
@@ -0,0 +1,479 @@
+package com.trickl.language;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Value;
+
+/**
+ * Finds every English number, currency amount and duration in running text, in a single pass.
+ *
+ * <p>Text is split into words, numerals and currency symbols. Consecutive tokens that could belong
+ * to a quantity, separated only by whitespace, commas or "and", form a run. Each run is then
+ * matched left to right, taking the longest prefix accepted by {@link EnglishCurrencyAmountFormat},
+ * {@link EnglishDurationFormat} or {@link EnglishNumberParser}, in that order of preference for
+ * prefixes of equal length. A comma or "and" only continues a quantity after a number word, as in
+ * "forty five thousand, fifty five", and numerals never run together, so lists and ranges such as
+ * "1, 2 and 3" or "between 5 and 10 days" are separate quantities.
+ *
+ * <p>Each position of a run tries prefixes of at most 32 tokens, longest first, so the work per
+ * token is bounded and the cost is linear in the length of the text. A prefix is only handed to
+ * the currency format with a currency at one end and an amount at the other, and to the duration
+ * format when it is made of units and whole numbers, so most prefixes are rejected by their token
+ * kinds before any parser runs. Numbers are tried with the non-throwing {@link
+ * EnglishNumberParser#tryParse}.
+ *
+ * <p>An amount must name or symbolise its currency, and a duration must give at least one numeric
+ * amount, otherwise the text is reported as a plain number or not at all. "two hundred and five"
+ * in "two hundred and five dollars" is a number, as "dollars" is not a currency name the format
+ * recognises.
+ *
+ * <p>Readers and channels are consumed incrementally through a bounded window, so arbitrarily long
+ * input may be scanned. Instances are immutable and safe to share between threads.
+ */
+public final class EnglishQuantityExtractor {
+
+  /** The kind of quantity found. */
+  public enum Type {
+    /**
+     * A {@link BigDecimal}.
+     */
+    NUMBER,
+    /**
+     * A {@link CurrencyAmount}.
+     */
+    CURRENCY_AMOUNT,
+    /**
+     * A {@link Duration}.
+     */
+    DURATION
+  }
+
+  /** A quantity found in the text. */
+  @Value
+  public static class Span {
+    /** Offset of the first character of the quantity. */
+    long start;
+
+    /** Offset one past the last character of the quantity. */
+    long end;
+
+    Type type;
+
+    /** The parsed quantity, of the class documented by its type. */
+    Object value;
+  }
+
+  // Chunk read from a reader at a time
+  private static final int CHUNK_SIZE = 8192;
+
+  // Longest run matched as a whole, longer runs are split
+  private static final int MAX_RUN_TOKENS = 64;
+
+  // Longest quantity read, in tokens including connectors
+  private static final int MAX_QUANTITY_TOKENS = 32;
+
+  // Longest token, longer tokens are cut rather than buffered
+  private static final int MAX_TOKEN_LENGTH = 256;
+
+  // Characters that must follow a token before it is known to be complete
+  private static final int LOOKAHEAD = 8;
+
+  private static final int NUMERAL = 1;
+
+  private static final int DIGITS = 1 << 1;
+
+  private static final int NUMBER_WORD = 1 << 2;
+
+  private static final int CURRENCY = 1 << 3;
+
+  private static final int UNIT = 1 << 4;
+
+  private static final int CONNECTOR = 1 << 5;
+
+  private static final int NUMBER_TOKENS = NUMERAL | NUMBER_WORD | CONNECTOR;
+
+  private static final int CURRENCY_TOKENS = NUMBER_TOKENS | CURRENCY;
+
+  // Number, currency name and connector words, matched case insensitively without copying
+  private static final WordAutomaton WORDS;
+
+  // The kinds of each word, indexed by its number in the automaton
+  private static final int[] WORD_KINDS;
+
+  // Symbols that do not start with a letter or digit, those that do are read as words
+  private static final SymbolTrie SYMBOLS =
+      SymbolTrie.of(
+          EnglishCurrencyAmountFormat.currencySymbols()
+              .stream()
+              .filter(symbol -> !symbol.isEmpty() && !Character.isLetterOrDigit(symbol.charAt(0)))
+              .collect(Collectors.toList()));
+
+  // Symbols that start with a letter and currency codes, matched case sensitively as whole words
+  private static final SymbolTrie LETTER_SYMBOLS =
+      SymbolTrie.of(
+          Stream.concat(
+                  EnglishCurrencyAmountFormat.currencySymbols()
+                      .stream()
+                      .filter(symbol -> !symbol.isEmpty() && Character.isLetter(symbol.charAt(0))),
+                  EnglishCurrencyAmountFormat.currencyCodes().stream())
+              .collect(Collectors.toList()));
+
+  static {
+    Map<String, Integer> wordKinds = new HashMap<>();
+    EnglishNumberParser.NUMBER_LITERALS.forEach(
+        word -> wordKinds.merge(word, NUMBER_WORD, (a, b) -> a | b));
+    EnglishCurrencyAmountFormat.currencyNameWords()
+        .forEach(word -> wordKinds.merge(word, CURRENCY, (a, b) -> a | b));
+    wordKinds.put("AND", CONNECTOR);
+    WORDS = WordAutomaton.of(wordKinds.keySet());
+    WORD_KINDS = new int[WORDS.getWordCount()];
+    for (int word = 0; word < WORD_KINDS.length; ++word) {
+      WORD_KINDS[word] = wordKinds.get(WORDS.getWord(word));
+    }
+  }
+
+  private final EnglishNumberParser numberParser;
+
+  private final EnglishCurrencyAmountFormat currencyAmountFormat;
+
+  private final EnglishDurationFormat durationFormat;
+
+  /** Create an extractor using the default parsers. */
+  public EnglishQuantityExtractor() {
+    this(new EnglishNumberParser(), new EnglishCurrencyAmountFormat(), new EnglishDurationFormat());
+  }
+
+  /**
+   * Create an extractor using the given parsers.
+   *
+   * @param numberParser Parses numbers
+   * @param currencyAmountFormat Parses currency amounts
+   * @param durationFormat Parses durations
+   */
+  public EnglishQuantityExtractor(
+      EnglishNumberParser numberParser,
+      EnglishCurrencyAmountFormat currencyAmountFormat,
+      EnglishDurationFormat durationFormat) {
+    this.numberParser = numberParser;
+    this.currencyAmountFormat = currencyAmountFormat;
+    this.durationFormat = durationFormat;
+  }
+
+  /**
+   * Find every quantity in a text.
+   *
+   * @param text The text to scan
+   * @return The quantities, in order of their position in the text
+   */
+  public List<Span> extract(CharSequence text) {
+    List<Span> spans = new ArrayList<>();
+    extract(text, spans::add);
+    return spans;
+  }
+
+  /**
+   * Find every quantity in a text.
+   *
+   * @param text The text to scan
+   * @param sink Receives the quantities, in order of their position in the text
+   */
+  public void extract(CharSequence text, Consumer<? super Span> sink) {
+    scan(text, 0, true, sink, new Run());
+  }
+
+  /**
+   * Find every quantity read from a reader, holding only a bounded window of the text in memory.
+   * Offsets are counted in characters from the current position of the reader, which is read to
+   * the end but not closed.
+   *
+   * @param reader The text to scan
+   * @param sink Receives the quantities, in order of their position in the text
+   * @throws IOException if unable to read the text
+   */
+  public void extract(Reader reader, Consumer<? super Span> sink) throws IOException {
+    StringBuilder window = new StringBuilder(CHUNK_SIZE * 2);
+    char[] chunk = new char[CHUNK_SIZE];
+    Run run = new Run();
+    long offset = 0;
+    boolean endOfInput = false;
+    while (!endOfInput) {
+      int read = reader.read(chunk);
+      if (read < 0) {
+        endOfInput = true;
+      } else {
+        window.append(chunk, 0, read);
+      }
+      int consumed = scan(window, offset, endOfInput, sink, run);
+      window.delete(0, consumed);
+      offset += consumed;
+    }
+  }
+
+  /**
+   * Find every quantity read from a channel, holding only a bounded window of the text in memory.
+   * Offsets are counted in characters from the current position of the channel, which is read to
+   * the end but not closed.
+   *
+   * @param channel The encoded text to scan
+   * @param charset The encoding of the text
+   * @param sink Receives the quantities, in order of their position in the text
+   * @throws IOException if unable to read the text
+   */
+  public void extract(ReadableByteChannel channel, Charset charset, Consumer<? super Span> sink)
+      throws IOException {
+    extract(Channels.newReader(channel, charset.newDecoder(), CHUNK_SIZE), sink);
+  }
+
+  // Scans the window, returning the length of the prefix that no longer needs to be held
+  private int scan(
+      CharSequence text,
+      long offset,
+      boolean endOfInput,
+      Consumer<? super Span> sink,
+      Run run) {
+    int end = text.length();
+    int position = 0;
+    run.clear();
+    while (position < end) {
+      char c = text.charAt(position);
+      if (Character.isWhitespace(c) || c == '\u00a0') {
+        position++;
+        continue;
+      }
+
+      int tokenEnd = tokenEnd(text, position, end);
+      if (!endOfInput && end - tokenEnd < LOOKAHEAD && tokenEnd - position < MAX_TOKEN_LENGTH) {
+        // The token may continue in the next chunk
+        break;
+      }
+
+      int kind = kind(text, position, tokenEnd);
+      if (kind == 0) {
+        match(text, offset, sink, run);
+        run.clear();
+      } else {
+        if (run.size == MAX_RUN_TOKENS) {
+          match(text, offset, sink, run);
+          run.clear();
+        }
+        run.add(position, tokenEnd, kind);
+      }
+      position = tokenEnd;
+    }
+
+    if (endOfInput) {
+      match(text, offset, sink, run);
+      return end;
+    }
+    // Hold on to an unfinished run, unless it is already as long as it may get
+    if (run.size > 0 && position - run.starts[0] < CHUNK_SIZE) {
+      return run.starts[0];
+    }
+    match(text, offset, sink, run);
+    return position;
+  }
+
+  private static int tokenEnd(CharSequence text, int start, int end) {
+    char c = text.charAt(start);
+    int position = start + 1;
+    if (Character.isLetter(c)) {
+      while (position < end && Character.isLetter(text.charAt(position))) {
+        position++;
+      }
+    } else if (isDigit(c)) {
+      while (position < end) {
+        char next = text.charAt(position);
+        if (isDigit(next)) {
+          position++;
+        } else if (isSeparator(next) && position + 1 < end && isDigit(text.charAt(position + 1))) {
+          position += 2;
+        } else {
+          break;
+        }
+      }
+    } else {
+      int length = SYMBOLS.match(text, start, end);
+      if (length > 0) {
+        return start + length;
+      }
+    }
+    return Math.min(position, start + MAX_TOKEN_LENGTH);
+  }
+
+  private static int kind(CharSequence text, int start, int end) {
+    char c = text.charAt(start);
+    if (Character.isLetter(c)) {
+      int word = WORDS.match(text, start, end);
+      int kinds = word < 0 ? 0 : WORD_KINDS[word];
+      if (LETTER_SYMBOLS.match(text, start, end) == end - start) {
+        kinds |= CURRENCY;
+      }
+      if (EnglishDurationFormat.unitNamed(text, start, end) != null) {
+        kinds |= UNIT;
+      }
+      return kinds;
+    } else if (isDigit(c)) {
+      for (int i = start; i < end; ++i) {
+        if (!isDigit(text.charAt(i))) {
+          return NUMERAL;
+        }
+      }
+      return NUMERAL | DIGITS;
+    } else if (c == ',' || c == '،') {
+      return CONNECTOR;
+    } else if (SYMBOLS.match(text, start, end) == end - start) {
+      return CURRENCY;
+    }
+    return 0;
+  }
+
+  // Emits the quantities in a run, longest match first from each position
+  private void match(CharSequence text, long offset, Consumer<? super Span> sink, Run run) {
+    int first = 0;
+    while (first < run.size) {
+      int last = matchFrom(text, offset, sink, run, first);
+      first = last < 0 ? first + 1 : last + 1;
+    }
+  }
+
+  private int matchFrom(
+      CharSequence text, long offset, Consumer<? super Span> sink, Run run, int first) {
+    if (run.kinds[first] == CONNECTOR) {
+      return -1;
+    }
+    int limit = Math.min(run.size, first + MAX_QUANTITY_TOKENS);
+    int numberEnd = extent(run, first, limit, NUMBER_TOKENS);
+    int currencyEnd = extent(run, first, limit, CURRENCY_TOKENS);
+    int durationEnd = durationExtent(run, first, limit);
+    int start = run.starts[first];
+    EnglishNumberParser.MutableResult number = null;
+    for (int last = Math.max(currencyEnd, durationEnd) - 1; last >= first; --last) {
+      if (run.kinds[last] == CONNECTOR) {
+        continue;
+      }
+      int end = run.ends[last];
+      if (last < currencyEnd && isCurrencyAmount(run, first, last)) {
+        CurrencyAmount amount = new CurrencyAmount();
+        try {
+          currencyAmountFormat.parseInto(text, start, end, amount);
+          sink.accept(new Span(offset + start, offset + end, Type.CURRENCY_AMOUNT, amount));
+          return last;
+        } catch (ParseException ex) {
+          // Try a shorter match
+        }
+      }
+      if (last < durationEnd && (run.kinds[last] & UNIT) != 0) {
+        try {
+          Duration duration = durationFormat.parse(text, start, end);
+          sink.accept(new Span(offset + start, offset + end, Type.DURATION, duration));
+          return last;
+        } catch (ParseException | DateTimeException | ArithmeticException ex) {
+          // Try a shorter match
+        }
+      }
+      if (last < numberEnd) {
+        if (number == null) {
+          number = new EnglishNumberParser.MutableResult();
+        }
+        if (numberParser.tryParse(text, start, end, number)) {
+          sink.accept(new Span(offset + start, offset + end, Type.NUMBER, number.getValue()));
+          return last;
+        }
+      }
+    }
+    return -1;
+  }
+
+  // One past the last token, before limit, of the longest sequence from first made only of the
+  // given kinds, in which a connector only follows a number word and a numeral never follows
+  // another numeral
+  private static int extent(Run run, int first, int limit, int kinds) {
+    int last = first;
+    while (last < limit && (run.kinds[last] & kinds) != 0) {
+      if (last > first && !continues(run.kinds[last - 1], run.kinds[last])) {
+        break;
+      }
+      last++;
+    }
+    return last;
+  }
+
+  private static boolean continues(int previousKind, int kind) {
+    if (kind == CONNECTOR) {
+      return (previousKind & NUMBER_WORD) != 0;
+    }
+    return (kind & NUMERAL) == 0 || (previousKind & NUMERAL) == 0;
+  }
+
+  // One past the last token, before limit, of the longest sequence from first of units, each
+  // optionally preceded by a whole number, or first if there is no such sequence with a number
+  private static int durationExtent(Run run, int first, int limit) {
+    int last = first;
+    boolean hasAmount = false;
+    while (last < limit) {
+      if ((run.kinds[last] & DIGITS) != 0
+          && last + 1 < limit
+          && (run.kinds[last + 1] & UNIT) != 0) {
+        hasAmount = true;
+        last += 2;
+      } else if ((run.kinds[last] & UNIT) != 0) {
+        last++;
+      } else {
+        break;
+      }
+    }
+    return hasAmount ? last : first;
+  }
+
+  // Whether the tokens have the shape of an amount, a currency before or after a number
+  private static boolean isCurrencyAmount(Run run, int first, int last) {
+    int amount = NUMERAL | NUMBER_WORD;
+    return first < last
+        && (((run.kinds[first] & CURRENCY) != 0 && (run.kinds[last] & amount) != 0)
+            || ((run.kinds[first] & amount) != 0 && (run.kinds[last] & CURRENCY) != 0));
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == '.' || c == ',' || c == '،';
+  }
+
+  // The tokens of a run, as parallel arrays of window offsets and kinds
+  private static final class Run {
+    private final int[] starts = new int[MAX_RUN_TOKENS];
+
+    private final int[] ends = new int[MAX_RUN_TOKENS];
+
+    private final int[] kinds = new int[MAX_RUN_TOKENS];
+
+    private int size;
+
+    private void add(int start, int end, int kind) {
+      starts[size] = start;
+      ends[size] = end;
+      kinds[size] = kind;
+      size++;
+    }
+
+    private void clear() {
+      size = 0;
+    }
+  }
+}
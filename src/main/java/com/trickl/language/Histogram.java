@@ -0,0 +1,103 @@
+package com.trickl.language;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of non-negative values, recorded without locking or allocation.
+ *
+ * <p>As with HdrHistogram, each power of two is split into 32 linear buckets, so values are held to
+ * within about 3% across the whole range of a long in under two thousand counters. Values below 64
+ * are held exactly.
+ */
+public final class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  // Values below this are their own bucket
+  private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+
+  private static final int BUCKETS = bucket(Long.MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  private final LongAdder count = new LongAdder();
+
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Record a value, negative values are recorded as zero.
+   *
+   * @param value The value to record
+   */
+  public void record(long value) {
+    long recorded = Math.max(value, 0);
+    counts.incrementAndGet(bucket(recorded));
+    count.increment();
+    max.accumulate(recorded);
+  }
+
+  /**
+   * Get the number of values recorded.
+   *
+   * @return The count
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Get the largest value recorded.
+   *
+   * @return The exact maximum, or zero if nothing has been recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Get the value at or below which a given percentage of the recorded values fall.
+   *
+   * @param percentile The percentage, from 0 to 100
+   * @return The highest value equivalent to the bucket holding the percentile, or zero if nothing
+   *     has been recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    long total = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; ++i) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      seen += snapshot[i];
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), getMax());
+      }
+    }
+    return 0;
+  }
+
+  static int bucket(long value) {
+    if (value < LINEAR_LIMIT) {
+      return (int) value;
+    }
+    // Keep the top SUB_BUCKET_BITS + 1 bits, the leading one selects the upper half of the buckets
+    int shift = 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1);
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  static long highestEquivalentValue(int bucket) {
+    if (bucket < LINEAR_LIMIT) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,369 @@
+package com.trickl.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A deterministic automaton that accepts every string within a few edits of any word in a
+ * vocabulary, and names the closest word.
+ *
+ * <p>The automaton is built once by determinizing the Levenshtein automaton of a trie of the
+ * vocabulary, so matching a token costs one table lookup per character however large the
+ * vocabulary is. Edits are insertions, deletions and substitutions of a single character. Short
+ * words tolerate fewer edits, as one edit turns most three letter words into another word, and
+ * requiring the first few characters to match exactly keeps the number of states down. Matching
+ * is case insensitive, the vocabulary should be upper case.
+ */
+final class LevenshteinAutomaton {
+
+  /** The state reached once no word is within reach. */
+  static final int DEAD = 0;
+
+  // Words up to these lengths tolerate no edits and one edit respectively
+  private static final int EXACT_LENGTH = 2;
+
+  private static final int ONE_EDIT_LENGTH = 5;
+
+  private final String[] words;
+
+  // Maps each character to its class, characters outside the vocabulary share class zero
+  private final byte[] charClasses;
+
+  private final int classCount;
+
+  // The next state for each state and character class
+  private final int[] transitions;
+
+  private final int start;
+
+  // The closest word of each state, its distance and the number of words as close
+  private final int[] closestWords;
+
+  private final byte[] distances;
+
+  private final short[] alternatives;
+
+  private LevenshteinAutomaton(
+      String[] words,
+      byte[] charClasses,
+      int classCount,
+      int[] transitions,
+      int start,
+      int[] closestWords,
+      byte[] distances,
+      short[] alternatives) {
+    this.words = words;
+    this.charClasses = charClasses;
+    this.classCount = classCount;
+    this.transitions = transitions;
+    this.start = start;
+    this.closestWords = closestWords;
+    this.distances = distances;
+    this.alternatives = alternatives;
+  }
+
+  /**
+   * Build an automaton for a vocabulary.
+   *
+   * @param vocabulary The words to match, upper case
+   * @param maxEdits The most edits tolerated in the longest words
+   * @param exactPrefix The number of leading characters that must match exactly
+   * @return The automaton
+   */
+  static LevenshteinAutomaton of(Collection<String> vocabulary, int maxEdits, int exactPrefix) {
+    if (maxEdits < 0 || maxEdits > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Edits must be between 0 and " + Byte.MAX_VALUE);
+    }
+    return new Builder(new TreeSet<>(vocabulary).toArray(new String[0]), maxEdits, exactPrefix)
+        .build();
+  }
+
+  /**
+   * Get the most edits tolerated for a word.
+   *
+   * @param length The length of the word
+   * @param maxEdits The most edits tolerated in the longest words
+   * @return The edits tolerated
+   */
+  static int editsFor(int length, int maxEdits) {
+    return Math.min(maxEdits, length <= EXACT_LENGTH ? 0 : length <= ONE_EDIT_LENGTH ? 1 : 2);
+  }
+
+  /**
+   * Run the automaton over a token.
+   *
+   * @param text The text containing the token
+   * @param start The start index of the token, inclusive
+   * @param end The end index of the token, exclusive
+   * @return The final state, {@link #DEAD} if no word is within reach
+   */
+  int match(CharSequence text, int start, int end) {
+    int state = this.start;
+    for (int i = start; i < end && state != DEAD; ++i) {
+      char c = Character.toUpperCase(text.charAt(i));
+      int charClass = c < charClasses.length ? charClasses[c] : 0;
+      state = transitions[state * classCount + charClass];
+    }
+    return state;
+  }
+
+  /**
+   * Get the closest word to a token that ends in a state.
+   *
+   * @param state A state returned by {@link #match(CharSequence, int, int)}
+   * @return The word, or null if none is within reach
+   */
+  String getWord(int state) {
+    return closestWords[state] < 0 ? null : words[closestWords[state]];
+  }
+
+  /**
+   * Get the edit distance to the closest word.
+   *
+   * @param state A state returned by {@link #match(CharSequence, int, int)}
+   * @return The distance, or -1 if no word is within reach
+   */
+  int getDistance(int state) {
+    return distances[state];
+  }
+
+  /**
+   * Get the number of words as close as the closest word, including that word.
+   *
+   * @param state A state returned by {@link #match(CharSequence, int, int)}
+   * @return The number of words, zero if no word is within reach
+   */
+  int getAlternatives(int state) {
+    return alternatives[state];
+  }
+
+  /**
+   * Determinizes a Levenshtein automaton over a trie. Each state of the trie automaton is a trie
+   * node and the edits spent reaching it, encoded as a single int, and each deterministic state is
+   * the sorted set of those states with no node repeated at a higher cost.
+   */
+  private static final class Builder {
+
+    private final String[] words;
+
+    private final int maxEdits;
+
+    private final int exactPrefix;
+
+    private final TrieBuilder trie = new TrieBuilder();
+
+    // The word ending at each node of the trie, or -1
+    private int[] nodeWords;
+
+    // The most edits that may be spent on reaching each node, so that some word below it can still
+    // be matched
+    private int[] nodeReach;
+
+    private byte[] charClasses;
+
+    private char[] classChars;
+
+    private final Map<StateKey, Integer> stateIds = new HashMap<>();
+
+    private final List<int[]> states = new ArrayList<>();
+
+    // Scratch space for the next state, the cost of each node reached and the nodes reached
+    private int[] costs;
+
+    private int[] reached;
+
+    private int reachedCount;
+
+    Builder(String[] words, int maxEdits, int exactPrefix) {
+      this.words = words;
+      this.maxEdits = maxEdits;
+      this.exactPrefix = exactPrefix;
+    }
+
+    LevenshteinAutomaton build() {
+      int[] ends = new int[words.length];
+      for (int word = 0; word < words.length; ++word) {
+        ends[word] = trie.add(words[word]);
+      }
+      nodeWords = new int[trie.getNodeCount()];
+      Arrays.fill(nodeWords, -1);
+      for (int word = 0; word < words.length; ++word) {
+        nodeWords[ends[word]] = word;
+      }
+      nodeReach = new int[trie.getNodeCount()];
+      computeReach(TrieBuilder.ROOT);
+      classChars = trie.getClassChars();
+      charClasses = TrieBuilder.charClasses(classChars);
+      costs = new int[trie.getNodeCount()];
+      Arrays.fill(costs, Integer.MAX_VALUE);
+      reached = new int[trie.getNodeCount()];
+
+      // The dead state is the empty set
+      stateId(new int[0]);
+      relax(TrieBuilder.ROOT, 0);
+      int start = stateId(collect());
+      int classCount = classChars.length + 1;
+      List<int[]> rows = new ArrayList<>();
+      for (int state = 0; state < states.size(); ++state) {
+        int[] row = new int[classCount];
+        for (int charClass = 0; charClass < classCount; ++charClass) {
+          row[charClass] = stateId(step(states.get(state), charClass));
+        }
+        rows.add(row);
+      }
+
+      int[] transitions = new int[rows.size() * classCount];
+      int[] closestWords = new int[states.size()];
+      byte[] distances = new byte[states.size()];
+      short[] alternatives = new short[states.size()];
+      for (int state = 0; state < states.size(); ++state) {
+        System.arraycopy(rows.get(state), 0, transitions, state * classCount, classCount);
+        accept(state, closestWords, distances, alternatives);
+      }
+      return new LevenshteinAutomaton(
+          words,
+          charClasses,
+          classCount,
+          transitions,
+          start,
+          closestWords,
+          distances,
+          alternatives);
+    }
+
+    private void accept(int state, int[] closestWords, byte[] distances, short[] alternatives) {
+      int closest = -1;
+      int distance = Integer.MAX_VALUE;
+      int count = 0;
+      for (int encoded : states.get(state)) {
+        int word = nodeWords[node(encoded)];
+        int edits = edits(encoded);
+        if (word < 0 || edits > editsFor(words[word].length(), maxEdits)) {
+          continue;
+        }
+        if (edits < distance) {
+          closest = word;
+          distance = edits;
+          count = 1;
+        } else if (edits == distance) {
+          count++;
+        }
+      }
+      closestWords[state] = closest;
+      distances[state] = (byte) (closest < 0 ? -1 : distance);
+      alternatives[state] = (short) Math.min(count, Short.MAX_VALUE);
+    }
+
+    private int[] step(int[] state, int charClass) {
+      char c = charClass == 0 ? 0 : classChars[charClass - 1];
+      for (int encoded : state) {
+        int node = node(encoded);
+        int edits = edits(encoded);
+        boolean editable = trie.getDepth(node) >= exactPrefix;
+        char[] chars = trie.getChars(node);
+        int[] children = trie.getChildren(node);
+        for (int i = 0; i < chars.length; ++i) {
+          if (charClass != 0 && chars[i] == c) {
+            relax(children[i], edits);
+          } else if (editable) {
+            // Substitution of the character
+            relax(children[i], edits + 1);
+          }
+        }
+        if (editable) {
+          // Insertion of the character into the word
+          relax(node, edits + 1);
+        }
+      }
+      return collect();
+    }
+
+    // Also reaches every node that follows from deleting characters of the word
+    private void relax(int node, int edits) {
+      if (edits > nodeReach[node] || edits >= costs[node]) {
+        return;
+      }
+      if (costs[node] == Integer.MAX_VALUE) {
+        reached[reachedCount++] = node;
+      }
+      costs[node] = edits;
+      if (trie.getDepth(node) >= exactPrefix) {
+        for (int child : trie.getChildren(node)) {
+          relax(child, edits + 1);
+        }
+      }
+    }
+
+    // Encodes the nodes reached in order and clears the scratch space
+    private int[] collect() {
+      int[] state = Arrays.copyOf(reached, reachedCount);
+      Arrays.sort(state);
+      for (int i = 0; i < state.length; ++i) {
+        int node = state[i];
+        state[i] = encode(node, costs[node]);
+        costs[node] = Integer.MAX_VALUE;
+      }
+      reachedCount = 0;
+      return state;
+    }
+
+    private int stateId(int[] state) {
+      StateKey key = new StateKey(state);
+      Integer id = stateIds.get(key);
+      if (id == null) {
+        id = states.size();
+        stateIds.put(key, id);
+        states.add(state);
+      }
+      return id;
+    }
+
+    private int encode(int node, int edits) {
+      return node * (maxEdits + 1) + edits;
+    }
+
+    private int node(int encoded) {
+      return encoded / (maxEdits + 1);
+    }
+
+    private int edits(int encoded) {
+      return encoded % (maxEdits + 1);
+    }
+
+    private int computeReach(int node) {
+      int reach = nodeWords[node] < 0 ? 0 : editsFor(words[nodeWords[node]].length(), maxEdits);
+      for (int child : trie.getChildren(node)) {
+        reach = Math.max(reach, computeReach(child));
+      }
+      nodeReach[node] = reach;
+      return reach;
+    }
+  }
+
+  private static final class StateKey {
+
+    private final int[] state;
+
+    private final int hash;
+
+    StateKey(int[] state) {
+      this.state = state;
+      this.hash = Arrays.hashCode(state);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof StateKey && Arrays.equals(state, ((StateKey) other).state);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.trickl.language;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parses numbers written in words, or digits, in any language with a built-in number lexicon,
+ * e.g. "quatre-vingt-dix-sept mille", "dreiundzwanzig" or "dos mil millones".
+ *
+ * <p>Every language is read by the same single pass scanner over one shared automaton of number
+ * words, so adding a language adds a lexicon resource rather than another parser. Integers in the
+ * range of a long are supported in every language, and the decimal separator of each language
+ * marks the end of what can be read. English text is read by the same scanner, and anything it
+ * cannot read is passed on to the full grammar of {@link EnglishNumberParser}, so decimals are
+ * also supported in English.
+ *
+ * <p>Instances are immutable and safe to share between threads.
+ */
+public final class LocalizedNumberParser {
+
+  private static final ParserListener.Operation OPERATION = ParserListener.Operation.NUMBER_PARSE;
+
+  // Reported for text the scanner rejects, or cannot read in a language with no grammar
+  private static final String REJECTED_BY_SCANNER = "rejected by scanner";
+
+  private static final EnglishNumberParser ENGLISH_PARSER = new EnglishNumberParser();
+
+  private final NumberLexicon lexicon;
+
+  private final Locale locale;
+
+  private LocalizedNumberParser(NumberLexicon lexicon) {
+    this.lexicon = lexicon;
+    this.locale = new Locale(lexicon.getLanguage());
+  }
+
+  /**
+   * Get a parser for the language of a locale.
+   *
+   * @param locale The locale, only the language is used
+   * @return The parser
+   * @throws IllegalArgumentException if there is no number lexicon for the language
+   */
+  public static LocalizedNumberParser forLocale(Locale locale) {
+    NumberLexicon lexicon = NumberLexicon.forLanguage(locale.getLanguage());
+    if (lexicon == null) {
+      throw new IllegalArgumentException(
+          "No number words for " + locale + ", expected one of " + getAvailableLocales());
+    }
+    return new LocalizedNumberParser(lexicon);
+  }
+
+  /**
+   * Get the locales that numbers can be parsed in.
+   *
+   * @return The locales, one per language
+   */
+  public static Set<Locale> getAvailableLocales() {
+    Set<Locale> locales = new LinkedHashSet<>();
+    for (String language : NumberLexicon.LANGUAGES) {
+      locales.add(new Locale(language));
+    }
+    return Collections.unmodifiableSet(locales);
+  }
+
+  /**
+   * Get the locale of the language parsed.
+   *
+   * @return The locale, with only a language
+   */
+  public Locale getLocale() {
+    return locale;
+  }
+
+  /**
+   * Convert text into a long.
+   *
+   * @param number The text to parse
+   * @return The number
+   * @throws ParseException if unable to parse the text
+   */
+  public long parseLong(CharSequence number) throws ParseException {
+    return parseLong(number, 0, number.length());
+  }
+
+  /**
+   * Convert a region of text into a long, without copying the region.
+   *
+   * @param text The text containing the number
+   * @param start The start index of the number, inclusive
+   * @param end The end index of the number, exclusive
+   * @return The number
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   * @throws ArithmeticException if an English number is not an integer in the range of a long
+   */
+  public long parseLong(CharSequence text, int start, int end) throws ParseException {
+    EnglishNumberParser.checkRegion(text, start, end);
+    ParserListener listener = ParserInstrumentation.getListener();
+    long started = ParserInstrumentation.start(listener);
+    NumberScanner scanner = new NumberScanner(lexicon);
+    int status = scanner.scan(text, start, end);
+    if (status == NumberScanner.ACCEPTED) {
+      ParserInstrumentation.succeeded(listener, OPERATION, end - start, started);
+      return scanner.getValue();
+    } else if (status == NumberScanner.DEFERRED && lexicon == NumberLexicon.ENGLISH) {
+      // The English parser records its own outcome
+      return ENGLISH_PARSER.parseLong(text, start, end);
+    }
+    ParserInstrumentation.failed(listener, OPERATION, end - start, started, REJECTED_BY_SCANNER);
+    throw new ParseException(
+        "Unable to parse "
+            + locale.getDisplayLanguage(Locale.ENGLISH)
+            + " number '"
+            + text.subSequence(start, end)
+            + "'",
+        scanner.getErrorIndex());
+  }
+}
@@ -0,0 +1,406 @@
+package com.trickl.language;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.Getter;
+
+/**
+ * The number words of a language, what each is worth and the part it plays in a number, read from
+ * a lexicon resource and interpreted by a {@link NumberScanner}.
+ *
+ * <p>Each line of a lexicon is a word, its role and, other than for connectors, its value. Lines
+ * starting "@" set the decimal separator and name the {@link Rule rules} the language needs beyond
+ * those of English, and "#" starts a comment.
+ *
+ * <pre>
+ * &#64;decimal-separator ,
+ * &#64;rule tens-take-teens
+ * quatre        unit        4
+ * quatre-vingt  ten         80
+ * dix-sept      teen        17
+ * cent          multiplier  100
+ * et            connector
+ * </pre>
+ *
+ * <p>The words of every lexicon are compiled into one shared, minimal {@link WordAutomaton} when
+ * the class is loaded, so each language only adds a table of roles and values indexed by word.
+ * The same word may mean different things in different languages, such as "BILLION", which is
+ * 10^9 in English and 10^12 in French. Instances are immutable.
+ */
+final class NumberLexicon {
+
+  /** The part a word plays in a number. */
+  enum Role {
+    /** Zero to nine, e.g. "four". */
+    UNIT,
+    /** A number from ten to ninety nine that takes no units, e.g. "twelve" or "veintidós". */
+    TEEN,
+    /** A multiple of ten from twenty to ninety, e.g. "forty" or "quatre-vingt". */
+    TEN,
+    /** A multiple of a hundred that takes no units, e.g. "doscientos". */
+    HUNDREDS,
+    /** Multiplies the words before it, a hundred or a power of a thousand, e.g. "million". */
+    MULTIPLIER,
+    /** Joins number words and is otherwise ignored, e.g. "and", "et" or "und". */
+    CONNECTOR
+  }
+
+  /** A construction that a language allows but English does not. */
+  enum Rule {
+    /** A multiplier with nothing before it counts once, e.g. "mille" is a thousand. */
+    IMPLICIT_ONE,
+    /** A unit may come before a ten, e.g. "dreiundzwanzig" is twenty three. */
+    UNITS_BEFORE_TENS,
+    /** A teen may follow a ten, e.g. "soixante-dix-sept" is seventy seven. */
+    TENS_TAKE_TEENS,
+    /** Words may be written together, e.g. "zweihundert", which is read longest word first. */
+    COMPOUND_WORDS,
+    /** A multiplier may multiply a smaller one, e.g. "dos mil millones" is two billion. */
+    COMPOUND_MULTIPLIERS
+  }
+
+  /** The languages with a lexicon, English first. */
+  static final List<String> LANGUAGES =
+      Collections.unmodifiableList(Arrays.asList("en", "fr", "de", "es"));
+
+  private static final String RESOURCE_DIRECTORY = "lexicon/";
+
+  private static final String RESOURCE_SUFFIX = ".lexicon";
+
+  private static final String DECIMAL_SEPARATOR = "@decimal-separator";
+
+  private static final String RULE = "@rule";
+
+  private static final Role[] ROLES = Role.values();
+
+  private static final WordAutomaton AUTOMATON;
+
+  private static final Map<String, NumberLexicon> LEXICONS = new LinkedHashMap<>();
+
+  static {
+    Map<String, Definition> definitions = new LinkedHashMap<>();
+    Set<String> words = new TreeSet<>();
+    for (String language : LANGUAGES) {
+      Definition definition = load(language);
+      definitions.put(language, definition);
+      words.addAll(definition.entries.keySet());
+    }
+    AUTOMATON = WordAutomaton.of(words);
+    for (Definition definition : definitions.values()) {
+      LEXICONS.put(definition.language, new NumberLexicon(definition));
+    }
+  }
+
+  /** The reference lexicon, which has exactly the words of the English grammar. */
+  static final NumberLexicon ENGLISH = LEXICONS.get("en");
+
+  @Getter private final String language;
+
+  @Getter private final char decimalSeparator;
+
+  private final Set<Rule> rules;
+
+  // The role and value of each word of the shared automaton, -1 if not a word of the language
+  private final byte[] roles;
+
+  private final long[] values;
+
+  // Whether each upper case character appears in a word of the language
+  private final boolean[] alphabet;
+
+  private NumberLexicon(Definition definition) {
+    this.language = definition.language;
+    this.decimalSeparator = definition.decimalSeparator;
+    this.rules = definition.rules;
+    this.roles = new byte[AUTOMATON.getWordCount()];
+    this.values = new long[AUTOMATON.getWordCount()];
+    Arrays.fill(roles, (byte) -1);
+    char maxChar = 0;
+    for (String word : definition.entries.keySet()) {
+      for (char c : word.toCharArray()) {
+        maxChar = (char) Math.max(maxChar, c);
+      }
+    }
+    this.alphabet = new boolean[maxChar + 1];
+    for (Map.Entry<String, Entry> entry : definition.entries.entrySet()) {
+      int word = AUTOMATON.match(entry.getKey(), 0, entry.getKey().length());
+      roles[word] = (byte) entry.getValue().role.ordinal();
+      values[word] = entry.getValue().value;
+      for (char c : entry.getKey().toCharArray()) {
+        alphabet[c] = true;
+      }
+    }
+  }
+
+  /**
+   * Get the lexicon of a language.
+   *
+   * @param language An ISO 639 language code, e.g. "fr"
+   * @return The lexicon, or null if there is none for the language
+   */
+  static NumberLexicon forLanguage(String language) {
+    return LEXICONS.get(language);
+  }
+
+  /**
+   * Get the automaton shared by every lexicon.
+   *
+   * @return The automaton
+   */
+  static WordAutomaton getAutomaton() {
+    return AUTOMATON;
+  }
+
+  /**
+   * Check whether the language allows a construction.
+   *
+   * @param rule The construction
+   * @return True if the lexicon names the rule
+   */
+  boolean hasRule(Rule rule) {
+    return rules.contains(rule);
+  }
+
+  /**
+   * Check whether a character appears in any word of the language, in any case.
+   *
+   * @param c The character
+   * @return True if the character is part of some word
+   */
+  boolean isWordChar(char c) {
+    char upper = Character.toUpperCase(c);
+    // Such as the dotless i, which upper cases to I but is no letter of English
+    if (c >= 0x80 && upper < 0x80) {
+      return false;
+    }
+    return upper < alphabet.length && alphabet[upper];
+  }
+
+  /**
+   * Find the word of the language that a whole token matches.
+   *
+   * @param text The text containing the token
+   * @param start The start index of the token, inclusive
+   * @param end The end index of the token, exclusive
+   * @return The number of the word in the shared automaton, or -1 if the token is not a word of
+   *     the language
+   */
+  int match(CharSequence text, int start, int end) {
+    int word = AUTOMATON.match(text, start, end);
+    return word >= 0 && roles[word] >= 0 ? word : -1;
+  }
+
+  /**
+   * Find the longest word of the language that a region starts with.
+   *
+   * @param text The text containing the region
+   * @param start The start index of the region, inclusive
+   * @param end The end index of the region, exclusive
+   * @return The end index of the word, or -1 if the region starts with no word of the language
+   */
+  int matchPrefix(CharSequence text, int start, int end) {
+    int longest = -1;
+    int state = WordAutomaton.START;
+    for (int i = start; i < end; ++i) {
+      state = AUTOMATON.next(state, text.charAt(i));
+      if (state == WordAutomaton.DEAD) {
+        break;
+      } else if (AUTOMATON.isAccepting(state) && match(text, start, i + 1) >= 0) {
+        longest = i + 1;
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Get the role of a word.
+   *
+   * @param word The number of a word of the language
+   * @return The role
+   */
+  Role getRole(int word) {
+    return ROLES[roles[word]];
+  }
+
+  /**
+   * Get the value of a word.
+   *
+   * @param word The number of a word of the language
+   * @return The value, zero for a connector
+   */
+  long getValue(int word) {
+    return values[word];
+  }
+
+  /**
+   * Get the words of the language.
+   *
+   * @return The words, upper case and in order
+   */
+  Set<String> getWords() {
+    Set<String> words = new TreeSet<>();
+    for (int word = 0; word < roles.length; ++word) {
+      if (roles[word] >= 0) {
+        words.add(AUTOMATON.getWord(word));
+      }
+    }
+    return words;
+  }
+
+  private static Definition load(String language) {
+    String resource = RESOURCE_DIRECTORY + language + RESOURCE_SUFFIX;
+    InputStream in = NumberLexicon.class.getResourceAsStream(resource);
+    if (in == null) {
+      throw new IllegalStateException("Missing number lexicon " + resource);
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      return read(language, reader);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Read a lexicon.
+   *
+   * @param language The language of the lexicon
+   * @param reader The source of the lexicon
+   * @return The words and rules of the lexicon
+   * @throws IOException if unable to read the lexicon
+   * @throws IllegalArgumentException if the lexicon is malformed
+   */
+  static Definition read(String language, BufferedReader reader) throws IOException {
+    Definition definition = new Definition(language);
+    String line;
+    int lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      ++lineNumber;
+      int comment = line.indexOf('#');
+      String[] fields = (comment < 0 ? line : line.substring(0, comment)).trim().split("\\s+");
+      if (fields[0].isEmpty()) {
+        continue;
+      }
+      try {
+        definition.add(fields);
+      } catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException(
+            "Invalid " + language + " lexicon line " + lineNumber + ": " + ex.getMessage(), ex);
+      }
+    }
+    return definition;
+  }
+
+  /** The words and rules of a lexicon as read, before compilation. */
+  static final class Definition {
+
+    private final String language;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private final Set<Rule> rules = EnumSet.noneOf(Rule.class);
+
+    private char decimalSeparator = '.';
+
+    Definition(String language) {
+      this.language = language;
+    }
+
+    private void add(String[] fields) {
+      if (fields[0].equals(DECIMAL_SEPARATOR)) {
+        checkFieldCount(fields, 2);
+        if (fields[1].length() != 1) {
+          throw new IllegalArgumentException("Expected a single character separator");
+        }
+        decimalSeparator = fields[1].charAt(0);
+      } else if (fields[0].equals(RULE)) {
+        checkFieldCount(fields, 2);
+        rules.add(Rule.valueOf(fields[1].toUpperCase(Locale.ROOT).replace('-', '_')));
+      } else {
+        Role role = Role.valueOf(fields.length > 1 ? fields[1].toUpperCase(Locale.ROOT) : "");
+        checkFieldCount(fields, role == Role.CONNECTOR ? 2 : 3);
+        long value = role == Role.CONNECTOR ? 0 : Long.parseLong(fields[2]);
+        checkValue(role, value);
+        if (entries.put(upperCase(fields[0]), new Entry(role, value)) != null) {
+          throw new IllegalArgumentException("Duplicate word " + fields[0]);
+        }
+      }
+    }
+
+    private static void checkFieldCount(String[] fields, int count) {
+      if (fields.length != count) {
+        throw new IllegalArgumentException("Expected " + count + " fields, not " + fields.length);
+      }
+    }
+
+    private static void checkValue(Role role, long value) {
+      boolean valid;
+      switch (role) {
+        case UNIT:
+          valid = value >= 0 && value < 10;
+          break;
+        case TEEN:
+          valid = value >= 10 && value < 100;
+          break;
+        case TEN:
+          valid = value >= 20 && value < 100 && value % 10 == 0;
+          break;
+        case HUNDREDS:
+          valid = value >= 100 && value < 1000 && value % 100 == 0;
+          break;
+        case MULTIPLIER:
+          valid = value == 100 || isPowerOfThousand(value);
+          break;
+        default:
+          valid = true;
+      }
+      if (!valid) {
+        throw new IllegalArgumentException("Invalid value " + value + " for a " + role);
+      }
+    }
+
+    private static boolean isPowerOfThousand(long value) {
+      if (value < 1000) {
+        return false;
+      }
+      while (value % 1000 == 0) {
+        value /= 1000;
+      }
+      return value == 1;
+    }
+
+    // Upper cases character by character, as the automaton does, so "ß" stays one character
+    private static String upperCase(String word) {
+      char[] chars = word.toCharArray();
+      for (int i = 0; i < chars.length; ++i) {
+        chars[i] = Character.toUpperCase(chars[i]);
+      }
+      return new String(chars);
+    }
+  }
+
+  private static final class Entry {
+
+    private final Role role;
+
+    private final long value;
+
+    Entry(Role role, long value) {
+      this.role = role;
+      this.value = value;
+    }
+  }
+}
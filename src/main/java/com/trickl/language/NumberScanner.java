@@ -0,0 +1,366 @@
+package com.trickl.language;
+
+import com.trickl.language.NumberLexicon.Role;
+import com.trickl.language.NumberLexicon.Rule;
+import lombok.Getter;
+
+/**
+ * A single pass, deterministic scanner that reads numbers using the words of a {@link
+ * NumberLexicon}.
+ *
+ * <p>The scanner accumulates into a {@code long} using only the role and value of each word, so
+ * the same logic reads every language. With the English lexicon it only accepts input that it can
+ * prove the jparsec grammar of {@link EnglishNumberParser} would parse to the same value. Anything
+ * unusual, such as decimals, overflow or constructions that rely on backtracking, is deferred to
+ * the grammar. Instances hold scratch state and are not thread-safe, but are cheap enough to
+ * create per call.
+ */
+final class NumberScanner {
+
+  /** The input was parsed, the result is available as the value. */
+  static final int ACCEPTED = 0;
+
+  /** The input cannot be parsed, the offending offset is available as the error index. */
+  static final int REJECTED = 1;
+
+  /**
+   * The input must be parsed by the full grammar. The error index is the offset of the first
+   * token that could not be read.
+   */
+  static final int DEFERRED = 2;
+
+  private static final int MAX_DELIMITED_GROUPS = 5;
+
+  private static final int MAX_LONG_DIGITS = 18;
+
+  // There are only so many powers of a thousand in a long
+  private static final int MAX_MULTIPLIERS = 7;
+
+  // Group states, i.e. the class of the last token within the current multiplier group
+  private static final int START = 0;
+  private static final int LEAD_ONES = 1;
+  private static final int ONES = 2;
+  private static final int TEEN = 3;
+  private static final int TENS = 4;
+  private static final int HUNDRED = 5;
+  private static final int ZERO = 6;
+
+  private final NumberLexicon lexicon;
+
+  private final char groupSeparator;
+
+  @Getter private long value;
+
+  @Getter private int errorIndex;
+
+  // The multipliers applied so far, largest first, and the amount each multiplies
+  private final long[] multipliers = new long[MAX_MULTIPLIERS];
+  private final long[] multiplied = new long[MAX_MULTIPLIERS];
+  private int multiplierCount;
+
+  private long hundreds;
+  private long small;
+  private long lastDigits;
+  private int delimitedGroups;
+  private int state;
+  private boolean empty;
+
+  /**
+   * Create a scanner for a language.
+   *
+   * @param lexicon The words of the language
+   */
+  NumberScanner(NumberLexicon lexicon) {
+    this.lexicon = lexicon;
+    this.groupSeparator = lexicon.getDecimalSeparator() == '.' ? ',' : '.';
+  }
+
+  /**
+   * Scan a region of text.
+   *
+   * @param text The text containing the number
+   * @param start The start index of the number, inclusive
+   * @param end The end index of the number, exclusive
+   * @return One of {@link #ACCEPTED}, {@link #REJECTED} or {@link #DEFERRED}
+   */
+  int scan(CharSequence text, int start, int end) {
+    reset(start);
+    int pos = start;
+    while (pos < end) {
+      char c = text.charAt(pos);
+      if (isIgnored(c)) {
+        ++pos;
+      } else if (isDigit(c)) {
+        int tokenEnd = pos;
+        long digits = 0;
+        while (tokenEnd < end && isDigit(text.charAt(tokenEnd))) {
+          if (tokenEnd - pos == MAX_LONG_DIGITS) {
+            return defer(pos);
+          }
+          digits = digits * 10 + (text.charAt(tokenEnd) - '0');
+          ++tokenEnd;
+        }
+        if (tokenEnd < end && text.charAt(tokenEnd) == lexicon.getDecimalSeparator()) {
+          return defer(pos);
+        }
+        if (!acceptDigits(digits)) {
+          return defer(pos);
+        }
+        pos = tokenEnd;
+      } else if (c == lexicon.getDecimalSeparator()) {
+        return defer(pos);
+      } else if (isWordStart(c)) {
+        int tokenEnd = pos + 1;
+        while (tokenEnd < end && isWordPart(text.charAt(tokenEnd))) {
+          ++tokenEnd;
+        }
+        int status = scanWord(text, pos, tokenEnd);
+        if (status != ACCEPTED) {
+          return status;
+        }
+        pos = tokenEnd;
+      } else if (c < 0x80) {
+        errorIndex = pos;
+        return REJECTED;
+      } else {
+        return defer(pos);
+      }
+    }
+
+    if (empty) {
+      return DEFERRED;
+    }
+    if (state != ZERO) {
+      try {
+        value = Math.addExact(hundreds, small);
+        for (int i = 0; i < multiplierCount; ++i) {
+          value = Math.addExact(value, multipliers[i] * multiplied[i]);
+        }
+      } catch (ArithmeticException ex) {
+        value = 0;
+        return DEFERRED;
+      }
+    }
+    return ACCEPTED;
+  }
+
+  private void reset(int start) {
+    value = 0;
+    errorIndex = start;
+    multiplierCount = 0;
+    hundreds = 0;
+    small = 0;
+    lastDigits = -1;
+    delimitedGroups = 0;
+    state = START;
+    empty = true;
+  }
+
+  private int defer(int pos) {
+    errorIndex = pos;
+    return DEFERRED;
+  }
+
+  private int scanWord(CharSequence text, int start, int end) {
+    int word = lexicon.match(text, start, end);
+    if (word >= 0) {
+      return acceptWord(word, start);
+    } else if (lexicon.hasRule(Rule.COMPOUND_WORDS)) {
+      // Taking the longest word first reads "dreizehn" as thirteen rather than "drei" "zehn"
+      int pos = start;
+      while (pos < end) {
+        int wordEnd = lexicon.matchPrefix(text, pos, end);
+        if (wordEnd < 0) {
+          errorIndex = pos;
+          return REJECTED;
+        }
+        int status = acceptWord(lexicon.match(text, pos, wordEnd), pos);
+        if (status != ACCEPTED) {
+          return status;
+        }
+        pos = wordEnd;
+      }
+      return ACCEPTED;
+    }
+    int prefixEnd = lexicon.matchPrefix(text, start, end);
+    if (prefixEnd > 0 && lexicon.getRole(lexicon.match(text, start, prefixEnd)) == Role.CONNECTOR) {
+      // The grammar skips a leading "and" before the rest of the word
+      return defer(start);
+    }
+    errorIndex = start;
+    return REJECTED;
+  }
+
+  private int acceptWord(int word, int pos) {
+    Role role = lexicon.getRole(word);
+    if (role == Role.CONNECTOR) {
+      return ACCEPTED;
+    }
+    if (!acceptLiteral(role, lexicon.getValue(word))) {
+      return defer(pos);
+    }
+    lastDigits = -1;
+    return ACCEPTED;
+  }
+
+  private boolean acceptDigits(long digits) {
+    if (lastDigits >= 0) {
+      // Consecutive numerics are a single delimited number, e.g. 13,000,001
+      if (++delimitedGroups > MAX_DELIMITED_GROUPS || lastDigits > Long.MAX_VALUE / 10000) {
+        return false;
+      }
+      long merged = lastDigits * 1000 + digits;
+      small = small - lastDigits + merged;
+      lastDigits = merged;
+      return true;
+    }
+
+    if (!acceptOnes(digits)) {
+      return false;
+    }
+    lastDigits = digits;
+    delimitedGroups = 1;
+    return true;
+  }
+
+  private boolean acceptLiteral(Role role, long literalValue) {
+    switch (role) {
+      case UNIT:
+        if (literalValue != 0) {
+          return acceptOnes(literalValue);
+        }
+        if (!empty) {
+          return false;
+        }
+        state = ZERO;
+        break;
+      case TEEN:
+        if (state == START || state == HUNDRED) {
+          small = literalValue;
+        } else if (state == TENS && lexicon.hasRule(Rule.TENS_TAKE_TEENS)) {
+          small += literalValue;
+        } else {
+          return false;
+        }
+        state = TEEN;
+        break;
+      case TEN:
+        if (state == START || state == HUNDRED) {
+          small = literalValue;
+          state = TENS;
+        } else if ((state == LEAD_ONES || state == ONES)
+            && small < 10
+            && lexicon.hasRule(Rule.UNITS_BEFORE_TENS)) {
+          small += literalValue;
+          state = TEEN;
+        } else {
+          return false;
+        }
+        break;
+      case HUNDREDS:
+        if (state != START) {
+          return false;
+        }
+        hundreds = literalValue;
+        state = HUNDRED;
+        break;
+      default:
+        if (literalValue < 1000) {
+          return acceptHundred(literalValue);
+        }
+        return acceptMultiplier(literalValue);
+    }
+    empty = false;
+    return true;
+  }
+
+  private boolean acceptHundred(long hundred) {
+    if (state == START) {
+      hundreds = hundred;
+    } else if (state == LEAD_ONES && small <= Long.MAX_VALUE / hundred) {
+      hundreds = small * hundred;
+      small = 0;
+    } else {
+      return false;
+    }
+    state = HUNDRED;
+    empty = false;
+    return true;
+  }
+
+  private boolean acceptMultiplier(long multiplier) {
+    if (state == ZERO) {
+      return false;
+    }
+    boolean bare = state == START;
+    long amount = hundreds + small;
+    try {
+      while (multiplierCount > 0 && multipliers[multiplierCount - 1] < multiplier) {
+        // Such as the "mil" in "dos mil millones"
+        if (!lexicon.hasRule(Rule.COMPOUND_MULTIPLIERS)) {
+          return false;
+        }
+        --multiplierCount;
+        amount =
+            Math.addExact(
+                amount,
+                Math.multiplyExact(multipliers[multiplierCount], multiplied[multiplierCount]));
+        bare = false;
+      }
+      if (bare) {
+        if (!lexicon.hasRule(Rule.IMPLICIT_ONE)) {
+          return false;
+        }
+        amount = 1;
+      }
+      Math.multiplyExact(amount, multiplier);
+    } catch (ArithmeticException ex) {
+      return false;
+    }
+    if ((multiplierCount > 0 && multipliers[multiplierCount - 1] == multiplier)
+        || multiplierCount == MAX_MULTIPLIERS) {
+      return false;
+    }
+    multipliers[multiplierCount] = multiplier;
+    multiplied[multiplierCount] = amount;
+    ++multiplierCount;
+    hundreds = 0;
+    small = 0;
+    state = START;
+    empty = false;
+    return true;
+  }
+
+  private boolean acceptOnes(long onesValue) {
+    if (state == START) {
+      state = LEAD_ONES;
+      small = onesValue;
+    } else if (state == HUNDRED) {
+      state = ONES;
+      small = onesValue;
+    } else if (state == TENS) {
+      state = ONES;
+      small += onesValue;
+    } else {
+      return false;
+    }
+    empty = false;
+    return true;
+  }
+
+  private boolean isIgnored(char c) {
+    return Character.isWhitespace(c) || c == groupSeparator || c == '،' || c == '\u00a0';
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private boolean isWordStart(char c) {
+    return c == '_' || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || lexicon.isWordChar(c);
+  }
+
+  private boolean isWordPart(char c) {
+    return isWordStart(c) || isDigit(c);
+  }
+}
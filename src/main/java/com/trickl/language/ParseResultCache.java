@@ -0,0 +1,195 @@
+package com.trickl.language;
+
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, lock-free cache of the results of parsing text, including failures.
+ *
+ * <p>Entries are looked up by the characters of a region, so a hit neither copies the text nor
+ * tokenizes it, only a miss copies the region into a string for the key. The table is two-way set
+ * associative. Each entry counts its hits, and a new entry replaces the less frequently hit entry
+ * of its set while the count of the survivor is decremented. A hot input therefore outlives as many
+ * one-off values as it has recent hits, rather than being pushed out by the next one.
+ *
+ * <p>Failures are cached as the message and offset of the {@link ParseException}, and a fresh
+ * exception is thrown for each hit. Other exceptions are not cached.
+ *
+ * @param <T> The type of the parsed result, which must be immutable
+ */
+final class ParseResultCache<T> {
+
+  /** Parses a region of text, with failure offsets relative to the text. */
+  @FunctionalInterface
+  interface RegionParser<T> {
+    T parse(CharSequence text, int start, int end) throws ParseException;
+  }
+
+  private static final int WAYS = 2;
+
+  private static final int MAX_TABLE_SIZE = 1 << 30;
+
+  // Saturates, so a long-lived entry can still be aged out
+  private static final int MAX_FREQUENCY = 15;
+
+  private final RegionParser<T> parser;
+
+  private final AtomicReferenceArray<Entry<T>> entries;
+
+  private final int setMask;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Create a cache.
+   *
+   * @param parser Parses text missing from the cache
+   * @param maximumSize The maximum number of results to hold, rounded up to a power of two
+   */
+  ParseResultCache(RegionParser<T> parser, int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum size must be positive, was " + maximumSize);
+    }
+    int size =
+        Math.max(WAYS, Integer.highestOneBit(Math.min(maximumSize, MAX_TABLE_SIZE) - 1) << 1);
+    this.parser = parser;
+    this.entries = new AtomicReferenceArray<>(size);
+    this.setMask = size - WAYS;
+  }
+
+  /**
+   * Parse a region of text, answering from the cache where possible.
+   *
+   * @param text The text containing the value
+   * @param start The start index of the value, inclusive
+   * @param end The end index of the value, exclusive
+   * @return The parsed value
+   * @throws ParseException if unable to parse the region, the offset is relative to the text
+   */
+  T parse(CharSequence text, int start, int end) throws ParseException {
+    EnglishNumberParser.checkRegion(text, start, end);
+    int hash = hash(text, start, end);
+    int set = (hash ^ (hash >>> 16)) & setMask;
+    for (int way = 0; way < WAYS; ++way) {
+      Entry<T> entry = entries.get(set + way);
+      if (entry != null && entry.matches(hash, text, start, end)) {
+        hits.increment();
+        if (entry.frequency < MAX_FREQUENCY) {
+          // Racy, the count only needs to be approximate
+          entry.frequency++;
+        }
+        return entry.result(start);
+      }
+    }
+
+    misses.increment();
+    String key = text.subSequence(start, end).toString();
+    T value;
+    try {
+      value = parser.parse(text, start, end);
+    } catch (ParseException ex) {
+      insert(set, new Entry<>(key, hash, null, true, ex.getMessage(), ex.getErrorOffset() - start));
+      throw ex;
+    }
+    insert(set, new Entry<>(key, hash, value, false, null, 0));
+    return value;
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  long getMisses() {
+    return misses.sum();
+  }
+
+  int size() {
+    int size = 0;
+    for (int i = 0; i < entries.length(); ++i) {
+      if (entries.get(i) != null) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  private void insert(int set, Entry<T> entry) {
+    Entry<T> first = entries.get(set);
+    Entry<T> second = entries.get(set + 1);
+    if (first == null) {
+      entries.set(set, entry);
+    } else if (second == null) {
+      entries.set(set + 1, entry);
+    } else if (first.frequency <= second.frequency) {
+      entries.set(set, entry);
+      age(second);
+    } else {
+      entries.set(set + 1, entry);
+      age(first);
+    }
+  }
+
+  // Only called on the survivor when an entry is evicted, filling an empty way ages nothing
+  private static void age(Entry<?> survivor) {
+    if (survivor.frequency > 0) {
+      survivor.frequency--;
+    }
+  }
+
+  // The same hash as the region would have as a string
+  private static int hash(CharSequence text, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; ++i) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    return hash;
+  }
+
+  private static final class Entry<T> {
+    private final String text;
+
+    private final int hash;
+
+    private final T value;
+
+    private final boolean failed;
+
+    private final String errorMessage;
+
+    private final int errorOffset;
+
+    private int frequency;
+
+    private Entry(
+        String text, int hash, T value, boolean failed, String errorMessage, int errorOffset) {
+      this.text = text;
+      this.hash = hash;
+      this.value = value;
+      this.failed = failed;
+      this.errorMessage = errorMessage;
+      this.errorOffset = errorOffset;
+    }
+
+    private boolean matches(int hash, CharSequence text, int start, int end) {
+      if (this.hash != hash || this.text.length() != end - start) {
+        return false;
+      }
+      for (int i = 0; i < this.text.length(); ++i) {
+        if (this.text.charAt(i) != text.charAt(start + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private T result(int start) throws ParseException {
+      if (failed) {
+        throw new ParseException(errorMessage, start + errorOffset);
+      }
+      return value;
+    }
+  }
+}
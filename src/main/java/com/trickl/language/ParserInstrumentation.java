@@ -0,0 +1,76 @@
+package com.trickl.language;
+
+import java.util.List;
+import java.util.TreeSet;
+import org.jparsec.error.ParseErrorDetails;
+import org.jparsec.error.ParserException;
+
+/**
+ * Installs a {@link ParserListener} for every parser and format in the process.
+ *
+ * <p>No listener is installed by default, in which case an operation costs one volatile read more
+ * than it would uninstrumented, and the clock is never read.
+ */
+public final class ParserInstrumentation {
+
+  private static volatile ParserListener listener;
+
+  private ParserInstrumentation() {
+  }
+
+  /**
+   * Install a listener, replacing any already installed.
+   *
+   * @param listener The listener, or null to stop reporting
+   */
+  public static void setListener(ParserListener listener) {
+    ParserInstrumentation.listener = listener;
+  }
+
+  /**
+   * Get the installed listener.
+   *
+   * @return The listener, or null if none is installed
+   */
+  public static ParserListener getListener() {
+    return listener;
+  }
+
+  static long start(ParserListener listener) {
+    return listener == null ? 0 : System.nanoTime();
+  }
+
+  static void succeeded(
+      ParserListener listener, ParserListener.Operation operation, int length, long started) {
+    if (listener != null) {
+      listener.succeeded(operation, length, System.nanoTime() - started);
+    }
+  }
+
+  static void failed(
+      ParserListener listener,
+      ParserListener.Operation operation,
+      int length,
+      long started,
+      String errorKind) {
+    if (listener != null) {
+      listener.failed(operation, length, System.nanoTime() - started, errorKind);
+    }
+  }
+
+  // Grouped by what the grammar expected, rather than by what the input held, so there are only
+  // as many kinds as there are places in the grammar to fail
+  static String errorKind(ParserException ex) {
+    ParseErrorDetails details = ex.getErrorDetails();
+    if (details == null) {
+      return "syntax";
+    }
+    List<String> expected = details.getExpected();
+    if (expected != null && !expected.isEmpty()) {
+      return "expected " + String.join(", ", new TreeSet<>(expected));
+    } else if (details.getFailureMessage() != null) {
+      return details.getFailureMessage();
+    }
+    return "syntax";
+  }
+}
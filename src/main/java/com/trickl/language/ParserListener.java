@@ -0,0 +1,40 @@
+package com.trickl.language;
+
+/**
+ * Receives the outcome of every parse and format, once installed with {@link
+ * ParserInstrumentation#setListener(ParserListener)}.
+ *
+ * <p>Callbacks are made on the calling thread, inline with the operation, so implementations must
+ * be thread-safe and cheap.
+ */
+public interface ParserListener {
+
+  /** The operations reported. */
+  enum Operation {
+    NUMBER_PARSE,
+    NUMBER_FORMAT,
+    CURRENCY_AMOUNT_PARSE,
+    CURRENCY_AMOUNT_FORMAT,
+    DURATION_PARSE,
+    DURATION_FORMAT
+  }
+
+  /**
+   * Called when an operation succeeds.
+   *
+   * @param operation The operation
+   * @param length The length of the text parsed or formatted
+   * @param nanos The time taken
+   */
+  void succeeded(Operation operation, int length, long nanos);
+
+  /**
+   * Called when an operation fails.
+   *
+   * @param operation The operation
+   * @param length The length of the text parsed
+   * @param nanos The time taken
+   * @param errorKind A short description of the failure, from a small fixed set for each parser
+   */
+  void failed(Operation operation, int length, long nanos, String errorKind);
+}
@@ -0,0 +1,101 @@
+package com.trickl.language;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ParserListener} that keeps counts, failures by kind, and histograms of input length and
+ * latency for each operation. Safe to share across threads.
+ *
+ * <p>Typical use is to install one instance at startup and export its figures periodically.
+ *
+ * <pre>
+ * ParserMetrics metrics = new ParserMetrics();
+ * ParserInstrumentation.setListener(metrics);
+ * ...
+ * metrics.getLatencyNanos(ParserListener.Operation.NUMBER_PARSE).getValueAtPercentile(99);
+ * </pre>
+ */
+public final class ParserMetrics implements ParserListener {
+
+  private final Map<Operation, OperationMetrics> metrics = new EnumMap<>(Operation.class);
+
+  /** Create metrics with nothing recorded. */
+  public ParserMetrics() {
+    for (Operation operation : Operation.values()) {
+      metrics.put(operation, new OperationMetrics());
+    }
+  }
+
+  @Override
+  public void succeeded(Operation operation, int length, long nanos) {
+    OperationMetrics operationMetrics = metrics.get(operation);
+    operationMetrics.successes.increment();
+    operationMetrics.length.record(length);
+    operationMetrics.latencyNanos.record(nanos);
+  }
+
+  @Override
+  public void failed(Operation operation, int length, long nanos, String errorKind) {
+    OperationMetrics operationMetrics = metrics.get(operation);
+    operationMetrics.failures.computeIfAbsent(errorKind, kind -> new LongAdder()).increment();
+    operationMetrics.length.record(length);
+    operationMetrics.latencyNanos.record(nanos);
+  }
+
+  /**
+   * Get the number of times an operation succeeded.
+   *
+   * @param operation The operation
+   * @return The success count
+   */
+  public long getSuccesses(Operation operation) {
+    return metrics.get(operation).successes.sum();
+  }
+
+  /**
+   * Get the number of times an operation failed, by kind of failure.
+   *
+   * @param operation The operation
+   * @return A snapshot of the failure counts, ordered by kind
+   */
+  public Map<String, Long> getFailures(Operation operation) {
+    Map<String, Long> failures = new TreeMap<>();
+    metrics.get(operation).failures.forEach((kind, count) -> failures.put(kind, count.sum()));
+    return Collections.unmodifiableMap(failures);
+  }
+
+  /**
+   * Get the distribution of the length of the text parsed or formatted, successful or not.
+   *
+   * @param operation The operation
+   * @return The live histogram
+   */
+  public Histogram getLength(Operation operation) {
+    return metrics.get(operation).length;
+  }
+
+  /**
+   * Get the distribution of the time taken, successful or not.
+   *
+   * @param operation The operation
+   * @return The live histogram, in nanoseconds
+   */
+  public Histogram getLatencyNanos(Operation operation) {
+    return metrics.get(operation).latencyNanos;
+  }
+
+  private static final class OperationMetrics {
+    private final LongAdder successes = new LongAdder();
+
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    private final Histogram length = new Histogram();
+
+    private final Histogram latencyNanos = new Histogram();
+  }
+}
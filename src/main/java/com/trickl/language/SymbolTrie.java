@@ -0,0 +1,107 @@
+package com.trickl.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.jparsec.pattern.Pattern;
+
+/**
+ * Finds the longest of a set of symbols at a position in a single pass, without backtracking.
+ *
+ * <p>Each node holds the sorted characters that may follow it, so a match costs one binary search
+ * per character of the symbol, however many symbols there are. Matching is case sensitive.
+ */
+final class SymbolTrie extends Pattern {
+
+  // The characters that may follow each node and the nodes they lead to, node zero is the root
+  private final char[][] chars;
+
+  private final int[][] children;
+
+  // Whether a symbol ends at each node
+  private final boolean[] terminal;
+
+  private SymbolTrie(char[][] chars, int[][] children, boolean[] terminal) {
+    this.chars = chars;
+    this.children = children;
+    this.terminal = terminal;
+  }
+
+  /**
+   * Build a trie of symbols.
+   *
+   * @param symbols The symbols to match, empty symbols are ignored
+   * @return The trie
+   */
+  static SymbolTrie of(Collection<String> symbols) {
+    TrieBuilder trie = new TrieBuilder();
+    List<Integer> ends = new ArrayList<>(symbols.size());
+    for (String symbol : symbols) {
+      if (!symbol.isEmpty()) {
+        ends.add(trie.add(symbol));
+      }
+    }
+    char[][] chars = new char[trie.getNodeCount()][];
+    int[][] children = new int[trie.getNodeCount()][];
+    for (int node = 0; node < chars.length; ++node) {
+      chars[node] = trie.getChars(node);
+      children[node] = trie.getChildren(node);
+    }
+    boolean[] terminal = new boolean[trie.getNodeCount()];
+    for (int end : ends) {
+      terminal[end] = true;
+    }
+    return new SymbolTrie(chars, children, terminal);
+  }
+
+  /**
+   * Get the length of the longest symbol at a position.
+   *
+   * @param text The text to match against
+   * @param start The position of the first character of the symbol
+   * @param end The end of the region that may be matched
+   * @return The length of the symbol, or {@link Pattern#MISMATCH} if none starts here
+   */
+  @Override
+  public int match(CharSequence text, int start, int end) {
+    return matchLongest(text, start, end, false);
+  }
+
+  /**
+   * Get a pattern that matches the longest symbol at a position, like this trie, except that a
+   * symbol ending in a letter must not be followed by another letter. So "P" is found in "P 5" but
+   * not at the start of "Pound".
+   *
+   * @return The pattern
+   */
+  Pattern wholeWords() {
+    return new Pattern() {
+      @Override
+      public int match(CharSequence text, int start, int end) {
+        return matchLongest(text, start, end, true);
+      }
+    };
+  }
+
+  private int matchLongest(CharSequence text, int start, int end, boolean wholeWords) {
+    int longest = MISMATCH;
+    int node = TrieBuilder.ROOT;
+    for (int position = start; position < end; ++position) {
+      char c = text.charAt(position);
+      int index = Arrays.binarySearch(chars[node], c);
+      if (index < 0) {
+        break;
+      }
+      node = children[node][index];
+      if (terminal[node]
+          && (!wholeWords
+              || !Character.isLetter(c)
+              || position + 1 == end
+              || !Character.isLetter(text.charAt(position + 1)))) {
+        longest = position + 1 - start;
+      }
+    }
+    return longest;
+  }
+}
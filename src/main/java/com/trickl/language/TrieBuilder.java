@@ -0,0 +1,159 @@
+package com.trickl.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Builds the trie of a set of words that the symbol trie and the word automata start from.
+ *
+ * <p>Nodes are numbered as they are added, node zero is the root and children have higher numbers
+ * than their parents. Each node holds the sorted characters that may follow it, so following a
+ * character is a binary search. What a node means, such as the word that ends there, is left to
+ * the caller, keyed by the node number that {@link #add} returns.
+ */
+final class TrieBuilder {
+
+  /** The root node, reached before any character. */
+  static final int ROOT = 0;
+
+  private static final char[] NO_CHARS = {};
+
+  private static final int[] NO_CHILDREN = {};
+
+  private final List<char[]> childChars = new ArrayList<>();
+
+  private final List<int[]> childNodes = new ArrayList<>();
+
+  private final List<Integer> depths = new ArrayList<>();
+
+  /** Start a trie holding only the root. */
+  TrieBuilder() {
+    addNode(0);
+  }
+
+  /**
+   * Add a word, along with any nodes for its prefixes that are missing.
+   *
+   * @param word The word to add
+   * @return The node reached at the end of the word
+   */
+  int add(CharSequence word) {
+    int node = ROOT;
+    for (int i = 0; i < word.length(); ++i) {
+      node = child(node, word.charAt(i));
+    }
+    return node;
+  }
+
+  /**
+   * Get the number of nodes, including the root.
+   *
+   * @return The node count
+   */
+  int getNodeCount() {
+    return childNodes.size();
+  }
+
+  /**
+   * Get the characters that may follow a node.
+   *
+   * @param node The node
+   * @return The characters, in ascending order
+   */
+  char[] getChars(int node) {
+    return childChars.get(node);
+  }
+
+  /**
+   * Get the children of a node.
+   *
+   * @param node The node
+   * @return The child reached by each of the characters that may follow the node, in order
+   */
+  int[] getChildren(int node) {
+    return childNodes.get(node);
+  }
+
+  /**
+   * Get the depth of a node.
+   *
+   * @param node The node
+   * @return The number of characters from the root to the node
+   */
+  int getDepth(int node) {
+    return depths.get(node);
+  }
+
+  /**
+   * Get the distinct characters of the words added, which number the character classes of an
+   * automaton from one. Class zero is left for every other character.
+   *
+   * @return The characters, in ascending order
+   * @throws IllegalArgumentException if there are too many to number in a byte
+   */
+  char[] getClassChars() {
+    TreeSet<Character> chars = new TreeSet<>();
+    for (char[] nodeChars : childChars) {
+      for (char c : nodeChars) {
+        chars.add(c);
+      }
+    }
+    if (chars.size() >= Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Words have too many distinct characters");
+    }
+    char[] classChars = new char[chars.size()];
+    int index = 0;
+    for (char c : chars) {
+      classChars[index++] = c;
+    }
+    return classChars;
+  }
+
+  /**
+   * Map each character to its class.
+   *
+   * @param classChars The characters of each class from one, in ascending order
+   * @return The class of each character up to the last, zero for those not listed
+   */
+  static byte[] charClasses(char[] classChars) {
+    byte[] charClasses =
+        new byte[classChars.length == 0 ? 0 : classChars[classChars.length - 1] + 1];
+    for (int i = 0; i < classChars.length; ++i) {
+      charClasses[classChars[i]] = (byte) (i + 1);
+    }
+    return charClasses;
+  }
+
+  private int child(int node, char c) {
+    char[] chars = childChars.get(node);
+    int[] children = childNodes.get(node);
+    int index = Arrays.binarySearch(chars, c);
+    if (index >= 0) {
+      return children[index];
+    }
+
+    int insertion = -index - 1;
+    char[] grownChars = new char[chars.length + 1];
+    int[] grownChildren = new int[children.length + 1];
+    System.arraycopy(chars, 0, grownChars, 0, insertion);
+    System.arraycopy(children, 0, grownChildren, 0, insertion);
+    System.arraycopy(chars, insertion, grownChars, insertion + 1, chars.length - insertion);
+    System.arraycopy(
+        children, insertion, grownChildren, insertion + 1, children.length - insertion);
+    int child = addNode(depths.get(node) + 1);
+    grownChars[insertion] = c;
+    grownChildren[insertion] = child;
+    childChars.set(node, grownChars);
+    childNodes.set(node, grownChildren);
+    return child;
+  }
+
+  private int addNode(int depth) {
+    childChars.add(NO_CHARS);
+    childNodes.add(NO_CHILDREN);
+    depths.add(depth);
+    return childNodes.size() - 1;
+  }
+}
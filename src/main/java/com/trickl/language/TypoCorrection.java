@@ -0,0 +1,29 @@
+package com.trickl.language;
+
+import lombok.Value;
+
+/** A misspelt word in some text and the vocabulary word it was taken to mean. */
+@Value
+public class TypoCorrection {
+
+  /** The start index of the misspelt word in the original text, inclusive. */
+  private int start;
+
+  /** The end index of the misspelt word in the original text, exclusive. */
+  private int end;
+
+  /** The word as written, e.g. "fourty". */
+  private String original;
+
+  /** The vocabulary word, upper case, e.g. "FORTY". */
+  private String correction;
+
+  /** The number of single character edits between the two. */
+  private int distance;
+
+  /**
+   * How likely the correction is to be right, between zero and one. Falls with the share of the
+   * word that was edited, and is divided between vocabulary words that are equally close.
+   */
+  private double confidence;
+}
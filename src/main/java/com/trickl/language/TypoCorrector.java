@@ -0,0 +1,198 @@
+package com.trickl.language;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Corrects misspelt number words and currency names, such as "fourty", "thousnd" or "Brittish
+ * Pound", so that the parsers can read them.
+ *
+ * <p>The whole vocabulary is compiled into a single {@link LevenshteinAutomaton}, so each word of
+ * the text is checked against every number word and currency name in time linear in the length of
+ * the word. Only words of three letters or more are corrected, words of up to five letters by at
+ * most one edit, and the first letter must be right. Words already in the vocabulary, currency
+ * codes such as "USD", words too far from any, and words equally close to more than one are left
+ * as they are.
+ *
+ * <p>The automaton for each tolerance is built once, on first use, and shared. Building the two
+ * edit automaton takes around a second and some megabytes of heap, the one edit automaton a small
+ * fraction of that. Instances are immutable and safe to share between threads.
+ */
+public final class TypoCorrector {
+
+  /** The most edits that can be tolerated. */
+  public static final int MAX_EDITS = 2;
+
+  private static final int EXACT_PREFIX = 1;
+
+  private final LevenshteinAutomaton automaton;
+
+  private final int maxEdits;
+
+  private TypoCorrector(int maxEdits) {
+    this.maxEdits = maxEdits;
+    this.automaton = LevenshteinAutomaton.of(vocabulary(), maxEdits, EXACT_PREFIX);
+  }
+
+  /**
+   * Get the corrector for a tolerance.
+   *
+   * @param maxEdits The most edits to correct in a word, one or two
+   * @return The shared corrector
+   * @throws IllegalArgumentException if the tolerance is not one or two
+   */
+  public static TypoCorrector forMaxEdits(int maxEdits) {
+    switch (maxEdits) {
+      case 1:
+        return OneEdit.INSTANCE;
+      case 2:
+        return TwoEdits.INSTANCE;
+      default:
+        throw new IllegalArgumentException(
+            "Edits must be between 1 and " + MAX_EDITS + ", not " + maxEdits);
+    }
+  }
+
+  /**
+   * Get the most edits corrected in a word.
+   *
+   * @return The tolerance
+   */
+  public int getMaxEdits() {
+    return maxEdits;
+  }
+
+  /**
+   * Find the vocabulary word closest to a single word.
+   *
+   * <p>Where several vocabulary words are equally close, the first in alphabetical order is
+   * returned, with the confidence divided between them.
+   *
+   * @param text The text containing the word
+   * @param start The start index of the word, inclusive
+   * @param end The end index of the word, exclusive
+   * @return The correction, or null if the word is in the vocabulary or too far from any word
+   */
+  public TypoCorrection correctWord(CharSequence text, int start, int end) {
+    EnglishNumberParser.checkRegion(text, start, end);
+    int state = automaton.match(text, start, end);
+    return automaton.getDistance(state) > 0 ? correction(text, start, end, state) : null;
+  }
+
+  /**
+   * Correct every misspelt word in some text.
+   *
+   * @param text The text to correct
+   * @param corrections The list to add each correction to, in order
+   * @return The corrected text
+   */
+  public String correct(CharSequence text, List<TypoCorrection> corrections) {
+    String corrected = correctRegion(text, 0, text.length(), corrections);
+    return corrected != null ? corrected : text.toString();
+  }
+
+  /**
+   * Correct every misspelt word in a region of text.
+   *
+   * @param text The text containing the region
+   * @param start The start index of the region, inclusive
+   * @param end The end index of the region, exclusive
+   * @param corrections The list to add each correction to, in order, indexed as the text
+   * @return The corrected region, or null if no word needed correcting
+   */
+  String correctRegion(
+      CharSequence text, int start, int end, List<TypoCorrection> corrections) {
+    StringBuilder corrected = null;
+    // The end of the text already copied to the corrected region
+    int copied = start;
+    int position = start;
+    while (position < end) {
+      if (!Character.isLetter(text.charAt(position))) {
+        position++;
+        continue;
+      }
+      int wordEnd = position + 1;
+      while (wordEnd < end && Character.isLetter(text.charAt(wordEnd))) {
+        wordEnd++;
+      }
+      int state = automaton.match(text, position, wordEnd);
+      // A word such as "firty" could be "fifty" or "forty", so is better left alone
+      if (automaton.getDistance(state) > 0
+          && automaton.getAlternatives(state) == 1
+          && !isCurrencyCode(text, position, wordEnd)) {
+        TypoCorrection correction = correction(text, position, wordEnd, state);
+        if (corrected == null) {
+          corrected = new StringBuilder(end - start + maxEdits);
+        }
+        corrected.append(text, copied, position).append(correction.getCorrection());
+        copied = wordEnd;
+        corrections.add(correction);
+      }
+      position = wordEnd;
+    }
+    return corrected == null ? null : corrected.append(text, copied, end).toString();
+  }
+
+  private static boolean isCurrencyCode(CharSequence text, int start, int end) {
+    return end - start == 3
+        && Character.isUpperCase(text.charAt(start))
+        && EnglishCurrencyAmountFormat.currencyCodes()
+            .contains(text.subSequence(start, end).toString());
+  }
+
+  private TypoCorrection correction(CharSequence text, int start, int end, int state) {
+    String correction = automaton.getWord(state);
+    int distance = automaton.getDistance(state);
+    double confidence =
+        (1 - (double) distance / Math.max(correction.length(), end - start))
+            / automaton.getAlternatives(state);
+    return new TypoCorrection(
+        start, end, text.subSequence(start, end).toString(), correction, distance, confidence);
+  }
+
+  /**
+   * Map an index in a corrected region back to the original text.
+   *
+   * @param corrections The corrections made to the region
+   * @param start The start index of the region in the original text
+   * @param correctedIndex The index in the corrected region
+   * @return The index in the original text, the start of a correction for any index within it
+   */
+  static int originalIndex(List<TypoCorrection> corrections, int start, int correctedIndex) {
+    // The original index less the corrected index, so far
+    int shift = start;
+    for (TypoCorrection correction : corrections) {
+      int correctedStart = correction.getStart() - shift;
+      if (correctedIndex < correctedStart) {
+        break;
+      } else if (correctedIndex < correctedStart + correction.getCorrection().length()) {
+        return correction.getStart();
+      }
+      shift += correction.getEnd() - correction.getStart() - correction.getCorrection().length();
+    }
+    return correctedIndex + shift;
+  }
+
+  // Every word the parsers recognise that a word of letters could be corrected to, and the "and"
+  // that joins number words, so that it is never mistaken for "rand"
+  private static Set<String> vocabulary() {
+    return Stream.concat(
+            Stream.of("AND"),
+            Stream.concat(
+                EnglishNumberParser.NUMBER_LITERALS.stream(),
+                EnglishCurrencyAmountFormat.currencyNameWords().stream()))
+        .filter(word -> word.chars().allMatch(Character::isLetter))
+        .collect(Collectors.toSet());
+  }
+
+  // Each automaton is only built if its tolerance is used
+  private static final class OneEdit {
+    private static final TypoCorrector INSTANCE = new TypoCorrector(1);
+  }
+
+  private static final class TwoEdits {
+    private static final TypoCorrector INSTANCE = new TypoCorrector(2);
+  }
+}
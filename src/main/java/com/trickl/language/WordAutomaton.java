@@ -0,0 +1,272 @@
+package com.trickl.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A minimal deterministic acyclic automaton that accepts a set of words and numbers each word by
+ * its position in sorted order.
+ *
+ * <p>Words that end alike share their states, so "-TEEN", "-ZEHN" and "-CIENTOS" are only stored
+ * once however many words end with them. Each transition also records how many words sort before
+ * those reached through it, so the number of a word is summed up while it is matched and looking
+ * up a token costs two table reads per character. Matching is case insensitive, the words should
+ * be upper case.
+ */
+final class WordAutomaton {
+
+  /** The state reached once no word can match. */
+  static final int DEAD = 0;
+
+  /** The state before any character has been matched. */
+  static final int START = 1;
+
+  private final String[] words;
+
+  // Maps each character to its class, characters outside the words share class zero
+  private final byte[] charClasses;
+
+  private final int classCount;
+
+  // The next state for each state and character class
+  private final int[] transitions;
+
+  // The number of words sorting before those reached by each transition
+  private final int[] skips;
+
+  private final boolean[] accepting;
+
+  private WordAutomaton(
+      String[] words,
+      byte[] charClasses,
+      int classCount,
+      int[] transitions,
+      int[] skips,
+      boolean[] accepting) {
+    this.words = words;
+    this.charClasses = charClasses;
+    this.classCount = classCount;
+    this.transitions = transitions;
+    this.skips = skips;
+    this.accepting = accepting;
+  }
+
+  /**
+   * Build the minimal automaton for some words.
+   *
+   * @param words The words to accept, upper case
+   * @return The automaton
+   */
+  static WordAutomaton of(Collection<String> words) {
+    return new Builder(new TreeSet<>(words).toArray(new String[0])).build();
+  }
+
+  /**
+   * Get the number of words accepted.
+   *
+   * @return The word count
+   */
+  int getWordCount() {
+    return words.length;
+  }
+
+  /**
+   * Get a word by its number.
+   *
+   * @param word The number of the word
+   * @return The word, upper case
+   */
+  String getWord(int word) {
+    return words[word];
+  }
+
+  /**
+   * Get the number of states, including the dead state.
+   *
+   * @return The state count
+   */
+  int getStateCount() {
+    return accepting.length;
+  }
+
+  /**
+   * Find the number of the word that a whole token matches.
+   *
+   * @param text The text containing the token
+   * @param start The start index of the token, inclusive
+   * @param end The end index of the token, exclusive
+   * @return The number of the word, or -1 if the token is not a word
+   */
+  int match(CharSequence text, int start, int end) {
+    int state = START;
+    int word = 0;
+    for (int i = start; i < end; ++i) {
+      int transition = transition(state, text.charAt(i));
+      state = transitions[transition];
+      if (state == DEAD) {
+        return -1;
+      }
+      word += skips[transition];
+    }
+    return accepting[state] ? word : -1;
+  }
+
+  /**
+   * Follow a character from a state.
+   *
+   * @param state The current state
+   * @param c The character, in any case
+   * @return The next state, {@link #DEAD} if no word continues with the character
+   */
+  int next(int state, char c) {
+    return transitions[transition(state, c)];
+  }
+
+  /**
+   * Check whether the characters followed so far are a whole word.
+   *
+   * @param state The current state
+   * @return True if the state accepts
+   */
+  boolean isAccepting(int state) {
+    return accepting[state];
+  }
+
+  private int transition(int state, char c) {
+    char upper = Character.toUpperCase(c);
+    return state * classCount + (upper < charClasses.length ? charClasses[upper] : 0);
+  }
+
+  /**
+   * Builds a trie of the words and then merges equivalent nodes from the leaves up, so that two
+   * nodes share a state whenever they accept the same suffixes.
+   */
+  private static final class Builder {
+
+    private final String[] words;
+
+    private final TrieBuilder trie = new TrieBuilder();
+
+    // Whether a word ends at each node of the trie
+    private boolean[] nodeAccepting;
+
+    // Each distinct state, registered after every state it leads to
+    private final Map<Signature, Integer> stateIds = new HashMap<>();
+
+    private final List<Signature> states = new ArrayList<>();
+
+    private byte[] charClasses;
+
+    private int classCount;
+
+    Builder(String[] words) {
+      this.words = words;
+    }
+
+    WordAutomaton build() {
+      int[] ends = new int[words.length];
+      for (int word = 0; word < words.length; ++word) {
+        ends[word] = trie.add(words[word]);
+      }
+      nodeAccepting = new boolean[trie.getNodeCount()];
+      for (int end : ends) {
+        nodeAccepting[end] = true;
+      }
+      char[] classChars = trie.getClassChars();
+      charClasses = TrieBuilder.charClasses(classChars);
+      classCount = classChars.length + 1;
+
+      // The dead state accepts nothing, the start state is the root
+      states.add(new Signature(false, new char[0], new int[0]));
+      int root = minimize(TrieBuilder.ROOT);
+
+      // Renumber so that the start state follows the dead state
+      int[] renumbered = new int[states.size()];
+      for (int state = 0, next = START + 1; state < states.size(); ++state) {
+        renumbered[state] = state == DEAD ? DEAD : state == root ? START : next++;
+      }
+      int[] counts = new int[states.size()];
+      for (int state = 1; state < states.size(); ++state) {
+        // Children are always registered before their parents
+        Signature signature = states.get(state);
+        counts[state] = signature.accepting ? 1 : 0;
+        for (int child : signature.children) {
+          counts[state] += counts[child];
+        }
+      }
+
+      int[] transitions = new int[states.size() * classCount];
+      int[] skips = new int[states.size() * classCount];
+      boolean[] accepting = new boolean[states.size()];
+      for (int state = 1; state < states.size(); ++state) {
+        Signature signature = states.get(state);
+        int row = renumbered[state] * classCount;
+        int skipped = signature.accepting ? 1 : 0;
+        for (int i = 0; i < signature.chars.length; ++i) {
+          int charClass = charClasses[signature.chars[i]];
+          transitions[row + charClass] = renumbered[signature.children[i]];
+          skips[row + charClass] = skipped;
+          skipped += counts[signature.children[i]];
+        }
+        accepting[renumbered[state]] = signature.accepting;
+      }
+      return new WordAutomaton(words, charClasses, classCount, transitions, skips, accepting);
+    }
+
+    private int minimize(int node) {
+      int[] children = trie.getChildren(node);
+      int[] childStates = new int[children.length];
+      for (int i = 0; i < children.length; ++i) {
+        childStates[i] = minimize(children[i]);
+      }
+      Signature signature = new Signature(nodeAccepting[node], trie.getChars(node), childStates);
+      Integer state = stateIds.get(signature);
+      if (state == null) {
+        state = states.size();
+        stateIds.put(signature, state);
+        states.add(signature);
+      }
+      return state;
+    }
+  }
+
+  private static final class Signature {
+
+    private final boolean accepting;
+
+    private final char[] chars;
+
+    private final int[] children;
+
+    private final int hash;
+
+    Signature(boolean accepting, char[] chars, int[] children) {
+      this.accepting = accepting;
+      this.chars = chars;
+      this.children = children;
+      this.hash =
+          (Arrays.hashCode(chars) * 31 + Arrays.hashCode(children)) * 2 + (accepting ? 1 : 0);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Signature)) {
+        return false;
+      }
+      Signature signature = (Signature) other;
+      return accepting == signature.accepting
+          && Arrays.equals(chars, signature.chars)
+          && Arrays.equals(children, signature.children);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
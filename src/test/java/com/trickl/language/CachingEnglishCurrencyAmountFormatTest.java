@@ -0,0 +1,44 @@
+package com.trickl.language;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.Currency;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingEnglishCurrencyAmountFormatTest {
+
+  @Test
+  public void testParseMatchesUncached() throws ParseException {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+    CachingEnglishCurrencyAmountFormat cached = new CachingEnglishCurrencyAmountFormat(format, 16);
+    for (String text : new String[] {"$5", "13 million euro", "£1,200", "$5"}) {
+      Map.Entry<Currency, BigDecimal> expected = format.parse(text);
+      Map.Entry<Currency, BigDecimal> actual = cached.parse(text);
+      Assert.assertEquals(expected.getKey(), actual.getKey());
+      Assert.assertEquals(expected.getValue(), actual.getValue());
+    }
+    Assert.assertEquals(1, cached.getHits());
+    Assert.assertEquals(3, cached.getMisses());
+  }
+
+  @Test
+  public void testParseInto() throws ParseException {
+    CachingEnglishCurrencyAmountFormat cached =
+        new CachingEnglishCurrencyAmountFormat(new EnglishCurrencyAmountFormat(), 16);
+    CurrencyAmount amount = new CurrencyAmount();
+    cached.parseInto("Paid £23.", 5, 8, amount);
+    cached.parseInto("£23", amount);
+    Assert.assertEquals(Currency.getInstance("GBP"), amount.getCurrency());
+    Assert.assertEquals(23L, amount.getAmount().longValueExact());
+    Assert.assertEquals(1, cached.getHits());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSharedResultIsImmutable() throws ParseException {
+    CachingEnglishCurrencyAmountFormat cached =
+        new CachingEnglishCurrencyAmountFormat(new EnglishCurrencyAmountFormat(), 16);
+    cached.parse("$5").setValue(BigDecimal.TEN);
+  }
+}
@@ -0,0 +1,99 @@
+package com.trickl.language;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingEnglishDurationFormatTest {
+
+  @Test
+  public void testFormatMatchesUncached() {
+    EnglishDurationFormat format = new EnglishDurationFormat();
+    CachingEnglishDurationFormat cached = new CachingEnglishDurationFormat(format, 16);
+    for (long millis : new long[] {0, 1, 999, 61001, 3600000, 90061001, -1500}) {
+      Assert.assertEquals(format.formatMillis(millis), cached.formatMillis(millis));
+      Assert.assertEquals(format.formatMillis(millis), cached.formatMillis(millis));
+      Assert.assertEquals(
+          format.format(Duration.ofMillis(millis)), cached.format(Duration.ofMillis(millis)));
+    }
+    Assert.assertEquals(
+        format.formatNanos(62003456789L), cached.formatNanos(62003456789L));
+  }
+
+  @Test
+  public void testHitsOnTruncatedDuration() {
+    CachingEnglishDurationFormat cached =
+        new CachingEnglishDurationFormat(new EnglishDurationFormat(), 16);
+    String formatted = cached.formatNanos(1500000);
+    Assert.assertSame(formatted, cached.formatNanos(1999999));
+    Assert.assertSame(formatted, cached.format(Duration.ofNanos(1000001)));
+    Assert.assertEquals("1 milli", formatted);
+    Assert.assertEquals(2, cached.getHits());
+    Assert.assertEquals(1, cached.getMisses());
+  }
+
+  @Test
+  public void testSizeIsBounded() {
+    CachingEnglishDurationFormat cached =
+        new CachingEnglishDurationFormat(new EnglishDurationFormat(ChronoUnit.SECONDS, false), 4);
+    for (long seconds = 0; seconds < 100; ++seconds) {
+      Assert.assertEquals(
+          new EnglishDurationFormat(ChronoUnit.SECONDS, false).format(Duration.ofSeconds(seconds)),
+          cached.format(Duration.ofSeconds(seconds)));
+      Assert.assertTrue(cached.size() <= 4);
+    }
+    Assert.assertEquals(100, cached.getMisses());
+  }
+
+  @Test
+  public void testHotDurationSurvivesOneOffValues() {
+    EnglishDurationFormat format = new EnglishDurationFormat(ChronoUnit.SECONDS, false);
+    // A single set of two entries
+    CachingEnglishDurationFormat cached = new CachingEnglishDurationFormat(format, 2);
+    for (int i = 0; i < 8; ++i) {
+      cached.format(Duration.ofSeconds(90));
+    }
+    for (long seconds = 0; seconds < 4; ++seconds) {
+      cached.format(Duration.ofSeconds(seconds));
+    }
+    long misses = cached.getMisses();
+    Assert.assertEquals(
+        format.format(Duration.ofSeconds(90)), cached.format(Duration.ofSeconds(90)));
+    Assert.assertEquals(misses, cached.getMisses());
+    Assert.assertEquals(2, cached.size());
+  }
+
+  @Test
+  public void testParseMatchesUncached() throws ParseException {
+    EnglishDurationFormat format = new EnglishDurationFormat();
+    CachingEnglishDurationFormat cached = new CachingEnglishDurationFormat(format, 16);
+    for (String text : new String[] {"30 minutes", "1 hr 17 mins", "7s 320ms", "30 minutes"}) {
+      Assert.assertEquals(format.parse(text), cached.parse(text));
+    }
+    Assert.assertEquals(Duration.ofMinutes(30), cached.parse("in 30 minutes", 3, 13));
+    Assert.assertEquals(2, cached.getParseHits());
+    Assert.assertEquals(3, cached.getParseMisses());
+    Assert.assertEquals(0, cached.getMisses());
+  }
+
+  @Test
+  public void testParseCachesFailures() {
+    CachingEnglishDurationFormat cached =
+        new CachingEnglishDurationFormat(new EnglishDurationFormat(), 16);
+    assertParseFailsAt(cached, "3 fortnights", 0, 2);
+    assertParseFailsAt(cached, "in 3 fortnights", 3, 5);
+    Assert.assertEquals(1, cached.getParseHits());
+  }
+
+  private static void assertParseFailsAt(
+      CachingEnglishDurationFormat cached, String text, int start, int errorOffset) {
+    try {
+      cached.parse(text, start, text.length());
+      Assert.fail("Expected ParseException");
+    } catch (ParseException ex) {
+      Assert.assertEquals(errorOffset, ex.getErrorOffset());
+    }
+  }
+}
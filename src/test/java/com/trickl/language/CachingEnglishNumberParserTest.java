@@ -0,0 +1,39 @@
+package com.trickl.language;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachingEnglishNumberParserTest {
+
+  @Test
+  public void testParseMatchesUncached() throws ParseException {
+    EnglishNumberParser parser = new EnglishNumberParser();
+    CachingEnglishNumberParser cached = new CachingEnglishNumberParser(parser, 16);
+    String[] numbers = {"one hundred", "1,000", "13 million and 12", "one hundred"};
+    for (String number : numbers) {
+      Assert.assertEquals(parser.parse(number, 0, number.length()), cached.parse(number));
+    }
+    Assert.assertEquals(BigDecimal.valueOf(100), cached.parse("for one hundred", 4, 15));
+    Assert.assertEquals(2, cached.getHits());
+    Assert.assertEquals(3, cached.getMisses());
+    Assert.assertEquals(3, cached.size());
+  }
+
+  @Test
+  public void testCachesFailures() {
+    CachingEnglishNumberParser cached =
+        new CachingEnglishNumberParser(new EnglishNumberParser(), 16);
+    for (int i = 0; i < 2; ++i) {
+      try {
+        cached.parse("x one hundred dollars", 2, 21);
+        Assert.fail("Expected ParseException");
+      } catch (ParseException ex) {
+        Assert.assertTrue(ex.getErrorOffset() >= 2);
+      }
+    }
+    Assert.assertEquals(1, cached.getHits());
+    Assert.assertEquals(1, cached.getMisses());
+  }
+}
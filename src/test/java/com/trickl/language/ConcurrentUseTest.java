@@ -0,0 +1,195 @@
+package com.trickl.language;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Hammers shared instances from many threads, checking every result against a single-threaded
+ * oracle computed beforehand.
+ */
+public class ConcurrentUseTest {
+
+  private static final int THREADS = 16;
+
+  private static final int ITERATIONS = 2000;
+
+  private static final List<String> NUMBERS =
+      Arrays.asList(
+          "zero",
+          "ninety nine thousand three hundred and eighty seven",
+          "forty five thousand, fifty five",
+          "13 million and 12",
+          "1,350,000",
+          "one point five",
+          "",
+          "seventy");
+
+  private static final List<String> CURRENCY_AMOUNTS =
+      Arrays.asList(
+          "$1.4 million",
+          "£13 million",
+          "13 million euro",
+          "one hundred british pound",
+          "₹420 million",
+          "thirteen",
+          "million dollars dollars");
+
+  private static final List<String> DURATIONS =
+      Arrays.asList(
+          "1 day 2 hours 15 minutes 3 seconds 20 ms",
+          "85 mins.",
+          "1 hr 17 mins",
+          "7s 320ms",
+          "3 micro",
+          "1 h",
+          "");
+
+  @Test
+  public void testNumberParser() throws Exception {
+    EnglishNumberParser shared = new EnglishNumberParser();
+    assertConcurrentMatchesOracle(
+        NUMBERS.size(),
+        i -> () -> new EnglishNumberParser().parse(NUMBERS.get(i)),
+        i -> () -> shared.parse(NUMBERS.get(i)));
+    assertConcurrentMatchesOracle(
+        NUMBERS.size(),
+        i -> () -> new EnglishNumberParser().parseLong(NUMBERS.get(i)),
+        i -> () -> shared.parseLong(NUMBERS.get(i)));
+    assertConcurrentMatchesOracle(
+        NUMBERS.size(),
+        i -> () -> tryParse(new EnglishNumberParser(), NUMBERS.get(i)),
+        i -> () -> tryParse(shared, NUMBERS.get(i)));
+  }
+
+  @Test
+  public void testCurrencyAmountFormat() throws Exception {
+    EnglishCurrencyAmountFormat shared = new EnglishCurrencyAmountFormat();
+    assertConcurrentMatchesOracle(
+        CURRENCY_AMOUNTS.size(),
+        i -> () -> new EnglishCurrencyAmountFormat().parse(CURRENCY_AMOUNTS.get(i)),
+        i -> () -> shared.parse(CURRENCY_AMOUNTS.get(i)));
+    assertConcurrentMatchesOracle(
+        CURRENCY_AMOUNTS.size(),
+        i -> () -> parseInto(new EnglishCurrencyAmountFormat(), CURRENCY_AMOUNTS.get(i)),
+        i -> () -> parseInto(shared, CURRENCY_AMOUNTS.get(i)));
+  }
+
+  @Test
+  public void testCurrencyAmountFormatForManyDefaults() throws Exception {
+    // More currencies than the parser cache holds, so parsers are evicted and rebuilt concurrently
+    List<Currency> currencies =
+        Currency.getAvailableCurrencies()
+            .stream()
+            .sorted((a, b) -> a.getCurrencyCode().compareTo(b.getCurrencyCode()))
+            .limit(100)
+            .collect(Collectors.toList());
+    assertConcurrentMatchesOracle(
+        currencies.size(),
+        i -> () -> currencies.get(i),
+        i -> () -> EnglishCurrencyAmountFormat.forDefault(currencies.get(i)).parse("13").getKey());
+  }
+
+  @Test
+  public void testDurationFormat() throws Exception {
+    EnglishDurationFormat shared = new EnglishDurationFormat();
+    CachingEnglishDurationFormat sharedCache = new CachingEnglishDurationFormat(shared, 4);
+    assertConcurrentMatchesOracle(
+        DURATIONS.size(),
+        i -> () -> new EnglishDurationFormat().parse(DURATIONS.get(i)),
+        i -> () -> shared.parse(DURATIONS.get(i)));
+    assertConcurrentMatchesOracle(
+        DURATIONS.size(),
+        i -> () -> new EnglishDurationFormat().parseToNanos(DURATIONS.get(i)),
+        i -> () -> shared.parseToNanos(DURATIONS.get(i)));
+
+    long[] nanos = {0, 1, 1500000, 62003456789L, 90061001000000L, -1500000000L, 3600000000000L};
+    assertConcurrentMatchesOracle(
+        nanos.length,
+        i -> () -> new EnglishDurationFormat().format(Duration.ofNanos(nanos[i])),
+        i -> () -> shared.formatNanos(nanos[i]));
+    assertConcurrentMatchesOracle(
+        nanos.length,
+        i -> () -> new EnglishDurationFormat().format(Duration.ofNanos(nanos[i])),
+        i -> () -> sharedCache.formatNanos(nanos[i]));
+  }
+
+  private static String tryParse(EnglishNumberParser parser, String number) {
+    EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+    return parser.tryParse(number, result)
+        ? result.getValue().toString()
+        : "invalid at " + result.getErrorIndex();
+  }
+
+  private static CurrencyAmount parseInto(EnglishCurrencyAmountFormat format, String text)
+      throws Exception {
+    CurrencyAmount amount = new CurrencyAmount();
+    format.parseInto(text, amount);
+    return amount;
+  }
+
+  private static void assertConcurrentMatchesOracle(
+      int inputs, IntFunction<Callable<?>> oracle, IntFunction<Callable<?>> shared)
+      throws Exception {
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < inputs; ++i) {
+      expected.add(outcome(oracle.apply(i)));
+    }
+
+    Queue<String> mismatches = new ConcurrentLinkedQueue<>();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < THREADS; ++thread) {
+        Random random = new Random(thread);
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int iteration = 0; iteration < ITERATIONS; ++iteration) {
+                    int i = random.nextInt(inputs);
+                    String actual = outcome(shared.apply(i));
+                    if (!expected.get(i).equals(actual)) {
+                      mismatches.add(
+                          "Input " + i + " expected " + expected.get(i) + " was " + actual);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals(Collections.emptyList(), new ArrayList<>(mismatches));
+  }
+
+  private static String outcome(Callable<?> call) {
+    try {
+      return String.valueOf(call.call());
+    } catch (Exception ex) {
+      return ex.getClass().getName() + ": " + ex.getMessage();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.trickl.language;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CurrencyAmountFileNormalizerTest {
+
+  @Test
+  public void testNormalize() throws Exception {
+    List<String> lines =
+        Arrays.asList(
+            "1\t£1,200\tpaid",
+            "2\t\"13 million euro\"\tpaid",
+            "3\tthirteen\r",
+            "4\tnot an amount\tunpaid",
+            "5");
+    List<String> expected =
+        Arrays.asList(
+            "1\t£1,200\tpaid\tGBP\t1200",
+            "2\t\"13 million euro\"\tpaid\tEUR\t13000000",
+            "3\tthirteen\tUSD\t13\r",
+            "4\tnot an amount\tunpaid\t\t",
+            "5\t\t");
+
+    CurrencyAmountFileNormalizer.Report report =
+        normalize(
+            new CurrencyAmountFileNormalizer(new EnglishCurrencyAmountFormat(), 1, '\t'),
+            lines,
+            expected);
+    Assert.assertEquals(5, report.getRows());
+    Assert.assertEquals(2, report.getFailures());
+  }
+
+  @Test
+  public void testNormalizeInManyChunks() throws Exception {
+    List<String> lines = new ArrayList<>();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; ++i) {
+      lines.add(i + ",$" + i + " million");
+      expected.add(i + ",$" + i + " million,USD," + i * 1000000L);
+    }
+
+    // Small chunks and few threads, so the writer has to wait on the parsers
+    CurrencyAmountFileNormalizer.Report report =
+        normalize(
+            new CurrencyAmountFileNormalizer(new EnglishCurrencyAmountFormat(), 1, ',', 2, 256),
+            lines,
+            expected);
+    Assert.assertEquals(1000, report.getRows());
+    Assert.assertEquals(0, report.getFailures());
+  }
+
+  @Test
+  public void testNormalizeQuotedFields() throws Exception {
+    List<String> lines =
+        Arrays.asList(
+            "\"a, \"\"quoted\"\" note\",\"£1,200\",paid",
+            "2,\"$1,234.50\"",
+            "3,\"13 \"\"million\"\" euro\",paid",
+            "4,\"unterminated, 5");
+    List<String> expected =
+        Arrays.asList(
+            "\"a, \"\"quoted\"\" note\",\"£1,200\",paid,GBP,1200",
+            "2,\"$1,234.50\",USD,1234.50",
+            "3,\"13 \"\"million\"\" euro\",paid,,",
+            "4,\"unterminated, 5,,");
+
+    CurrencyAmountFileNormalizer.Report report =
+        normalize(
+            new CurrencyAmountFileNormalizer(new EnglishCurrencyAmountFormat(), 1, ','),
+            lines,
+            expected);
+    Assert.assertEquals(4, report.getRows());
+    Assert.assertEquals(2, report.getFailures());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNonAsciiDelimiter() {
+    new CurrencyAmountFileNormalizer(new EnglishCurrencyAmountFormat(), 0, '،');
+  }
+
+  private static CurrencyAmountFileNormalizer.Report normalize(
+      CurrencyAmountFileNormalizer normalizer, List<String> lines, List<String> expected)
+      throws Exception {
+    Path input = Files.createTempFile("amounts", ".txt");
+    Path output = Files.createTempFile("normalized", ".txt");
+    try {
+      // No line break after the last line
+      Files.write(input, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+      CurrencyAmountFileNormalizer.Report report = normalizer.normalize(input, output);
+      Assert.assertEquals(
+          String.join("\n", expected) + "\n",
+          new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+      return report;
+    } finally {
+      Files.delete(input);
+      Files.delete(output);
+    }
+  }
+}
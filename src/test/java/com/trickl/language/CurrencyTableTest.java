@@ -0,0 +1,78 @@
+package com.trickl.language;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Currency;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CurrencyTableTest {
+
+  @Test
+  public void testResourceGenerated() throws IOException {
+    InputStream in = CurrencyTable.class.getResourceAsStream(CurrencyTable.RESOURCE);
+    Assert.assertNotNull("Currency table resource was not generated by the build", in);
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      Assert.assertEquals(CurrencyTable.header(), reader.readLine());
+    }
+  }
+
+  @Test
+  public void testLoadMatchesComputed() {
+    assertTablesEqual(CurrencyTable.compute(), CurrencyTable.load());
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    CurrencyTable computed = CurrencyTable.compute();
+    StringWriter writer = new StringWriter();
+    computed.write(writer);
+
+    CurrencyTable read =
+        CurrencyTable.read(new BufferedReader(new StringReader(writer.toString())));
+    assertTablesEqual(computed, read);
+  }
+
+  @Test
+  public void testPriorityLocalesWin() {
+    CurrencyTable table = CurrencyTable.load();
+    Assert.assertEquals(Currency.getInstance("USD"), table.getBySymbol().get("$"));
+    Assert.assertEquals(Currency.getInstance("GBP"), table.getBySymbol().get("£"));
+    Assert.assertEquals(Currency.getInstance("EUR"), table.getByName().get("EURO"));
+  }
+
+  @Test
+  public void testReadIgnoresOtherLocaleData() throws IOException {
+    String table = "# 0 OTHER\nS\t$\tUSD\n";
+    Assert.assertNull(CurrencyTable.read(new BufferedReader(new StringReader(table))));
+  }
+
+  @Test
+  public void testReadIgnoresOtherUpdateRelease() throws IOException {
+    // Same specification version and providers, but a different update release
+    String header =
+        "# "
+            + System.getProperty("java.specification.version")
+            + ".0.0-other "
+            + System.getProperty("java.locale.providers", "DEFAULT");
+    String table = header + "\nS\t$\tUSD\n";
+    Assert.assertNull(CurrencyTable.read(new BufferedReader(new StringReader(table))));
+  }
+
+  private void assertTablesEqual(CurrencyTable expected, CurrencyTable actual) {
+    // Compare as lists, the order is the priority
+    Assert.assertEquals(
+        new ArrayList<>(expected.getByName().entrySet()),
+        new ArrayList<>(actual.getByName().entrySet()));
+    Assert.assertEquals(
+        new ArrayList<>(expected.getBySymbol().entrySet()),
+        new ArrayList<>(actual.getBySymbol().entrySet()));
+  }
+}
@@ -1,5 +1,6 @@
 package com.trickl.language;
 
+import com.trickl.language.EnglishCurrencyAmountFormat.Style;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.util.AbstractMap;
@@ -34,11 +35,213 @@ public class EnglishCurrencyAmountFormatTest {
     
   }
   
+  @Test
+  public void testParseRegion() throws ParseException {
+    String text = "Paid £13 million, owed 200 US dollar.";
+    Map.Entry<Currency, BigDecimal> parsed = new EnglishCurrencyAmountFormat().parse(text, 5, 16);
+    Assert.assertEquals(Currency.getInstance("GBP"), parsed.getKey());
+    Assert.assertEquals(13000000L, parsed.getValue().longValueExact());
+
+    parsed = new EnglishCurrencyAmountFormat().parse(text, 23, 36);
+    Assert.assertEquals(Currency.getInstance("USD"), parsed.getKey());
+    Assert.assertEquals(200L, parsed.getValue().longValueExact());
+
+    try {
+      new EnglishCurrencyAmountFormat().parse(text, 18, 36);
+      Assert.fail("Parsed currency amount with leading text");
+    } catch (ParseException ex) {
+      Assert.assertEquals(18, ex.getErrorOffset());
+    }
+  }
+  
+  @Test
+  public void testForDefault() throws ParseException {
+    Currency gbp = Currency.getInstance("GBP");
+    EnglishCurrencyAmountFormat format = EnglishCurrencyAmountFormat.forDefault(gbp);
+    Assert.assertEquals(gbp, format.getDefaultCurrency());
+    Assert.assertEquals(format, EnglishCurrencyAmountFormat.forDefault(gbp));
+    Assert.assertSame(
+        EnglishCurrencyAmountFormat.parser(gbp), EnglishCurrencyAmountFormat.parser(gbp));
+
+    Map.Entry<Currency, BigDecimal> parsed = format.parse("13 million");
+    Assert.assertEquals(gbp, parsed.getKey());
+    Assert.assertEquals(13000000L, parsed.getValue().longValueExact());
+
+    parsed = format.parse("$5");
+    Assert.assertEquals(Currency.getInstance("USD"), parsed.getKey());
+
+    Assert.assertEquals(
+        Currency.getInstance("USD"), new EnglishCurrencyAmountFormat().getDefaultCurrency());
+  }
+
+  @Test
+  public void testParseInto() throws ParseException {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+    CurrencyAmount amount = new CurrencyAmount();
+
+    format.parseInto("$1.45", amount);
+    Assert.assertEquals(Currency.getInstance("USD"), amount.getCurrency());
+    Assert.assertTrue(amount.hasMinorUnits());
+    Assert.assertEquals(145L, amount.getMinorUnits());
+
+    format.parseInto("Paid 13 million euro", 5, 20, amount);
+    Assert.assertEquals(Currency.getInstance("EUR"), amount.getCurrency());
+    Assert.assertEquals(1300000000L, amount.getMinorUnits());
+
+    format.parseInto("£1.005", amount);
+    Assert.assertFalse(amount.hasMinorUnits());
+
+    format.parseInto("300 japanese yen", amount);
+    Assert.assertEquals(
+        new CurrencyAmount(Currency.getInstance("JPY"), new BigDecimal(300)), amount);
+    Assert.assertEquals(300L, amount.getMinorUnits());
+
+    format.parseInto("thirteen", amount);
+    Assert.assertEquals(Currency.getInstance("USD"), amount.getCurrency());
+    Assert.assertEquals(1300L, amount.getMinorUnits());
+
+    // The symbol and number match before the trailing text fails
+    try {
+      format.parseInto("£13 million US dollar", amount);
+      Assert.fail("Parsed amount with trailing text");
+    } catch (ParseException ex) {
+      Assert.assertEquals(Currency.getInstance("USD"), amount.getCurrency());
+      Assert.assertEquals(1300L, amount.getMinorUnits());
+    }
+  }
+
+  @Test
+  public void testFormat() {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+    Currency gbp = Currency.getInstance("GBP");
+    Assert.assertEquals("£1,200.50", format.format(gbp, 120050L));
+    Assert.assertEquals(
+        "1,200.50 British pounds",
+        format.format(gbp, 120050L, Style.NAME));
+    Assert.assertEquals(
+        "1.00 British pound", format.format(gbp, 100L, Style.NAME));
+    Assert.assertEquals("-$0.05", format.format(Currency.getInstance("USD"), -5L));
+    Assert.assertEquals(
+        "€1,234,567,890.12", format.format(Currency.getInstance("EUR"), 123456789012L));
+    Assert.assertEquals(
+        "500,000 Japanese yen",
+        format.format(Currency.getInstance("JPY"), 500000L, Style.NAME));
+    Assert.assertEquals(
+        "-$92,233,720,368,547,758.08", format.format(Currency.getInstance("USD"), Long.MIN_VALUE));
+  }
+
+  @Test
+  public void testFormatBigDecimal() {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+    Currency gbp = Currency.getInstance("GBP");
+    Style symbol = Style.SYMBOL;
+    Assert.assertEquals("£1,200.50", format.format(gbp, new BigDecimal("1200.505"), symbol));
+    Assert.assertEquals("£1,200.52", format.format(gbp, new BigDecimal("1200.515"), symbol));
+    Assert.assertEquals("£1,000.00", format.format(gbp, new BigDecimal("1E+3"), symbol));
+    Assert.assertEquals(
+        "£0.07", format.format(new CurrencyAmount(gbp, new BigDecimal("0.07")), symbol));
+  }
+
+  @Test
+  public void testFormatTo() {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+    StringBuilder builder = new StringBuilder("Total: ");
+    Assert.assertSame(
+        builder, format.formatTo(Currency.getInstance("USD"), 99L, Style.SYMBOL, builder));
+    Assert.assertEquals("Total: $0.99", builder.toString());
+  }
+
+  @Test
+  public void testFormatParsesBack() throws ParseException {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+    CurrencyAmount amount = new CurrencyAmount();
+    for (Currency currency : Currency.getAvailableCurrencies()) {
+      if (currency.getDefaultFractionDigits() < 0) {
+        continue;
+      }
+      for (Style style : Style.values()) {
+        for (long minorUnits : new long[] {0, 7, 100, 1234, 100000, 123456789}) {
+          String formatted = format.format(currency, minorUnits, style);
+          format.parseInto(formatted, amount);
+          Assert.assertEquals(formatted, currency, amount.getCurrency());
+          Assert.assertEquals(formatted, minorUnits, amount.getMinorUnits());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFormatNamePlurals() {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat();
+    Assert.assertEquals(
+        "1,234.56 Swedish kronor",
+        format.format(Currency.getInstance("SEK"), 123456L, Style.NAME));
+    Assert.assertEquals(
+        "1.00 Swedish krona", format.format(Currency.getInstance("SEK"), 100L, Style.NAME));
+    Assert.assertEquals(
+        "5.00 Botswanan pula", format.format(Currency.getInstance("BWP"), 500L, Style.NAME));
+    // The name has letters that are not read back
+    Assert.assertEquals("1,234 ISK", format.format(Currency.getInstance("ISK"), 1234L, Style.NAME));
+  }
+
+  @Test
+  public void testParseCurrencyCode() throws ParseException {
+    assertParsesCurrencyAmount("JPY 123,456", "JPY", 123456L);
+    assertParsesCurrencyAmount("123,456 JPY", "JPY", 123456L);
+    assertParsesCurrencyAmount("5 thousand CHF", "CHF", 5000L);
+    assertParsesCurrencyAmount("KES 13 million", "KES", 13000000L);
+    assertParsesCurrencyAmount("1,234.56 British pounds", "GBP", 1234L);
+  }
+
+  @Test
+  public void testTypoTolerance() throws ParseException {
+    EnglishCurrencyAmountFormat format = new EnglishCurrencyAmountFormat().withTypoTolerance(2);
+    Assert.assertEquals(2, format.getTypoTolerance());
+    Assert.assertNotEquals(new EnglishCurrencyAmountFormat(), format);
+    assertParsesCurrencyAmount(format, "two hundred Brittish Pound", "GBP", 200L);
+    assertParsesCurrencyAmount(format, "£13 milion", "GBP", 13000000L);
+    assertParsesCurrencyAmount(format, "fourty five US dolar", "USD", 45L);
+
+    try {
+      new EnglishCurrencyAmountFormat().parse("two hundred Brittish Pound");
+      Assert.fail("Parsed misspelt currency name without typo tolerance");
+    } catch (ParseException ex) {
+      Assert.assertTrue(ex.getErrorOffset() > 0);
+    }
+
+    try {
+      format.parse("Paid £13 milion xx", 5, 18);
+      Assert.fail("Parsed currency amount with trailing text");
+    } catch (ParseException ex) {
+      // The offset is in the original text, not the corrected text
+      Assert.assertEquals(16, ex.getErrorOffset());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypoToleranceIsLimited() {
+    new EnglishCurrencyAmountFormat().withTypoTolerance(TypoCorrector.MAX_EDITS + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFormatRejectsCurrencyWithoutMinorUnits() {
+    new EnglishCurrencyAmountFormat().format(Currency.getInstance("XAU"), 100L);
+  }
+
+  private void assertParsesCurrencyAmount(
+      String value,
+      String expectedCurrencyCode,
+      long expectedAmount) throws ParseException {
+    assertParsesCurrencyAmount(
+        new EnglishCurrencyAmountFormat(), value, expectedCurrencyCode, expectedAmount);
+  }
+
   private void assertParsesCurrencyAmount(
+      EnglishCurrencyAmountFormat format,
       String value,
       String expectedCurrencyCode,
       long expectedAmount) throws ParseException {
-    Map.Entry<Currency, BigDecimal> parsed = new EnglishCurrencyAmountFormat().parse(value);
+    Map.Entry<Currency, BigDecimal> parsed = format.parse(value);
     Map.Entry<Currency, Long> rounded = 
         new AbstractMap.SimpleEntry<>(parsed.getKey(), parsed.getValue().longValue());
     Map.Entry<Currency, Long> expected =
@@ -1,7 +1,10 @@
 package com.trickl.language;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.text.ParseException;
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -69,6 +72,44 @@ public class EnglishDurationFormatTest {
     Assert.assertEquals(Duration.ofDays(1), new EnglishDurationFormat().parse("1 day"));
   }
 
+  @Test
+  public void testParseRegion() throws ParseException {
+    String text = "Retry after 1 hr 17 mins, then after 10s";
+    Assert.assertEquals(
+        Duration.ofHours(1).plus(Duration.ofMinutes(17)),
+        new EnglishDurationFormat().parse(text, 12, 24));
+    Assert.assertEquals(Duration.ofSeconds(10), new EnglishDurationFormat().parse(text, 37, 40));
+
+    try {
+      new EnglishDurationFormat().parse(text, 12, 15);
+      Assert.fail("Parsed duration with an unknown unit");
+    } catch (ParseException ex) {
+      Assert.assertEquals(14, ex.getErrorOffset());
+    }
+  }
+
+  @Test
+  public void testParseUnitNames() throws ParseException {
+    Assert.assertEquals(
+        Duration.ofDays(1)
+            .plus(Duration.ofHours(2))
+            .plus(Duration.ofMinutes(15))
+            .plus(Duration.ofSeconds(3))
+            .plus(Duration.ofMillis(20)),
+        new EnglishDurationFormat().parse("1 day 2 hours 15 minutes 3 seconds 20 ms"));
+    Assert.assertEquals(Duration.ofMinutes(2), new EnglishDurationFormat().parse("2 MINUTES"));
+    Assert.assertEquals(Duration.ofNanos(5), new EnglishDurationFormat().parse("5 nanosecond"));
+    Assert.assertEquals(Duration.ofNanos(3000), new EnglishDurationFormat().parse("3 micro"));
+    Assert.assertEquals(Duration.ofMillis(4), new EnglishDurationFormat().parse("4\tmilli"));
+
+    try {
+      new EnglishDurationFormat().parse("1 hour 99999999999999999999 minutes");
+      Assert.fail("Parsed duration with an amount out of range");
+    } catch (ParseException ex) {
+      Assert.assertEquals(7, ex.getErrorOffset());
+    }
+  }
+
   @Test
   public void testFormat() {
     Assert.assertEquals("1 hour", new EnglishDurationFormat().format(Duration.ofHours(1)));
@@ -91,4 +132,41 @@ public class EnglishDurationFormatTest {
         "7 seconds 320 millis",
         new EnglishDurationFormat().format(Duration.ofSeconds(7).plus(Duration.ofMillis(320))));
   }
+
+  @Test
+  public void testFormatTo() throws IOException {
+    Duration duration = Duration.ofMinutes(61).plus(Duration.ofMillis(5));
+    StringBuilder builder = new StringBuilder("Took ");
+    Assert.assertSame(builder, new EnglishDurationFormat().formatTo(duration, builder));
+    Assert.assertEquals("Took 1 hour 1 minute 5 millis", builder.toString());
+
+    StringWriter writer = new StringWriter();
+    new EnglishDurationFormat().formatTo(duration, writer);
+    Assert.assertEquals("1 hour 1 minute 5 millis", writer.toString());
+
+    Assert.assertEquals(
+        "1 week 2 days 30 seconds",
+        new EnglishDurationFormat().format(Duration.ofDays(9).plus(Duration.ofSeconds(30))));
+    Assert.assertEquals("", new EnglishDurationFormat().format(Duration.ZERO));
+  }
+
+  @Test
+  public void testNanosAndMillis() throws ParseException {
+    Assert.assertEquals(
+        "1 minute 2 seconds 3 millis", new EnglishDurationFormat().formatNanos(62003456789L));
+    Assert.assertEquals(
+        "1 minute 2 seconds 3 millis", new EnglishDurationFormat().formatMillis(62003));
+    Assert.assertTrue(
+        new EnglishDurationFormat(ChronoUnit.SECONDS, true)
+            .formatMillis(999)
+            .endsWith(" 0 hours 0 minutes 0 seconds"));
+
+    Assert.assertEquals(
+        Duration.ofHours(1).plus(Duration.ofMillis(20)).toNanos(),
+        new EnglishDurationFormat().parseToNanos("1 hour 20 ms"));
+    Assert.assertEquals(1500L, new EnglishDurationFormat().parseToNanos("1 micro 500 nanos"));
+    Assert.assertEquals(
+        Duration.ofSeconds(10).toNanos(),
+        new EnglishDurationFormat().parseToNanos("Retry after 10s", 12, 15));
+  }
 }
@@ -0,0 +1,108 @@
+package com.trickl.language;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnglishNumberFormatTest {
+
+  private static final long MAX_VALUE = EnglishNumberFormat.MAX_VALUE;
+
+  private final EnglishNumberFormat format = new EnglishNumberFormat();
+
+  private final EnglishNumberParser parser = new EnglishNumberParser();
+
+  @Test
+  public void testFormat() {
+    Assert.assertEquals("zero", format.format(0));
+    Assert.assertEquals("three", format.format(3));
+    Assert.assertEquals("fourteen", format.format(14));
+    Assert.assertEquals("seventy", format.format(70));
+    Assert.assertEquals("one hundred", format.format(100));
+    Assert.assertEquals("two hundred and sixty four", format.format(264));
+    Assert.assertEquals("thirteen thousand", format.format(13000));
+    Assert.assertEquals("forty five thousand and fifty five", format.format(45055));
+    Assert.assertEquals(
+        "ninety nine thousand three hundred and eighty seven", format.format(99387));
+    Assert.assertEquals("thirteen million and twelve", format.format(13000012));
+    Assert.assertEquals(
+        "one billion two hundred million three hundred thousand and one",
+        format.format(1200300001));
+  }
+
+  @Test
+  public void testFormatWithoutConjunction() {
+    EnglishNumberFormat american = new EnglishNumberFormat(false);
+    Assert.assertEquals("two hundred sixty four", american.format(264));
+    Assert.assertEquals("forty five thousand fifty five", american.format(45055));
+  }
+
+  @Test
+  public void testFormatLimits() {
+    Assert.assertEquals("one trillion", format.format(1000000000000L));
+    Assert.assertEquals(
+        "nine hundred and ninety nine trillion nine hundred and ninety nine billion"
+            + " nine hundred and ninety nine million nine hundred and ninety nine thousand"
+            + " nine hundred and ninety nine",
+        format.format(MAX_VALUE));
+  }
+
+  @Test
+  public void testFormatBigDecimal() {
+    Assert.assertEquals("twelve", format.format(new BigDecimal("12.000")));
+    Assert.assertEquals("one thousand", format.format(new BigDecimal("1E+3")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsFraction() {
+    format.format(new BigDecimal("1.5"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsNegative() {
+    format.format(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsTooLarge() {
+    format.format(MAX_VALUE + 1);
+  }
+
+  @Test
+  public void testFormatTo() throws IOException {
+    StringBuilder builder = new StringBuilder("Pay ");
+    Assert.assertSame(builder, format.formatTo(305, builder));
+    Assert.assertEquals("Pay three hundred and five", builder.toString());
+
+    StringWriter writer = new StringWriter();
+    format.formatTo(7000001, writer);
+    Assert.assertEquals("seven million and one", writer.toString());
+  }
+
+  @Test
+  public void testRoundTrip() {
+    EnglishNumberFormat american = new EnglishNumberFormat(false);
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; ++i) {
+      // Spread the values across every order of magnitude
+      long bound = (long) Math.pow(10, 1 + random.nextInt(15));
+      long number = Math.min(Math.floorMod(random.nextLong(), bound), MAX_VALUE);
+      assertRoundTrips(format, number);
+      assertRoundTrips(american, number);
+    }
+    for (int i = 0; i < 1000; ++i) {
+      assertRoundTrips(format, i);
+      assertRoundTrips(format, i * 1001001001L);
+    }
+    assertRoundTrips(format, MAX_VALUE);
+  }
+
+  private void assertRoundTrips(EnglishNumberFormat format, long number) {
+    String words = format.format(number);
+    Assert.assertEquals(words, number, parser.parse(words).longValueExact());
+    Assert.assertEquals(words, number, parser.parseLong(words));
+  }
+}
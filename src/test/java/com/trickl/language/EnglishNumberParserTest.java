@@ -1,6 +1,18 @@
 package com.trickl.language;
 
+import java.math.BigDecimal;
+import java.nio.CharBuffer;
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.jparsec.Scanners;
+import org.jparsec.Terminals;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -64,6 +76,217 @@ public class EnglishNumberParserTest {
     assertParsesDouble(0.34, ".34", 1e-5);
   }
   
+  @Test
+  public void testGrammarIsBuiltOncePerKeywordSet() throws ParseException {
+    Terminals keywords =
+        Terminals.operators(Collections.emptyList())
+            .words(Scanners.IDENTIFIER)
+            .caseInsensitiveKeywords(EnglishNumberParser.NUMBER_LITERALS)
+            .build();
+    Assert.assertSame(
+        EnglishNumberParser.grammar(keywords), EnglishNumberParser.grammar(keywords));
+
+    new EnglishNumberParser().parse("1.5 million");
+    new EnglishCurrencyAmountFormat().parse("£1.5 million");
+    int built = EnglishNumberParser.getGrammarCount();
+    for (int i = 0; i < 3; ++i) {
+      Assert.assertEquals(1.5e6, new EnglishNumberParser().parse("1.5 million").doubleValue(), 0);
+      new EnglishCurrencyAmountFormat().parse("£1.5 million");
+    }
+    Assert.assertEquals(built, EnglishNumberParser.getGrammarCount());
+  }
+  
+  @Test
+  public void testParseLong() {
+    EnglishNumberParser parser = new EnglishNumberParser();
+    Assert.assertEquals(99387, parser.parseLong("ninety nine thousand three hundred eighty seven"));
+    Assert.assertEquals(1400000, parser.parseLong("1.4 million"));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testParseLongRejectsDecimals() {
+    new EnglishNumberParser().parseLong("0.7");
+  }
+
+  @Test
+  public void testTryParse() {
+    EnglishNumberParser parser = new EnglishNumberParser();
+    EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+    Assert.assertTrue(parser.tryParse("forty five thousand and fifty five", result));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.LONG, result.getStatus());
+    Assert.assertEquals(45055, result.getLongValue());
+
+    Assert.assertTrue(parser.tryParse(".34", result));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.DECIMAL, result.getStatus());
+    Assert.assertEquals(0.34, result.getValue().doubleValue(), 1e-5);
+
+    Assert.assertFalse(parser.tryParse("forty five dollars", result));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.INVALID, result.getStatus());
+    Assert.assertEquals(11, result.getErrorIndex());
+
+    Assert.assertFalse(parser.tryParse("five thousand thousand", result));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.INVALID, result.getStatus());
+    Assert.assertEquals(14, result.getErrorIndex());
+  }
+
+  @Test
+  public void testSetValueClassifiesLongs() {
+    EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+    result.setValue(new BigDecimal("1400000.000"));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.LONG, result.getStatus());
+    Assert.assertEquals(1400000, result.getLongValue());
+    result.setValue(new BigDecimal("0.00"));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.LONG, result.getStatus());
+    result.setValue(BigDecimal.valueOf(Long.MIN_VALUE));
+    Assert.assertEquals(Long.MIN_VALUE, result.getLongValue());
+    result.setValue(new BigDecimal("1.5"));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.DECIMAL, result.getStatus());
+    result.setValue(BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.DECIMAL, result.getStatus());
+    result.setValue(new BigDecimal("1E+19"));
+    Assert.assertEquals(EnglishNumberParser.MutableResult.Status.DECIMAL, result.getStatus());
+  }
+  
+  @Test
+  public void testParseAll() {
+    EnglishNumberParser parser = new EnglishNumberParser();
+    List<String> numbers = Arrays.asList("thirty five", "junk", "1,200", "0.7");
+
+    long[] longValues = new long[numbers.size()];
+    BitSet longFailures = new BitSet();
+    parser.parseAll(numbers, longValues, longFailures);
+    Assert.assertArrayEquals(new long[] {35, 0, 1200, 0}, longValues);
+    Assert.assertEquals(BitSet.valueOf(new long[] {0b1010}), longFailures);
+
+    BigDecimal[] decimalValues = new BigDecimal[numbers.size()];
+    BitSet decimalFailures = new BitSet();
+    Assert.assertEquals(4, parser.parseAll(numbers.stream(), decimalValues, decimalFailures));
+    Assert.assertEquals(35, decimalValues[0].longValueExact());
+    Assert.assertNull(decimalValues[1]);
+    Assert.assertEquals(0.7, decimalValues[3].doubleValue(), 1e-5);
+    Assert.assertEquals(BitSet.valueOf(new long[] {0b0010}), decimalFailures);
+  }
+
+  @Test
+  public void testParseAllParallel() {
+    List<String> numbers =
+        IntStream.range(0, 20000)
+            .mapToObj(i -> i % 7 == 0 ? "junk" : i + " thousand and five")
+            .collect(Collectors.toList());
+    long[] values = new long[numbers.size()];
+    BitSet failures = new BitSet();
+    new EnglishNumberParser().parseAll(numbers, values, failures, ForkJoinPool.commonPool());
+    for (int i = 0; i < numbers.size(); ++i) {
+      Assert.assertEquals(i % 7 == 0, failures.get(i));
+      Assert.assertEquals(i % 7 == 0 ? 0 : i * 1000L + 5, values[i]);
+    }
+  }
+
+  @Test
+  public void testParseAllLinkedList() {
+    List<String> numbers =
+        IntStream.range(0, 20000)
+            .mapToObj(i -> i % 7 == 0 ? "junk" : i + " thousand and five")
+            .collect(Collectors.toCollection(LinkedList::new));
+    EnglishNumberParser parser = new EnglishNumberParser();
+    long[] values = new long[numbers.size()];
+    BitSet failures = new BitSet();
+    parser.parseAll(numbers, values, failures);
+    long[] parallelValues = new long[numbers.size()];
+    BitSet parallelFailures = new BitSet();
+    parser.parseAll(numbers, parallelValues, parallelFailures, ForkJoinPool.commonPool());
+    for (int i = 0; i < numbers.size(); ++i) {
+      Assert.assertEquals(i % 7 == 0, failures.get(i));
+      Assert.assertEquals(i % 7 == 0 ? 0 : i * 1000L + 5, values[i]);
+    }
+    Assert.assertArrayEquals(values, parallelValues);
+    Assert.assertEquals(failures, parallelFailures);
+  }
+
+  @Test
+  public void testParseAllClearsReusedFailures() {
+    EnglishNumberParser parser = new EnglishNumberParser();
+    List<String> junk = Collections.nCopies(10000, "junk");
+    List<String> numbers =
+        IntStream.range(1, 10001)
+            .mapToObj(i -> i + " thousand and five")
+            .collect(Collectors.toList());
+    long[] values = new long[numbers.size()];
+    BitSet failures = new BitSet();
+    parser.parseAll(junk, values, failures);
+    Assert.assertEquals(junk.size(), failures.cardinality());
+    parser.parseAll(numbers, values, failures);
+    Assert.assertTrue(failures.isEmpty());
+
+    parser.parseAll(junk, values, failures, ForkJoinPool.commonPool());
+    Assert.assertEquals(junk.size(), failures.cardinality());
+    parser.parseAll(numbers, values, failures, ForkJoinPool.commonPool());
+    Assert.assertTrue(failures.isEmpty());
+  }
+  
+  @Test
+  public void testParseRegion() throws ParseException {
+    EnglishNumberParser parser = new EnglishNumberParser();
+    CharSequence text =
+        CharBuffer.wrap("total: forty five thousand and fifty five; 0.7;".toCharArray());
+    Assert.assertEquals(45055, parser.parseLong(text, 7, 41));
+    Assert.assertEquals(0.7, parser.parse(text, 43, 46).doubleValue(), 1e-5);
+
+    EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+    Assert.assertFalse(parser.tryParse(text, 0, 41, result));
+    Assert.assertEquals(0, result.getErrorIndex());
+    Assert.assertFalse(parser.tryParse(text, 43, 47, result));
+    Assert.assertEquals(46, result.getErrorIndex());
+
+    try {
+      parser.parse(text, 7, 42);
+      Assert.fail("Parsed number with trailing text");
+    } catch (ParseException ex) {
+      Assert.assertEquals(41, ex.getErrorOffset());
+    }
+  }
+  
+  @Test
+  public void testTypoTolerance() {
+    EnglishNumberParser parser = new EnglishNumberParser().withTypoTolerance(2);
+    Assert.assertEquals(2, parser.getTypoTolerance());
+    Assert.assertEquals(45055, parser.parse("fourty five thousnd and fifty five").longValueExact());
+    Assert.assertEquals(99, parser.parseLong("nintey nine"));
+    Assert.assertEquals(1300000, parser.parseLong("1.3 millon"));
+    Assert.assertEquals(70, new EnglishNumberParser().withTypoTolerance(1).parseLong("sevnty"));
+
+    EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+    Assert.assertFalse(new EnglishNumberParser().tryParse("fourty five", result));
+    Assert.assertEquals(0, result.getErrorIndex());
+    Assert.assertFalse(new EnglishNumberParser().withTypoTolerance(1).tryParse("nintey", result));
+    Assert.assertEquals(0, result.getErrorIndex());
+  }
+
+  @Test
+  public void testTypoCorrections() {
+    EnglishNumberParser parser = new EnglishNumberParser().withTypoTolerance(1);
+    EnglishNumberParser.MutableResult result = new EnglishNumberParser.MutableResult();
+    Assert.assertTrue(parser.tryParse("fourty thousnd and six", result));
+    Assert.assertEquals(40006, result.getLongValue());
+    List<TypoCorrection> corrections = result.getCorrections();
+    Assert.assertEquals(2, corrections.size());
+    Assert.assertEquals(
+        new TypoCorrection(0, 6, "fourty", "FORTY", 1, 5 / 6.0), corrections.get(0));
+    Assert.assertEquals(7, corrections.get(1).getStart());
+    Assert.assertEquals("THOUSAND", corrections.get(1).getCorrection());
+
+    Assert.assertTrue(parser.tryParse("forty", result));
+    Assert.assertTrue(result.getCorrections().isEmpty());
+
+    // Error offsets refer to the original text
+    Assert.assertFalse(parser.tryParse("total: fourty thousnd x", 7, 23, result));
+    Assert.assertEquals(22, result.getErrorIndex());
+
+    // Equally close to fifty and forty, so left alone
+    Assert.assertFalse(parser.tryParse("firty", result));
+    Assert.assertTrue(result.getCorrections().isEmpty());
+  }
+
   private void assertParsesLong(long expected, String text) {
     Assert.assertEquals(expected, new EnglishNumberParser()
         .parse(text).longValueExact());
@@ -0,0 +1,168 @@
+package com.trickl.language;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnglishQuantityExtractorTest {
+
+  private final EnglishQuantityExtractor extractor = new EnglishQuantityExtractor();
+
+  @Test
+  public void testInvoice() {
+    String text = "the invoice was two hundred and five dollars, due in 3 days";
+    List<EnglishQuantityExtractor.Span> spans = extractor.extract(text);
+    Assert.assertEquals(2, spans.size());
+    assertSpan(
+        text, "two hundred and five", EnglishQuantityExtractor.Type.NUMBER,
+        BigDecimal.valueOf(205), spans.get(0));
+    assertSpan(
+        text, "3 days", EnglishQuantityExtractor.Type.DURATION, Duration.ofDays(3), spans.get(1));
+  }
+
+  @Test
+  public void testCurrencyAmounts() {
+    String text = "Revenue rose to $1.4 million from 13 million euro, and £23 in fees.";
+    List<EnglishQuantityExtractor.Span> spans = extractor.extract(text);
+    Assert.assertEquals(3, spans.size());
+    assertCurrencySpan(text, "$1.4 million", "USD", 1400000L, spans.get(0));
+    assertCurrencySpan(text, "13 million euro", "EUR", 13000000L, spans.get(1));
+    assertCurrencySpan(text, "£23", "GBP", 23L, spans.get(2));
+  }
+
+  @Test
+  public void testDurationsAndNumbers() {
+    String text =
+        "Took 1 hr 17 mins, then 7s 320ms. Forty five thousand, fifty five rows; 1,350,000 total";
+    List<EnglishQuantityExtractor.Span> spans = extractor.extract(text);
+    Assert.assertEquals(4, spans.size());
+    assertSpan(
+        text, "1 hr 17 mins", EnglishQuantityExtractor.Type.DURATION, Duration.ofMinutes(77),
+        spans.get(0));
+    assertSpan(
+        text, "7s 320ms", EnglishQuantityExtractor.Type.DURATION, Duration.ofMillis(7320),
+        spans.get(1));
+    assertSpan(
+        text, "Forty five thousand, fifty five", EnglishQuantityExtractor.Type.NUMBER,
+        BigDecimal.valueOf(45055), spans.get(2));
+    assertSpan(
+        text, "1,350,000", EnglishQuantityExtractor.Type.NUMBER, BigDecimal.valueOf(1350000),
+        spans.get(3));
+  }
+
+  @Test
+  public void testListsAndRanges() {
+    assertNumbers("rooms 1, 2, 3 and 4", 1, 2, 3, 4);
+    assertNumbers("page 12, 345 words", 12, 345);
+    assertNumbers("1,000, 2,000 and 3,000", 1000, 2000, 3000);
+    assertNumbers("one, two and three hundred and five", 1, 2, 305);
+
+    String text = "between 5 and 10 days";
+    List<EnglishQuantityExtractor.Span> spans = extractor.extract(text);
+    Assert.assertEquals(2, spans.size());
+    assertSpan(
+        text, "5", EnglishQuantityExtractor.Type.NUMBER, BigDecimal.valueOf(5), spans.get(0));
+    assertSpan(
+        text, "10 days", EnglishQuantityExtractor.Type.DURATION, Duration.ofDays(10),
+        spans.get(1));
+
+    text = "from $5 and $10 to 2 and 3 million euro";
+    spans = extractor.extract(text);
+    Assert.assertEquals(4, spans.size());
+    assertCurrencySpan(text, "$5", "USD", 5L, spans.get(0));
+    assertCurrencySpan(text, "$10", "USD", 10L, spans.get(1));
+    assertSpan(
+        text, "2", EnglishQuantityExtractor.Type.NUMBER, BigDecimal.valueOf(2), spans.get(2));
+    assertCurrencySpan(text, "3 million euro", "EUR", 3000000L, spans.get(3));
+  }
+
+  @Test
+  public void testWordsInAnyCase() {
+    String text = "paid FORTY Five BRITISH pounds and CHF 12";
+    List<EnglishQuantityExtractor.Span> spans = extractor.extract(text);
+    Assert.assertEquals(2, spans.size());
+    assertCurrencySpan(text, "FORTY Five BRITISH pounds", "GBP", 45L, spans.get(0));
+    assertCurrencySpan(text, "CHF 12", "CHF", 12L, spans.get(1));
+  }
+
+  @Test
+  public void testLongRunOfNumberWords() {
+    long[] ones = new long[60];
+    Arrays.fill(ones, 1);
+    assertNumbers(String.join(" ", Collections.nCopies(ones.length, "one")), ones);
+  }
+
+  @Test
+  public void testNoQuantities() {
+    Assert.assertEquals(0, extractor.extract("").size());
+    Assert.assertEquals(0, extractor.extract("and, it's all in the minutes").size());
+  }
+
+  @Test
+  public void testReaderMatchesText() throws Exception {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 2000; ++i) {
+      text.append("Item ").append(i).append(" cost $").append(i * 7).append(" million and took ")
+          .append(i % 13).append(" hours ").append(i % 60).append(" minutes, ");
+      text.append(i % 2 == 0 ? "ninety nine thousand three hundred and eighty seven" : "twelve");
+      text.append(" times. ");
+    }
+    List<EnglishQuantityExtractor.Span> expected = extractor.extract(text);
+    Assert.assertEquals(8000, expected.size());
+
+    List<EnglishQuantityExtractor.Span> fromReader = new ArrayList<>();
+    extractor.extract(new StringReader(text.toString()), fromReader::add);
+    Assert.assertEquals(expected, fromReader);
+
+    List<EnglishQuantityExtractor.Span> fromChannel = new ArrayList<>();
+    extractor.extract(
+        Channels.newChannel(
+            new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8))),
+        StandardCharsets.UTF_8,
+        fromChannel::add);
+    Assert.assertEquals(expected, fromChannel);
+  }
+
+  private void assertNumbers(String text, long... expectedValues) {
+    List<EnglishQuantityExtractor.Span> spans = extractor.extract(text);
+    Assert.assertEquals(expectedValues.length, spans.size());
+    for (int i = 0; i < expectedValues.length; ++i) {
+      Assert.assertEquals(EnglishQuantityExtractor.Type.NUMBER, spans.get(i).getType());
+      Assert.assertEquals(BigDecimal.valueOf(expectedValues[i]), spans.get(i).getValue());
+    }
+  }
+
+  private static void assertCurrencySpan(
+      String text,
+      String expectedText,
+      String expectedCurrencyCode,
+      long expectedAmount,
+      EnglishQuantityExtractor.Span span) {
+    Assert.assertEquals(expectedText, text.substring((int) span.getStart(), (int) span.getEnd()));
+    Assert.assertEquals(EnglishQuantityExtractor.Type.CURRENCY_AMOUNT, span.getType());
+    CurrencyAmount amount = (CurrencyAmount) span.getValue();
+    Assert.assertEquals(Currency.getInstance(expectedCurrencyCode), amount.getCurrency());
+    Assert.assertEquals(expectedAmount, amount.getAmount().longValueExact());
+  }
+
+  private static void assertSpan(
+      String text,
+      String expectedText,
+      EnglishQuantityExtractor.Type expectedType,
+      Object expectedValue,
+      EnglishQuantityExtractor.Span span) {
+    Assert.assertEquals(expectedText, text.substring((int) span.getStart(), (int) span.getEnd()));
+    Assert.assertEquals(expectedType, span.getType());
+    Assert.assertEquals(expectedValue, span.getValue());
+  }
+}
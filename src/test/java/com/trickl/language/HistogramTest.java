@@ -0,0 +1,67 @@
+package com.trickl.language;
+
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void testSmallValuesAreExact() {
+    Histogram histogram = new Histogram();
+    for (int i = 1; i <= 50; ++i) {
+      histogram.record(i);
+    }
+    Assert.assertEquals(50, histogram.getCount());
+    Assert.assertEquals(50, histogram.getMax());
+    Assert.assertEquals(25, histogram.getValueAtPercentile(50));
+    Assert.assertEquals(50, histogram.getValueAtPercentile(100));
+    Assert.assertEquals(1, histogram.getValueAtPercentile(0));
+  }
+
+  @Test
+  public void testLargeValuesWithinRelativeError() {
+    Histogram histogram = new Histogram();
+    for (long value = 1000; value <= 1000000; value += 1000) {
+      histogram.record(value);
+    }
+    long median = histogram.getValueAtPercentile(50);
+    Assert.assertTrue(median >= 500000 && median <= 500000 * 103 / 100);
+    Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testBucketsCoverTheirValues() {
+    long[] values = {0, 63, 64, 65, 127, 128, 1000, 123456789, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+    for (long value : values) {
+      int bucket = Histogram.bucket(value);
+      Assert.assertTrue(value <= Histogram.highestEquivalentValue(bucket));
+      if (bucket > 0) {
+        Assert.assertTrue(value > Histogram.highestEquivalentValue(bucket - 1));
+      }
+    }
+  }
+
+  @Test
+  public void testNegativeValuesRecordedAsZero() {
+    Histogram histogram = new Histogram();
+    histogram.record(-5);
+    Assert.assertEquals(1, histogram.getCount());
+    Assert.assertEquals(0, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testEmpty() {
+    Histogram histogram = new Histogram();
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void testConcurrentRecording() {
+    Histogram histogram = new Histogram();
+    IntStream.range(0, 100000).parallel().forEach(histogram::record);
+    Assert.assertEquals(100000, histogram.getCount());
+    Assert.assertEquals(99999, histogram.getMax());
+  }
+}
@@ -0,0 +1,90 @@
+package com.trickl.language;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LevenshteinAutomatonTest {
+
+  private final LevenshteinAutomaton automaton =
+      LevenshteinAutomaton.of(
+          Arrays.asList("CARD", "CART", "FORTY", "FOURTEEN", "TEN", "THOUSAND", "US"), 2, 0);
+
+  @Test
+  public void testExactMatch() {
+    assertMatches("FORTY", 0, "forty");
+    assertMatches("US", 0, "Us");
+    assertMatches("TEN", 0, "TEN");
+  }
+
+  @Test
+  public void testEdits() {
+    // Insertion, deletion and substitution
+    assertMatches("FORTY", 1, "fourty");
+    assertMatches("THOUSAND", 1, "thousnd");
+    assertMatches("FOURTEEN", 1, "fourtean");
+    assertMatches("THOUSAND", 2, "tousnd");
+    assertMatches("FORTY", 1, "gorty");
+  }
+
+  @Test
+  public void testShortWordsTolerateFewerEdits() {
+    Assert.assertEquals(0, LevenshteinAutomaton.editsFor(2, 2));
+    Assert.assertEquals(1, LevenshteinAutomaton.editsFor(3, 2));
+    Assert.assertEquals(1, LevenshteinAutomaton.editsFor(5, 2));
+    Assert.assertEquals(2, LevenshteinAutomaton.editsFor(6, 2));
+    Assert.assertEquals(1, LevenshteinAutomaton.editsFor(6, 1));
+
+    assertMatches("TEN", 1, "tan");
+    assertNoMatch("to");
+    assertNoMatch("ts");
+    assertNoMatch("usa");
+  }
+
+  @Test
+  public void testAlternatives() {
+    int state = automaton.match("carx", 0, 4);
+    Assert.assertEquals("CARD", automaton.getWord(state));
+    Assert.assertEquals(1, automaton.getDistance(state));
+    Assert.assertEquals(2, automaton.getAlternatives(state));
+    Assert.assertEquals(1, automaton.getAlternatives(automaton.match("card", 0, 4)));
+  }
+
+  @Test
+  public void testExactPrefix() {
+    LevenshteinAutomaton prefixed =
+        LevenshteinAutomaton.of(Arrays.asList("FORTY", "THOUSAND"), 2, 1);
+    Assert.assertNull(prefixed.getWord(prefixed.match("gorty", 0, 5)));
+    Assert.assertNull(prefixed.getWord(prefixed.match("ourty", 0, 5)));
+    Assert.assertEquals("FORTY", prefixed.getWord(prefixed.match("fxorty", 0, 6)));
+    Assert.assertEquals("THOUSAND", prefixed.getWord(prefixed.match("tousand", 0, 7)));
+  }
+
+  @Test
+  public void testMatchRegion() {
+    int state = automaton.match("x fourty x", 2, 8);
+    Assert.assertEquals("FORTY", automaton.getWord(state));
+    Assert.assertEquals(1, automaton.getDistance(state));
+  }
+
+  @Test
+  public void testNoMatch() {
+    Assert.assertEquals(LevenshteinAutomaton.DEAD, automaton.match("xyzzy", 0, 5));
+    assertNoMatch("");
+    assertNoMatch("£13");
+    assertNoMatch("thousandsss");
+  }
+
+  private void assertMatches(String expected, int distance, String token) {
+    int state = automaton.match(token, 0, token.length());
+    Assert.assertEquals(token, expected, automaton.getWord(state));
+    Assert.assertEquals(token, distance, automaton.getDistance(state));
+  }
+
+  private void assertNoMatch(String token) {
+    int state = automaton.match(token, 0, token.length());
+    Assert.assertNull(token, automaton.getWord(state));
+    Assert.assertEquals(token, -1, automaton.getDistance(state));
+    Assert.assertEquals(token, 0, automaton.getAlternatives(state));
+  }
+}
@@ -0,0 +1,139 @@
+package com.trickl.language;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Locale;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LocalizedNumberParserTest {
+
+  private static final LocalizedNumberParser FRENCH =
+      LocalizedNumberParser.forLocale(Locale.FRANCE);
+
+  private static final LocalizedNumberParser GERMAN =
+      LocalizedNumberParser.forLocale(Locale.GERMAN);
+
+  private static final LocalizedNumberParser SPANISH =
+      LocalizedNumberParser.forLocale(new Locale("es", "MX"));
+
+  private static final LocalizedNumberParser ENGLISH =
+      LocalizedNumberParser.forLocale(Locale.UK);
+
+  @Test
+  public void testFrench() throws ParseException {
+    assertParses(FRENCH, 0, "zéro");
+    assertParses(FRENCH, 17, "dix-sept");
+    assertParses(FRENCH, 21, "vingt et un");
+    assertParses(FRENCH, 21, "vingt-et-un");
+    assertParses(FRENCH, 71, "soixante et onze");
+    assertParses(FRENCH, 77, "soixante-dix-sept");
+    assertParses(FRENCH, 80, "quatre-vingts");
+    assertParses(FRENCH, 97, "quatre-vingt-dix-sept");
+    assertParses(FRENCH, 97, "nonante-sept");
+    assertParses(FRENCH, 200, "deux cents");
+    assertParses(FRENCH, 1000, "mille");
+    assertParses(FRENCH, 97200, "quatre-vingt-dix-sept mille deux cents");
+    assertParses(FRENCH, 2000001, "Deux millions un");
+    assertParses(FRENCH, 3000000000000L, "trois billions");
+    assertParses(FRENCH, 1350000, "1.350.000");
+    assertParses(FRENCH, 13000000, "13 millions");
+  }
+
+  @Test
+  public void testGerman() throws ParseException {
+    assertParses(GERMAN, 0, "null");
+    assertParses(GERMAN, 13, "dreizehn");
+    assertParses(GERMAN, 23, "dreiundzwanzig");
+    assertParses(GERMAN, 30, "dreißig");
+    assertParses(GERMAN, 30, "DREISSIG");
+    assertParses(GERMAN, 101, "hunderteins");
+    assertParses(GERMAN, 121, "einhunderteinundzwanzig");
+    assertParses(GERMAN, 1000, "tausend");
+    assertParses(GERMAN, 223000, "zweihundertdreiundzwanzigtausend");
+    assertParses(GERMAN, 1001, "tausendundeins");
+    assertParses(GERMAN, 3500000, "drei Millionen fünfhunderttausend");
+    assertParses(GERMAN, 1000000000, "eine Milliarde");
+  }
+
+  @Test
+  public void testSpanish() throws ParseException {
+    assertParses(SPANISH, 0, "cero");
+    assertParses(SPANISH, 16, "dieciséis");
+    assertParses(SPANISH, 22, "veintidós");
+    assertParses(SPANISH, 33, "treinta y tres");
+    assertParses(SPANISH, 100, "cien");
+    assertParses(SPANISH, 120, "ciento veinte");
+    assertParses(SPANISH, 521, "quinientos veintiuno");
+    assertParses(SPANISH, 1000, "mil");
+    assertParses(SPANISH, 2321, "dos mil trescientos veintiuno");
+    assertParses(SPANISH, 21000, "veintiún mil");
+    assertParses(SPANISH, 1000000, "un millón");
+    assertParses(SPANISH, 2000000000, "dos mil millones");
+    assertParses(SPANISH, 3500000000L, "tres mil quinientos millones");
+    assertParses(SPANISH, 1001000, "un millón mil");
+    assertParses(SPANISH, 5000000000000L, "cinco billones");
+  }
+
+  @Test
+  public void testEnglish() throws ParseException {
+    assertParses(ENGLISH, 99387, "ninety nine thousand three hundred and eighty seven");
+    assertParses(ENGLISH, 1400500, "1.4 million and 500");
+    assertParses(ENGLISH, 1000000000, "one billion");
+  }
+
+  @Test
+  public void testInvalidNumbers() {
+    assertInvalid(FRENCH, 0, "seventy");
+    assertInvalid(FRENCH, 6, "trois quatre");
+    assertInvalid(FRENCH, 12, "vingt-mille-x");
+    assertInvalid(GERMAN, 4, "dreixzehn");
+    assertInvalid(GERMAN, 0, "");
+    assertInvalid(SPANISH, 5, "doce cien");
+    assertInvalid(SPANISH, 4, "mil mil");
+    assertInvalid(ENGLISH, 6, "forty dollars");
+    // English words in French, and decimals, which have no grammar to fall back on
+    assertInvalid(FRENCH, 0, "thousand");
+    assertInvalid(FRENCH, 0, "3,5 millions");
+  }
+
+  @Test
+  public void testRegion() throws ParseException {
+    String text = "Montant: deux mille euros";
+    Assert.assertEquals(2000, FRENCH.parseLong(text, 9, 19));
+    try {
+      FRENCH.parseLong(text, 9, 25);
+      Assert.fail("Expected text to be rejected");
+    } catch (ParseException ex) {
+      Assert.assertEquals(20, ex.getErrorOffset());
+    }
+  }
+
+  @Test
+  public void testLocales() {
+    Assert.assertEquals(
+        Arrays.asList(Locale.ENGLISH, Locale.FRENCH, Locale.GERMAN, new Locale("es")),
+        Arrays.asList(LocalizedNumberParser.getAvailableLocales().toArray()));
+    Assert.assertEquals(Locale.FRENCH, FRENCH.getLocale());
+    try {
+      LocalizedNumberParser.forLocale(Locale.ITALIAN);
+      Assert.fail("Expected Italian to be unsupported");
+    } catch (IllegalArgumentException ex) {
+      // Expected
+    }
+  }
+
+  private static void assertParses(LocalizedNumberParser parser, long expected, String text)
+      throws ParseException {
+    Assert.assertEquals(text, expected, parser.parseLong(text));
+  }
+
+  private static void assertInvalid(LocalizedNumberParser parser, int offset, String text) {
+    try {
+      parser.parseLong(text);
+      Assert.fail("Expected '" + text + "' to be rejected");
+    } catch (ParseException ex) {
+      Assert.assertEquals(text, offset, ex.getErrorOffset());
+    }
+  }
+}
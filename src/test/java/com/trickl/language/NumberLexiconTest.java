@@ -0,0 +1,99 @@
+package com.trickl.language;
+
+import com.trickl.language.NumberLexicon.Role;
+import com.trickl.language.NumberLexicon.Rule;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NumberLexiconTest {
+
+  @Test
+  public void testEnglishLexiconMatchesGrammar() {
+    NumberLexicon english = NumberLexicon.ENGLISH;
+    Set<String> expected = new HashSet<>(EnglishNumberParser.NUMBER_LITERALS);
+    expected.add("AND");
+    Assert.assertEquals(expected, english.getWords());
+    for (EnglishNumberParser.NumberLiteral literal : EnglishNumberParser.NumberLiteral.values()) {
+      int word = english.match(literal.name(), 0, literal.name().length());
+      Assert.assertEquals(literal.name(), literal.getValue(), english.getValue(word));
+    }
+    Assert.assertEquals(Role.CONNECTOR, english.getRole(english.match("and", 0, 3)));
+    for (Rule rule : Rule.values()) {
+      Assert.assertFalse(rule.name(), english.hasRule(rule));
+    }
+  }
+
+  @Test
+  public void testLanguagesShareAutomaton() {
+    NumberLexicon french = NumberLexicon.forLanguage("fr");
+    NumberLexicon german = NumberLexicon.forLanguage("de");
+    WordAutomaton automaton = NumberLexicon.getAutomaton();
+
+    int billion = automaton.match("billion", 0, 7);
+    Assert.assertEquals(1000000000L, NumberLexicon.ENGLISH.getValue(billion));
+    Assert.assertEquals(1000000000000L, french.getValue(billion));
+    Assert.assertEquals(1000000000000L, german.getValue(billion));
+    Assert.assertEquals(automaton.match("six", 0, 3), french.match("SIX", 0, 3));
+    Assert.assertEquals(-1, NumberLexicon.ENGLISH.match("mille", 0, 5));
+    Assert.assertEquals(-1, french.match("thousand", 0, 8));
+    Assert.assertNull(NumberLexicon.forLanguage("it"));
+
+    int words = 0;
+    for (String language : NumberLexicon.LANGUAGES) {
+      words += NumberLexicon.forLanguage(language).getWords().size();
+    }
+    Assert.assertTrue(automaton.getWordCount() < words);
+    Assert.assertTrue(automaton.getStateCount() < automaton.getWordCount() * 3);
+  }
+
+  @Test
+  public void testMatchPrefix() {
+    NumberLexicon german = NumberLexicon.forLanguage("de");
+    Assert.assertEquals(8, german.matchPrefix("dreizehn", 0, 8));
+    Assert.assertEquals(4, german.matchPrefix("dreiundzwanzig", 0, 14));
+    Assert.assertEquals(3, german.matchPrefix("einhundert", 0, 10));
+    Assert.assertEquals(-1, german.matchPrefix("hundred", 0, 7));
+    Assert.assertEquals(-1, german.matchPrefix("x", 0, 1));
+  }
+
+  @Test
+  public void testWordChars() {
+    NumberLexicon french = NumberLexicon.forLanguage("fr");
+    Assert.assertTrue(french.isWordChar('é'));
+    Assert.assertTrue(french.isWordChar('É'));
+    Assert.assertTrue(french.isWordChar('-'));
+    Assert.assertFalse(NumberLexicon.ENGLISH.isWordChar('-'));
+    Assert.assertFalse(NumberLexicon.ENGLISH.isWordChar('é'));
+    Assert.assertFalse(NumberLexicon.ENGLISH.isWordChar('ı'));
+  }
+
+  @Test
+  public void testReadRejectsMalformedLines() throws IOException {
+    read("# Comment\n\n@decimal-separator ,\n@rule implicit-one\nmil multiplier 1000 # x\n");
+    assertMalformed("dos unit\n", "line 1: Expected 3 fields, not 2");
+    assertMalformed("dos unit 2\ndoce teen 12\ndoce teen 12\n", "line 3: Duplicate word doce");
+    assertMalformed("veinte ten 25\n", "Invalid value 25 for a TEN");
+    assertMalformed("mil multiplier 2000\n", "Invalid value 2000 for a MULTIPLIER");
+    assertMalformed("y conjunction\n", "No enum constant");
+    assertMalformed("@rule plural-tens\n", "No enum constant");
+    assertMalformed("@decimal-separator ,,\n", "Expected a single character separator");
+  }
+
+  private static NumberLexicon.Definition read(String lexicon) throws IOException {
+    return NumberLexicon.read("xx", new BufferedReader(new StringReader(lexicon)));
+  }
+
+  private static void assertMalformed(String lexicon, String message) throws IOException {
+    try {
+      read(lexicon);
+      Assert.fail("Expected '" + lexicon + "' to be rejected");
+    } catch (IllegalArgumentException ex) {
+      Assert.assertTrue(ex.getMessage(), ex.getMessage().contains(message));
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.trickl.language;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.jparsec.error.ParserException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NumberScannerTest {
+
+  private static final List<String> CORPUS =
+      Arrays.asList(
+          "zero",
+          "three",
+          "fourteen",
+          "thirty five",
+          "seventy",
+          "hundred",
+          "one hundred",
+          "two hundred sixty four",
+          "thirteen thousand",
+          "forty five thousand fifty five",
+          "ninety nine thousand three hundred eighty seven",
+          "forty five thousand, fifty five",
+          "ninety nine thousand three hundred, eighty seven",
+          "forty five thousand and fifty five",
+          "ninety nine thousand three hundred and eighty seven",
+          "Hundred",
+          "ONE HUNDRED",
+          "Two hundred sixty four",
+          "2 hundred",
+          "13 million",
+          "13 million and 12",
+          "23 million, three hundred and 97",
+          "1,200",
+          "13,000,001",
+          "123,456,789",
+          "123،456،789",
+          "110 million",
+          "0",
+          "0.7",
+          ".34",
+          "1.4 million and 500",
+          "twenty 5",
+          "twenty 5,000",
+          "five hundred thousand",
+          "one hundred thousand and one",
+          "seven trillion six billion five million four thousand three hundred and two",
+          "nine hundred ninety nine trillion",
+          "thousand",
+          "",
+          "one twenty",
+          "twenty hundred",
+          "five 100",
+          "two thousand million",
+          "zero one",
+          "andone",
+          "one, two, three, four, five, six",
+          "forty five dollars",
+          "five-hundred",
+          "£5");
+
+  @Test
+  public void testScannerAgreesWithGrammar() {
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    for (String text : CORPUS) {
+      int status = scanner.scan(text, 0, text.length());
+      if (status == NumberScanner.ACCEPTED) {
+        Assert.assertEquals(
+            text, EnglishNumberParser.NUMBER.parse(text), BigDecimal.valueOf(scanner.getValue()));
+      } else if (status == NumberScanner.REJECTED) {
+        try {
+          EnglishNumberParser.NUMBER.parse(text);
+          Assert.fail("Grammar accepted rejected text '" + text + "'");
+        } catch (ParserException ex) {
+          // Expected
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testScannerAcceptsSimpleNumbers() {
+    assertAccepts(0, "zero");
+    assertAccepts(100, "hundred");
+    assertAccepts(99387, "ninety nine thousand three hundred and eighty seven");
+    assertAccepts(13000001, "13,000,001");
+    assertAccepts(23000397, "23 million, three hundred and 97");
+  }
+
+  @Test
+  public void testScannerDefersUnusualNumbers() {
+    assertStatus(NumberScanner.DEFERRED, "0.7");
+    assertStatus(NumberScanner.DEFERRED, "five 100");
+    assertStatus(NumberScanner.DEFERRED, "99999999999999999999");
+  }
+
+  @Test
+  public void testScannerRejectsInvalidNumbers() {
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    Assert.assertEquals(NumberScanner.REJECTED, scanner.scan("forty five dollars", 0, 18));
+    Assert.assertEquals(11, scanner.getErrorIndex());
+  }
+
+  private void assertAccepts(long expected, String text) {
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    Assert.assertEquals(text, NumberScanner.ACCEPTED, scanner.scan(text, 0, text.length()));
+    Assert.assertEquals(text, expected, scanner.getValue());
+  }
+
+  private void assertStatus(int expected, String text) {
+    NumberScanner scanner = new NumberScanner(NumberLexicon.ENGLISH);
+    Assert.assertEquals(text, expected, scanner.scan(text, 0, text.length()));
+  }
+}
@@ -0,0 +1,97 @@
+package com.trickl.language;
+
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParseResultCacheTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private final ParseResultCache.RegionParser<Integer> parser =
+      (text, start, end) -> {
+        calls.incrementAndGet();
+        String region = text.subSequence(start, end).toString();
+        if (region.startsWith("bad")) {
+          throw new ParseException("Unable to parse '" + region + "'", start + 3);
+        }
+        return region.length();
+      };
+
+  @Test
+  public void testHitsOnRegionWithoutCopy() throws Exception {
+    ParseResultCache<Integer> cache = new ParseResultCache<>(parser, 16);
+    Assert.assertEquals(Integer.valueOf(5), cache.parse("hello", 0, 5));
+    Assert.assertEquals(Integer.valueOf(5), cache.parse(new StringBuilder("say hello"), 4, 9));
+    Assert.assertEquals(1, calls.get());
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(1, cache.getMisses());
+    Assert.assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testCachesFailures() {
+    ParseResultCache<Integer> cache = new ParseResultCache<>(parser, 16);
+    assertFailsAt(cache, "bad input", 0, 3);
+    assertFailsAt(cache, "a bad input", 2, 5);
+    Assert.assertEquals(1, calls.get());
+    Assert.assertEquals(1, cache.getHits());
+  }
+
+  @Test
+  public void testHotEntrySurvivesOneOffValues() throws Exception {
+    // A single set of two entries
+    ParseResultCache<Integer> cache = new ParseResultCache<>(parser, 2);
+    for (int i = 0; i < 8; ++i) {
+      cache.parse("hot", 0, 3);
+    }
+    for (int i = 0; i < 4; ++i) {
+      String value = "cold" + i;
+      cache.parse(value, 0, value.length());
+    }
+    int before = calls.get();
+    cache.parse("hot", 0, 3);
+    Assert.assertEquals(before, calls.get());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testFillingEmptyWayDoesNotAgeEntry() throws Exception {
+    // A single set of two entries
+    ParseResultCache<Integer> cache = new ParseResultCache<>(parser, 2);
+    cache.parse("hot", 0, 3);
+    cache.parse("hot", 0, 3);
+    cache.parse("cold", 0, 4);
+    cache.parse("colder", 0, 6);
+    int before = calls.get();
+    cache.parse("hot", 0, 3);
+    Assert.assertEquals(before, calls.get());
+  }
+
+  @Test
+  public void testSizeIsBounded() throws Exception {
+    ParseResultCache<Integer> cache = new ParseResultCache<>(parser, 5);
+    for (int i = 0; i < 100; ++i) {
+      String value = Integer.toString(i);
+      cache.parse(value, 0, value.length());
+    }
+    Assert.assertTrue(cache.size() <= 8);
+    Assert.assertEquals(100, cache.getMisses());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testRejectsRegionOutsideText() throws Exception {
+    new ParseResultCache<>(parser, 16).parse("hello", 2, 6);
+  }
+
+  private static void assertFailsAt(
+      ParseResultCache<Integer> cache, String text, int start, int errorOffset) {
+    try {
+      cache.parse(text, start, text.length());
+      Assert.fail("Expected ParseException");
+    } catch (ParseException ex) {
+      Assert.assertEquals(errorOffset, ex.getErrorOffset());
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.trickl.language;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParserMetricsTest {
+
+  private static final String OUT_OF_RANGE = "99999999999999999999 seconds";
+
+  private final ParserMetrics metrics = new ParserMetrics();
+
+  @Before
+  public void setUp() {
+    ParserInstrumentation.setListener(metrics);
+  }
+
+  @After
+  public void tearDown() {
+    ParserInstrumentation.setListener(null);
+  }
+
+  @Test
+  public void testRecordsDurationParses() throws ParseException {
+    EnglishDurationFormat format = new EnglishDurationFormat();
+    format.parse("1 hour 17 minutes");
+    format.parse("in 2 days time", 3, 9);
+    assertParseFails(format, "3 fortnights");
+    assertParseFails(format, OUT_OF_RANGE);
+    assertParseFails(format, "42");
+
+    ParserListener.Operation operation = ParserListener.Operation.DURATION_PARSE;
+    Assert.assertEquals(2, metrics.getSuccesses(operation));
+    Map<String, Long> failures = metrics.getFailures(operation);
+    Assert.assertEquals(Long.valueOf(1), failures.get("unknown unit"));
+    Assert.assertEquals(Long.valueOf(1), failures.get("amount out of range"));
+    Assert.assertEquals(Long.valueOf(1), failures.get("no units"));
+    Assert.assertEquals(5, metrics.getLatencyNanos(operation).getCount());
+    Assert.assertEquals(OUT_OF_RANGE.length(), metrics.getLength(operation).getMax());
+  }
+
+  @Test
+  public void testRecordsDurationFormats() {
+    EnglishDurationFormat format = new EnglishDurationFormat();
+    String shorter = format.formatMillis(1500);
+    String longer = format.format(Duration.ofMinutes(62).plusSeconds(3));
+
+    ParserListener.Operation operation = ParserListener.Operation.DURATION_FORMAT;
+    Assert.assertEquals(2, metrics.getSuccesses(operation));
+    Assert.assertTrue(metrics.getFailures(operation).isEmpty());
+    Assert.assertEquals(shorter.length(), metrics.getLength(operation).getValueAtPercentile(0));
+    Assert.assertEquals(longer.length(), metrics.getLength(operation).getMax());
+  }
+
+  @Test
+  public void testRecordsLongOutOfRange() {
+    EnglishNumberParser parser = new EnglishNumberParser();
+    Assert.assertEquals(42, parser.parseLong("forty two"));
+    assertParseLongOutOfRange(parser, "1.5");
+    assertParseLongOutOfRange(parser, "99999999999999999999");
+
+    ParserListener.Operation operation = ParserListener.Operation.NUMBER_PARSE;
+    Assert.assertEquals(1, metrics.getSuccesses(operation));
+    Assert.assertEquals(Long.valueOf(2), metrics.getFailures(operation).get("out of range"));
+    Assert.assertEquals(3, metrics.getLatencyNanos(operation).getCount());
+  }
+
+  @Test
+  public void testNothingRecordedWithoutListener() throws ParseException {
+    ParserInstrumentation.setListener(null);
+    new EnglishDurationFormat().parse("1 hour");
+    Assert.assertEquals(0, metrics.getSuccesses(ParserListener.Operation.DURATION_PARSE));
+  }
+
+  private static void assertParseFails(EnglishDurationFormat format, String text) {
+    try {
+      format.parse(text);
+      Assert.fail("Expected ParseException");
+    } catch (ParseException ex) {
+      // Expected
+    }
+  }
+
+  private static void assertParseLongOutOfRange(EnglishNumberParser parser, String text) {
+    try {
+      parser.parseLong(text);
+      Assert.fail("Expected ArithmeticException");
+    } catch (ArithmeticException ex) {
+      // Expected
+    }
+  }
+}
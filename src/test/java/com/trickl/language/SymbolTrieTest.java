@@ -0,0 +1,57 @@
+package com.trickl.language;
+
+import java.util.Arrays;
+import org.jparsec.pattern.Pattern;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SymbolTrieTest {
+
+  private final SymbolTrie trie =
+      SymbolTrie.of(Arrays.asList("$", "US$", "U", "R$", "₹", "CHF", ""));
+
+  @Test
+  public void testLongestMatch() {
+    Assert.assertEquals(3, trie.match("US$5", 0, 4));
+    Assert.assertEquals(1, trie.match("US5", 0, 3));
+    Assert.assertEquals(1, trie.match("$5", 0, 2));
+    Assert.assertEquals(2, trie.match("R$ 5", 0, 4));
+    Assert.assertEquals(1, trie.match("₹ 12,50,000", 0, 11));
+    Assert.assertEquals(3, trie.match("5 CHF", 2, 5));
+  }
+
+  @Test
+  public void testMismatch() {
+    Assert.assertEquals(Pattern.MISMATCH, trie.match("5$", 0, 2));
+    Assert.assertEquals(Pattern.MISMATCH, trie.match("R5", 0, 2));
+    Assert.assertEquals(Pattern.MISMATCH, trie.match("chf", 0, 3));
+    Assert.assertEquals(Pattern.MISMATCH, trie.match("", 0, 0));
+  }
+
+  @Test
+  public void testWholeWords() {
+    Pattern words = trie.wholeWords();
+    Assert.assertEquals(3, words.match("US$5", 0, 4));
+    Assert.assertEquals(Pattern.MISMATCH, words.match("US5", 0, 3));
+    Assert.assertEquals(1, words.match("U 5", 0, 3));
+    Assert.assertEquals(3, words.match("CHF", 0, 3));
+    Assert.assertEquals(Pattern.MISMATCH, words.match("CHFs", 0, 4));
+    Assert.assertEquals(1, words.match("$US", 0, 3));
+  }
+
+  @Test
+  public void testWholeWordsSkipsStartOfNames() {
+    Pattern words = SymbolTrie.of(Arrays.asList("P", "Br", "£")).wholeWords();
+    Assert.assertEquals(Pattern.MISMATCH, words.match("Pound", 0, 5));
+    Assert.assertEquals(Pattern.MISMATCH, words.match("British", 0, 7));
+    Assert.assertEquals(1, words.match("P 5", 0, 3));
+    Assert.assertEquals(2, words.match("Br5", 0, 3));
+    Assert.assertEquals(1, words.match("£Pound", 0, 6));
+  }
+
+  @Test
+  public void testMatchStopsAtRegionEnd() {
+    Assert.assertEquals(1, trie.match("US$5", 0, 2));
+    Assert.assertEquals(Pattern.MISMATCH, trie.match("CHF", 0, 2));
+  }
+}
@@ -0,0 +1,53 @@
+package com.trickl.language;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TrieBuilderTest {
+
+  @Test
+  public void testSharesPrefixes() {
+    TrieBuilder trie = new TrieBuilder();
+    int ten = trie.add("TEN");
+    int teen = trie.add("TEEN");
+    Assert.assertEquals(ten, trie.add("TEN"));
+    Assert.assertEquals(6, trie.getNodeCount());
+    Assert.assertEquals(3, trie.getDepth(ten));
+    Assert.assertEquals(4, trie.getDepth(teen));
+    Assert.assertEquals(TrieBuilder.ROOT, trie.add(""));
+  }
+
+  @Test
+  public void testChildrenSorted() {
+    TrieBuilder trie = new TrieBuilder();
+    trie.add("TEN");
+    trie.add("TEEN");
+    int node = trie.getChildren(trie.getChildren(TrieBuilder.ROOT)[0])[0];
+    Assert.assertArrayEquals(new char[] {'E', 'N'}, trie.getChars(node));
+    // The "E" was added after the "N", so is numbered after it while sorting before it
+    Assert.assertTrue(trie.getChildren(node)[0] > trie.getChildren(node)[1]);
+  }
+
+  @Test
+  public void testCharClasses() {
+    TrieBuilder trie = new TrieBuilder();
+    trie.add("TEN");
+    trie.add("NINE");
+    char[] classChars = trie.getClassChars();
+    Assert.assertArrayEquals(new char[] {'E', 'I', 'N', 'T'}, classChars);
+    byte[] charClasses = TrieBuilder.charClasses(classChars);
+    Assert.assertEquals('T' + 1, charClasses.length);
+    Assert.assertEquals(1, charClasses['E']);
+    Assert.assertEquals(4, charClasses['T']);
+    Assert.assertEquals(0, charClasses['A']);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyCharClasses() {
+    TrieBuilder trie = new TrieBuilder();
+    for (char c = 'A'; c < 'A' + Byte.MAX_VALUE; ++c) {
+      trie.add(String.valueOf(c));
+    }
+    trie.getClassChars();
+  }
+}
@@ -0,0 +1,101 @@
+package com.trickl.language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TypoCorrectorTest {
+
+  private final TypoCorrector corrector = TypoCorrector.forMaxEdits(2);
+
+  @Test
+  public void testCorrectWord() {
+    TypoCorrection correction = corrector.correctWord("x fourty", 2, 8);
+    Assert.assertEquals(2, correction.getStart());
+    Assert.assertEquals(8, correction.getEnd());
+    Assert.assertEquals("fourty", correction.getOriginal());
+    Assert.assertEquals("FORTY", correction.getCorrection());
+    Assert.assertEquals(1, correction.getDistance());
+    Assert.assertEquals(5 / 6.0, correction.getConfidence(), 1e-9);
+
+    Assert.assertEquals("THOUSAND", corrector.correctWord("Thousnd", 0, 7).getCorrection());
+    Assert.assertEquals("BRITISH", corrector.correctWord("Brittish", 0, 8).getCorrection());
+    Assert.assertEquals("NINETY", corrector.correctWord("nintey", 0, 6).getCorrection());
+    Assert.assertEquals(6 / 7.0, corrector.correctWord("millin", 0, 6).getConfidence(), 1e-9);
+  }
+
+  @Test
+  public void testVocabularyWordsAreNotCorrected() {
+    Assert.assertNull(corrector.correctWord("forty", 0, 5));
+    Assert.assertNull(corrector.correctWord("POUND", 0, 5));
+    // Not "rand"
+    Assert.assertNull(corrector.correctWord("and", 0, 3));
+  }
+
+  @Test
+  public void testDistantWordsAreNotCorrected() {
+    Assert.assertNull(corrector.correctWord("the", 0, 3));
+    Assert.assertNull(corrector.correctWord("fiev", 0, 4));
+    Assert.assertNull(corrector.correctWord("gorty", 0, 5));
+    Assert.assertNull(corrector.correctWord("xyz", 0, 3));
+    Assert.assertNull(TypoCorrector.forMaxEdits(1).correctWord("nintey", 0, 6));
+  }
+
+  @Test
+  public void testAmbiguousWord() {
+    TypoCorrection correction = corrector.correctWord("firty", 0, 5);
+    Assert.assertEquals("FIFTY", correction.getCorrection());
+    Assert.assertEquals(0.4, correction.getConfidence(), 1e-9);
+
+    List<TypoCorrection> corrections = new ArrayList<>();
+    Assert.assertEquals("firty", corrector.correct("firty", corrections));
+    Assert.assertTrue(corrections.isEmpty());
+  }
+
+  @Test
+  public void testCorrect() {
+    List<TypoCorrection> corrections = new ArrayList<>();
+    // Plural currency names are recognised, so are left alone
+    Assert.assertEquals(
+        "FORTY five THOUSAND and £13 BRITISH pounds",
+        corrector.correct("fourty five thousnd and £13 Brittish pounds", corrections));
+    Assert.assertEquals(
+        Arrays.asList("fourty", "thousnd", "Brittish"),
+        corrections.stream().map(TypoCorrection::getOriginal).collect(Collectors.toList()));
+
+    corrections.clear();
+    Assert.assertEquals("forty five", corrector.correct("forty five", corrections));
+    Assert.assertTrue(corrections.isEmpty());
+    Assert.assertNull(corrector.correctRegion("x fourty", 0, 1, corrections));
+  }
+
+  @Test
+  public void testOriginalIndex() {
+    List<TypoCorrection> corrections = new ArrayList<>();
+    String text = "total: fourty thousnd x";
+    String corrected = corrector.correctRegion(text, 7, text.length(), corrections);
+    Assert.assertEquals("FORTY THOUSAND x", corrected);
+    Assert.assertEquals(7, TypoCorrector.originalIndex(corrections, 7, 0));
+    Assert.assertEquals(7, TypoCorrector.originalIndex(corrections, 7, 4));
+    Assert.assertEquals(13, TypoCorrector.originalIndex(corrections, 7, 5));
+    Assert.assertEquals(14, TypoCorrector.originalIndex(corrections, 7, 13));
+    Assert.assertEquals(21, TypoCorrector.originalIndex(corrections, 7, 14));
+    Assert.assertEquals(22, TypoCorrector.originalIndex(corrections, 7, 15));
+    Assert.assertEquals(5, TypoCorrector.originalIndex(Collections.emptyList(), 2, 3));
+  }
+
+  @Test
+  public void testSharedPerTolerance() {
+    Assert.assertSame(corrector, TypoCorrector.forMaxEdits(2));
+    Assert.assertEquals(1, TypoCorrector.forMaxEdits(1).getMaxEdits());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsTolerance() {
+    TypoCorrector.forMaxEdits(TypoCorrector.MAX_EDITS + 1);
+  }
+}
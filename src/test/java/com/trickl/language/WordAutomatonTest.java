@@ -0,0 +1,56 @@
+package com.trickl.language;
+
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WordAutomatonTest {
+
+  private final WordAutomaton automaton =
+      WordAutomaton.of(
+          Arrays.asList("SIXTEEN", "SIX", "FOURTEEN", "FOUR", "NINETEEN", "NINE", "TEN"));
+
+  @Test
+  public void testWordsAreNumberedInOrder() {
+    Assert.assertEquals(7, automaton.getWordCount());
+    for (int word = 0; word < automaton.getWordCount(); ++word) {
+      String text = automaton.getWord(word);
+      Assert.assertEquals(text, word, automaton.match(text, 0, text.length()));
+    }
+    Assert.assertEquals("FOUR", automaton.getWord(0));
+    Assert.assertEquals("TEN", automaton.getWord(6));
+  }
+
+  @Test
+  public void testMatchIsCaseInsensitive() {
+    Assert.assertEquals(1, automaton.match("Fourteen", 0, 8));
+    Assert.assertEquals(4, automaton.match("six", 0, 3));
+  }
+
+  @Test
+  public void testMismatch() {
+    Assert.assertEquals(-1, automaton.match("SIXT", 0, 4));
+    Assert.assertEquals(-1, automaton.match("SEVEN", 0, 5));
+    Assert.assertEquals(-1, automaton.match("", 0, 0));
+    Assert.assertEquals(-1, automaton.match("TENS", 0, 4));
+  }
+
+  @Test
+  public void testMatchStopsAtRegionEnd() {
+    Assert.assertEquals(4, automaton.match("sixteen", 0, 3));
+    Assert.assertEquals(6, automaton.match("often", 2, 5));
+  }
+
+  @Test
+  public void testSuffixesAreShared() {
+    // A trie would need a node for each of the 31 prefixes, but "TEEN" is only stored once and
+    // shares its end with "TEN"
+    Assert.assertEquals(15, automaton.getStateCount());
+    int state = WordAutomaton.START;
+    for (char c : "NINE".toCharArray()) {
+      state = automaton.next(state, c);
+    }
+    Assert.assertTrue(automaton.isAccepting(state));
+    Assert.assertEquals(WordAutomaton.DEAD, automaton.next(state, 'X'));
+  }
+}